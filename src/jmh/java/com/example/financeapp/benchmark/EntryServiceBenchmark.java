@@ -0,0 +1,77 @@
+package com.example.financeapp.benchmark;
+
+import com.example.financeapp.dto.EntryResponseDto;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.EntrySearchCriteria;
+import com.example.financeapp.service.EntryService;
+import com.example.financeapp.service.ReferenceDataCache;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mapping a year of entries to response DTOs (the /api/entries listing), with the repository
+ * stubbed to return the synthetic entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EntryServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    @Mock(stubOnly = true)
+    private EntryRepository entryRepository;
+
+    @Mock(stubOnly = true)
+    private ReferenceDataCache referenceDataCache;
+
+    @InjectMocks
+    private EntryService entryService;
+
+    private EntrySearchCriteria criteria;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SyntheticData data = new SyntheticData(entries);
+
+        when(entryRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(data.entries);
+        when(referenceDataCache.get(SyntheticData.USER_ID)).thenReturn(data.refs());
+
+        criteria = EntrySearchCriteria.builder()
+                .from(SyntheticData.FIRST_DAY)
+                .to(SyntheticData.FIRST_DAY.plusDays(SyntheticData.DAYS - 1))
+                .build();
+    }
+
+    @Benchmark
+    public List<EntryResponseDto> mapEntries() {
+        return entryService.getEntries(criteria);
+    }
+}
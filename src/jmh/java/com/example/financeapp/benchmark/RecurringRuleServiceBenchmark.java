@@ -0,0 +1,123 @@
+package com.example.financeapp.benchmark;
+
+import com.example.financeapp.dto.SyncResultDto;
+import com.example.financeapp.entity.EndType;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.RecurrenceFrequency;
+import com.example.financeapp.entity.RecurringRule;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.RecurringInstanceRepository;
+import com.example.financeapp.repository.RecurringRuleRepository;
+import com.example.financeapp.service.BudgetService;
+import com.example.financeapp.service.EntrySnapshot;
+import com.example.financeapp.service.RecurrenceSchedule;
+import com.example.financeapp.service.RecurringRuleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occurrence date calculation and transaction generation. The rule is a weekly fixed-term rule
+ * of {@code entries} occurrences ending on a fixed date, so its whole history is due on any run
+ * and the workload does not depend on the day. Every other occurrence is already generated, so
+ * each sync creates the missing half through stubbed repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RecurringRuleServiceBenchmark {
+
+    /**
+     * Date of the rule's last occurrence (a Monday).
+     */
+    private static final LocalDate LAST_OCCURRENCE = LocalDate.of(2024, 12, 30);
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private RecurringRuleService recurringRuleService;
+
+    private RecurrenceSchedule monthlySchedule;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(0);
+
+        RecurringRule rule = new RecurringRule();
+        rule.setId(1L);
+        rule.setUser(data.user);
+        rule.setCategory(data.categories.get(0));
+        rule.setName("Weekly transfer");
+        rule.setDirection(EntryType.EXPENSE);
+        rule.setAmountDefault(new BigDecimal("25.00"));
+        rule.setFrequency(RecurrenceFrequency.WEEKLY);
+        rule.setStartDate(LAST_OCCURRENCE.minusWeeks(entries - 1));
+        rule.setEndType(EndType.FIXED_TERM);
+        rule.setTotalOccurrences(entries);
+
+        RecurrenceSchedule schedule = RecurrenceSchedule.of(rule);
+        List<LocalDate> generated = new ArrayList<>(entries / 2);
+        for (int n = 0; n < entries; n += 2) {
+            generated.add(schedule.occurrence(n));
+        }
+
+        RecurringRuleRepository ruleRepository = Stubs.of(RecurringRuleRepository.class,
+                Map.of("findActiveRulesForGeneration", args -> List.of(rule)));
+        RecurringInstanceRepository instanceRepository = Stubs.of(RecurringInstanceRepository.class, Map.of(
+                "findScheduledDatesByRuleId", args -> generated,
+                "save", args -> args[0]));
+        EntryRepository entryRepository = Stubs.of(EntryRepository.class, Map.of("save", args -> args[0]));
+        BudgetService budgetService = new BudgetService(null, null, null, null, null) {
+            @Override
+            public boolean applyEntryChange(EntrySnapshot before, EntrySnapshot after) {
+                return false;
+            }
+        };
+        ApplicationEventPublisher eventPublisher = event -> {
+        };
+
+        // Collaborators the sync path never touches are left null
+        recurringRuleService = new RecurringRuleService(ruleRepository, instanceRepository, entryRepository,
+                null, null, budgetService, null, null, null, null, eventPublisher);
+
+        monthlySchedule = RecurrenceSchedule.of(RecurrenceFrequency.MONTHLY, LocalDate.of(2000, 1, 31), 31);
+    }
+
+    /**
+     * Dates of the first {@code entries} occurrences of a month-end rule, each mapped back to
+     * its period: the per-instance lookups sync and rule rewrites do through
+     * {@link RecurrenceSchedule}, which replaced RecurringRuleService.calculateScheduledDate.
+     */
+    @Benchmark
+    public void scheduleOccurrences(Blackhole blackhole) {
+        for (int n = 0; n < entries; n++) {
+            blackhole.consume(monthlySchedule.periodIndex(monthlySchedule.occurrence(n)));
+        }
+    }
+
+    @Benchmark
+    public SyncResultDto generateTransactions() {
+        return recurringRuleService.syncTransactions();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.financeapp.benchmark;
+
+import com.example.financeapp.dto.CategoryTotalDto;
+import com.example.financeapp.dto.DailyTotalsResponseDto;
+import com.example.financeapp.dto.MonthComparisonResponseDto;
+import com.example.financeapp.dto.MonthlySummaryResponseDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.service.EntryColumns;
+import com.example.financeapp.service.EntryColumnsCache;
+import com.example.financeapp.service.EntryService;
+import com.example.financeapp.service.EntryWriteTracker;
+import com.example.financeapp.service.ExchangeRateService;
+import com.example.financeapp.service.MonthReportCache;
+import com.example.financeapp.service.ReferenceDataCache;
+import com.example.financeapp.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Month reports computed from the in-memory entry columns, with the per-month report cache
+ * bypassed so every invocation aggregates. Entries are spread over 2024, so a month report
+ * reads about a twelfth of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReportServiceBenchmark {
+
+    private static final String MONTH = "2024-06";
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private ReportService reportService;
+    private EntryColumnsCache entryColumnsCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticData data = new SyntheticData(entries);
+        List<Object[]> rows = data.columnRows();
+
+        EntryRepository entryRepository = mock(EntryRepository.class, withSettings().stubOnly());
+        when(entryRepository.streamColumns(SyntheticData.USER_ID)).thenAnswer(invocation -> rows.stream());
+        entryColumnsCache = new EntryColumnsCache(entryRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new EntryWriteTracker());
+        ReflectionTestUtils.setField(entryColumnsCache, "maxBytes", Long.MAX_VALUE);
+
+        ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class, withSettings().stubOnly());
+        when(referenceDataCache.get(SyntheticData.USER_ID)).thenReturn(data.refs());
+        ExchangeRateService exchangeRateService = mock(ExchangeRateService.class, withSettings().stubOnly());
+        when(exchangeRateService.getRateTable()).thenReturn(SyntheticData.rates());
+
+        reportService = new ReportService(mock(EntryService.class), exchangeRateService, new UncachedReports(),
+                referenceDataCache, entryColumnsCache);
+        entryColumnsCache.get(SyntheticData.USER_ID);
+    }
+
+    @Benchmark
+    public List<CategoryTotalDto> spendingByCategory() {
+        return reportService.getSpendingByCategory(MONTH, CurrencyCode.RSD, Optional.empty(), Optional.empty());
+    }
+
+    @Benchmark
+    public List<CategoryTotalDto> spendingRolledUpConverted() {
+        return reportService.getSpendingByCategory(MONTH, CurrencyCode.RSD, Optional.of(CurrencyCode.EUR), Optional.of(0));
+    }
+
+    @Benchmark
+    public MonthlySummaryResponseDto monthlySummary() {
+        return reportService.getMonthlySummary(MONTH, Optional.empty());
+    }
+
+    @Benchmark
+    public MonthlySummaryResponseDto monthlySummaryConverted() {
+        return reportService.getMonthlySummary(MONTH, Optional.of(CurrencyCode.RSD));
+    }
+
+    @Benchmark
+    public DailyTotalsResponseDto dailyTotals() {
+        return reportService.getDailyTotals(MONTH, Optional.empty(), Optional.empty());
+    }
+
+    @Benchmark
+    public MonthComparisonResponseDto compareMonths() {
+        return reportService.compareMonths(MONTH, YearMonth.parse(MONTH).minusMonths(1).toString(), CurrencyCode.RSD);
+    }
+
+    /**
+     * Rebuilds the columns from the (stubbed) streaming query, as on a user's first report.
+     */
+    @Benchmark
+    public EntryColumns loadColumns() {
+        entryColumnsCache.evictAfterCommit(SyntheticData.USER_ID);
+        return entryColumnsCache.get(SyntheticData.USER_ID);
+    }
+
+    /**
+     * Always computes, so the benchmarks measure aggregation rather than cache hits.
+     */
+    private static final class UncachedReports extends MonthReportCache {
+
+        @Override
+        public <T> T get(Long userId, String report, List<YearMonth> months, List<Object> params, Supplier<T> loader) {
+            return loader.get();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.financeapp.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Interface stubs for collaborators called once per generated or mapped row. Mockito walks
+ * the stack on every invocation, which would dominate the measurement at these call counts.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Answers the named methods (overloads share an answer); every other method returns null.
+     */
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "Stub of " + type.getSimpleName();
+                default -> null;
+            };
+        });
+        return type.cast(stub);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.financeapp.benchmark;
+
+import com.example.financeapp.entity.Category;
+import com.example.financeapp.entity.CategoryClosure;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.Entry;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.ExchangeRate;
+import com.example.financeapp.entity.RecurringRule;
+import com.example.financeapp.entity.User;
+import com.example.financeapp.service.ExchangeRateTable;
+import com.example.financeapp.service.ReferenceDataSnapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks: one user with a two-level category
+ * tree, a few active rules and entries spread evenly over 2024 (mostly RSD expenses, with some
+ * income and foreign currency), plus daily exchange rates for the same year.
+ */
+final class SyntheticData {
+
+    static final Long USER_ID = 1L;
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    static final int DAYS = 366;
+
+    private static final int TOP_LEVEL_CATEGORIES = 8;
+    private static final int SUBCATEGORIES_PER_PARENT = 4;
+    private static final int RULES = 10;
+
+    final User user;
+    final List<Category> categories = new ArrayList<>();
+    final List<RecurringRule> rules = new ArrayList<>();
+    final List<Entry> entries;
+
+    SyntheticData(int entryCount) {
+        user = new User();
+        user.setId(USER_ID);
+
+        long nextId = 1;
+        for (int p = 0; p < TOP_LEVEL_CATEGORIES; p++) {
+            Category parent = category(nextId++, "Category " + p, null);
+            categories.add(parent);
+            for (int c = 0; c < SUBCATEGORIES_PER_PARENT; c++) {
+                categories.add(category(nextId++, "Category " + p + "." + c, parent));
+            }
+        }
+        for (int r = 0; r < RULES; r++) {
+            RecurringRule rule = new RecurringRule();
+            rule.setId((long) r + 1);
+            rule.setUser(user);
+            rule.setName("Rule " + r);
+            rule.setCategory(categories.get(r % categories.size()));
+            rules.add(rule);
+        }
+        entries = entries(entryCount);
+    }
+
+    ReferenceDataSnapshot refs() {
+        return ReferenceDataSnapshot.of(categories, closure(), rules);
+    }
+
+    /**
+     * Closure rows of the category tree: every category with itself and with each ancestor.
+     */
+    private List<CategoryClosure> closure() {
+        List<CategoryClosure> rows = new ArrayList<>();
+        for (Category category : categories) {
+            int depth = 0;
+            for (Category ancestor = category; ancestor != null; ancestor = ancestor.getParent()) {
+                rows.add(new CategoryClosure(ancestor.getId(), category.getId(), depth++));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Rows as returned by EntryRepository.streamColumns, in date order.
+     */
+    List<Object[]> columnRows() {
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            rows.add(new Object[]{entry.getId(), entry.getDate(), entry.getAmount(), entry.getCategory().getId(),
+                    entry.getCurrency(), entry.getType()});
+        }
+        return rows;
+    }
+
+    static ExchangeRateTable rates() {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate day = FIRST_DAY.plusDays(d);
+            rates.add(rate(CurrencyCode.EUR, day, new BigDecimal("117.1").add(BigDecimal.valueOf(d % 30, 2))));
+            rates.add(rate(CurrencyCode.CRYPTO, day, BigDecimal.valueOf(6_000_000 + d * 1_000L)));
+        }
+        return ExchangeRateTable.of(rates);
+    }
+
+    private List<Entry> entries(int count) {
+        Random random = new Random(42);
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Entry entry = new Entry();
+            entry.setId((long) i + 1);
+            entry.setUser(user);
+            entry.setCategory(categories.get(random.nextInt(categories.size())));
+            entry.setType(random.nextInt(10) == 0 ? EntryType.INCOME : EntryType.EXPENSE);
+            entry.setAmount(BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2));
+            int currency = random.nextInt(20);
+            entry.setCurrency(currency < 16 ? CurrencyCode.RSD : currency < 19 ? CurrencyCode.EUR : CurrencyCode.CRYPTO);
+            entry.setDate(FIRST_DAY.plusDays((long) i * DAYS / count));
+            entry.setNote(random.nextInt(3) == 0 ? null : "Note " + random.nextInt(1_000));
+            if (random.nextInt(5) == 0) {
+                RecurringRule rule = rules.get(random.nextInt(rules.size()));
+                entry.setRecurringRule(rule);
+                entry.setScheduledFor(entry.getDate());
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+
+    private Category category(long id, String name, Category parent) {
+        Category category = new Category();
+        category.setId(id);
+        category.setUser(user);
+        category.setName(name);
+        category.setEmoji("*");
+        category.setParent(parent);
+        category.setLevel(parent != null ? parent.getLevel() + 1 : 0);
+        return category;
+    }
+
+    private static ExchangeRate rate(CurrencyCode currency, LocalDate day, BigDecimal rate) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setCurrency(currency);
+        exchangeRate.setRateDate(day);
+        exchangeRate.setRate(rate);
+        return exchangeRate;
+    }
+}
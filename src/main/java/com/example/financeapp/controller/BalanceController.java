@@ -0,0 +1,39 @@
+package com.example.financeapp.controller;
+
+import com.example.financeapp.dto.BalanceResponseDto;
+import com.example.financeapp.dto.BalanceSeriesResponseDto;
+import com.example.financeapp.service.BalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/balance")
+@RequiredArgsConstructor
+public class BalanceController {
+
+    private final BalanceService balanceService;
+
+    /**
+     * Running balance per currency at the end of the given day.
+     */
+    @GetMapping
+    public ResponseEntity<BalanceResponseDto> getBalance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate at) {
+        return ResponseEntity.ok(balanceService.getBalance(at));
+    }
+
+    /**
+     * Running balances from {@code from} to {@code to}, one point per day or week.
+     */
+    @GetMapping("/series")
+    public ResponseEntity<BalanceSeriesResponseDto> getBalanceSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String step) {
+        return ResponseEntity.ok(balanceService.getBalanceSeries(from, to, step));
+    }
+}
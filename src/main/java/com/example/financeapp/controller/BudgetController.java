@@ -0,0 +1,47 @@
+package com.example.financeapp.controller;
+
+import com.example.financeapp.dto.BudgetStatusDto;
+import com.example.financeapp.dto.CategoryBudgetResponseDto;
+import com.example.financeapp.dto.UpsertCategoryBudgetRequestDto;
+import com.example.financeapp.service.BudgetService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    @GetMapping("/budgets")
+    public ResponseEntity<List<CategoryBudgetResponseDto>> getBudgets() {
+        return ResponseEntity.ok(budgetService.getBudgets());
+    }
+
+    /**
+     * Create or replace the monthly limit for a category in a currency.
+     */
+    @PutMapping("/budgets")
+    public ResponseEntity<CategoryBudgetResponseDto> upsertBudget(@Valid @RequestBody UpsertCategoryBudgetRequestDto dto) {
+        return ResponseEntity.ok(budgetService.upsertBudget(dto));
+    }
+
+    @DeleteMapping("/budgets/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        budgetService.deleteBudget(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get spent, remaining and percent used for every budget in a month.
+     */
+    @GetMapping("/months/{yearMonth}/budgets")
+    public ResponseEntity<List<BudgetStatusDto>> getBudgetStatus(@PathVariable String yearMonth) {
+        return ResponseEntity.ok(budgetService.getBudgetStatus(yearMonth));
+    }
+}
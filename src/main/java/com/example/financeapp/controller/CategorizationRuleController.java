@@ -0,0 +1,46 @@
+package com.example.financeapp.controller;
+
+import com.example.financeapp.dto.CategorizationRuleRequestDto;
+import com.example.financeapp.dto.CategorizationRuleResponseDto;
+import com.example.financeapp.service.CategorizationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Keyword to category rules used to categorize entries created without a category.
+ */
+@RestController
+@RequestMapping("/api/categorization-rules")
+@RequiredArgsConstructor
+public class CategorizationRuleController {
+
+    private final CategorizationService categorizationService;
+
+    @GetMapping
+    public ResponseEntity<List<CategorizationRuleResponseDto>> getRules() {
+        return ResponseEntity.ok(categorizationService.getRules());
+    }
+
+    @PostMapping
+    public ResponseEntity<CategorizationRuleResponseDto> createRule(@Valid @RequestBody CategorizationRuleRequestDto dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(categorizationService.createRule(dto));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<CategorizationRuleResponseDto> updateRule(
+            @PathVariable Long id,
+            @Valid @RequestBody CategorizationRuleRequestDto dto) {
+        return ResponseEntity.ok(categorizationService.updateRule(id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        categorizationService.deleteRule(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.financeapp.controller;
 
+import com.example.financeapp.dto.CategoryMergeResultDto;
 import com.example.financeapp.dto.CategoryResponseDto;
 import com.example.financeapp.dto.CreateCategoryRequestDto;
 import com.example.financeapp.dto.UpdateCategoryRequestDto;
@@ -19,10 +20,19 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    /**
+     * Active categories; {@code sort=usage} orders them by use frequency and recency.
+     */
     @GetMapping
-    public ResponseEntity<List<CategoryResponseDto>> getAllCategories() {
-        List<CategoryResponseDto> categories = categoryService.getAllActiveCategoriesForCurrentUser();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<List<CategoryResponseDto>> getAllCategories(
+            @RequestParam(name = "sort", required = false) String sort) {
+        if (sort == null) {
+            return ResponseEntity.ok(categoryService.getAllActiveCategoriesForCurrentUser());
+        }
+        if (!"usage".equals(sort)) {
+            throw new IllegalArgumentException("Unsupported sort '" + sort + "', use usage");
+        }
+        return ResponseEntity.ok(categoryService.getActiveCategoriesByUsage());
     }
 
     @PostMapping
@@ -39,6 +49,14 @@ public class CategoryController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Move all entries and recurring rules of a category into another one, then archive it.
+     */
+    @PostMapping("/{id}/merge-into/{targetId}")
+    public ResponseEntity<CategoryMergeResultDto> mergeInto(@PathVariable Long id, @PathVariable Long targetId) {
+        return ResponseEntity.ok(categoryService.mergeInto(id, targetId));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
         categoryService.archiveCategory(id);
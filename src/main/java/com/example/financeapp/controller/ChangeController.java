@@ -0,0 +1,29 @@
+package com.example.financeapp.controller;
+
+import com.example.financeapp.dto.ChangesResponseDto;
+import com.example.financeapp.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Entries, categories, recurring rules and overviews changed after a version token.
+     * Call again with the returned nextSince while hasMore is true.
+     */
+    @GetMapping
+    public ResponseEntity<ChangesResponseDto> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + ChangeFeedService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+}
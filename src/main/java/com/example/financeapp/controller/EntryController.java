@@ -1,20 +1,31 @@
 package com.example.financeapp.controller;
 
 import com.example.financeapp.dto.CreateEntryRequestDto;
+import com.example.financeapp.dto.EntryBatchRequestDto;
+import com.example.financeapp.dto.EntryBatchResponseDto;
 import com.example.financeapp.dto.EntryResponseDto;
+import com.example.financeapp.dto.EntrySearchResponseDto;
+import com.example.financeapp.dto.NoteSuggestionDto;
+import com.example.financeapp.dto.RecategorizeResultDto;
 import com.example.financeapp.dto.UpdateEntryRequestDto;
 import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.repository.EntrySearchCriteria;
+import com.example.financeapp.service.CategorizationService;
+import com.example.financeapp.service.DataVersionService;
 import com.example.financeapp.service.EntryService;
+import com.example.financeapp.service.NoteSuggestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/entries")
@@ -22,17 +33,64 @@ import java.util.Optional;
 public class EntryController {
 
     private final EntryService entryService;
+    private final DataVersionService dataVersionService;
+    private final NoteSuggestionService noteSuggestionService;
+    private final CategorizationService categorizationService;
 
+    /**
+     * Entries in a date range, with optional filters. {@code categoryId} may be repeated to
+     * match any of several categories; {@code generated} selects entries created by recurring
+     * rules (true) or manually (false); {@code note} matches a case-insensitive substring.
+     *
+     * Supports If-None-Match: unchanged data is answered with 304 without querying entries.
+     */
     @GetMapping
     public ResponseEntity<List<EntryResponseDto>> getEntries(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
-            @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) CurrencyCode currency) {
-        List<EntryResponseDto> entries = entryService.getEntries(
-                from, to, Optional.ofNullable(categoryId), Optional.ofNullable(currency)
-        );
-        return ResponseEntity.ok(entries);
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) EntryType type,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) CurrencyCode currency,
+            @RequestParam(required = false) Boolean generated,
+            @RequestParam(required = false) String note,
+            WebRequest request) {
+        EntrySearchCriteria criteria = EntrySearchCriteria.builder()
+                .from(from)
+                .to(to)
+                .categoryIds(categoryId)
+                .type(type)
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .currency(currency)
+                .generated(generated)
+                .noteText(note)
+                .build();
+        return ConditionalGet.respond(request, dataVersionService.entriesETag(), ConditionalGet.revalidate(),
+                () -> entryService.getEntries(criteria));
+    }
+
+    /**
+     * Ranked search over entry notes and recurring rule names; matches words, substrings
+     * and near misses. Page with the returned nextCursor.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<EntrySearchResponseDto> searchEntries(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(entryService.searchEntries(q, cursor, limit));
+    }
+
+    /**
+     * Previously used notes starting with the prefix, most used first. Served from memory.
+     */
+    @GetMapping("/note-suggestions")
+    public ResponseEntity<List<NoteSuggestionDto>> getNoteSuggestions(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(noteSuggestionService.suggest(prefix, limit));
     }
 
     @PostMapping
@@ -41,6 +99,24 @@ public class EntryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * Applies queued creates, updates and deletes atomically. Answers 400 with per-operation
+     * errors, and writes nothing, if any operation is invalid.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<EntryBatchResponseDto> applyBatch(@Valid @RequestBody EntryBatchRequestDto dto) {
+        EntryBatchResponseDto result = entryService.applyBatch(dto.getOperations());
+        return result.isApplied() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+
+    /**
+     * Applies the current categorization rules to existing manual entries whose category a rule picked.
+     */
+    @PostMapping("/recategorize")
+    public ResponseEntity<RecategorizeResultDto> recategorize() {
+        return ResponseEntity.ok(categorizationService.recategorize());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<EntryResponseDto> getEntry(@PathVariable Long id) {
         EntryResponseDto entry = entryService.getEntry(id);
@@ -0,0 +1,44 @@
+package com.example.financeapp.controller;
+
+import com.example.financeapp.dto.ExchangeRateResponseDto;
+import com.example.financeapp.dto.UpsertExchangeRateRequestDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.service.ExchangeRateService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/exchange-rates")
+@RequiredArgsConstructor
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    /**
+     * Get daily exchange rates (units of RSD per unit of currency), optionally for one currency.
+     */
+    @GetMapping
+    public ResponseEntity<List<ExchangeRateResponseDto>> getRates(
+            @RequestParam(required = false) CurrencyCode currency) {
+        return ResponseEntity.ok(exchangeRateService.getRates(Optional.ofNullable(currency)));
+    }
+
+    /**
+     * Create or replace the rate for a currency on a given date.
+     */
+    @PutMapping
+    public ResponseEntity<ExchangeRateResponseDto> upsertRate(@Valid @RequestBody UpsertExchangeRateRequestDto dto) {
+        return ResponseEntity.ok(exchangeRateService.upsertRate(dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRate(@PathVariable Long id) {
+        exchangeRateService.deleteRate(id);
+        return ResponseEntity.noContent().build();
+    }
+}
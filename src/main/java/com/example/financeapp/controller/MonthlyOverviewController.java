@@ -8,6 +8,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/months")
 @RequiredArgsConstructor
@@ -15,6 +17,16 @@ public class MonthlyOverviewController {
 
     private final MonthlyOverviewService monthlyOverviewService;
 
+    /**
+     * Get overviews for every month in an inclusive YYYY-MM range in one request.
+     */
+    @GetMapping("/overviews")
+    public ResponseEntity<List<MonthlyOverviewResponseDto>> getOverviews(
+            @RequestParam String from,
+            @RequestParam String to) {
+        return ResponseEntity.ok(monthlyOverviewService.getOverviews(from, to));
+    }
+
     @GetMapping("/{yearMonth}/overview")
     public ResponseEntity<MonthlyOverviewResponseDto> getOverview(@PathVariable String yearMonth) {
         MonthlyOverviewResponseDto overview = monthlyOverviewService.getOverview(yearMonth);
@@ -2,12 +2,16 @@ package com.example.financeapp.controller;
 
 import com.example.financeapp.dto.*;
 import com.example.financeapp.entity.ApplyScope;
+import com.example.financeapp.service.DataVersionService;
 import com.example.financeapp.service.RecurringRuleService;
+import com.example.financeapp.service.RecurringSuggestionService;
+import com.example.financeapp.service.RuleRewriteService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,15 +21,55 @@ import java.util.List;
 public class RecurringRuleController {
 
     private final RecurringRuleService recurringRuleService;
+    private final DataVersionService dataVersionService;
+    private final RecurringSuggestionService recurringSuggestionService;
+    private final RuleRewriteService ruleRewriteService;
 
     /**
      * Get all recurring rules for the current user.
      * Returns rules with computed fields: nextScheduledDate, progress, createdCount.
      */
     @GetMapping
-    public ResponseEntity<List<RecurringRuleResponseDto>> getAllRules() {
-        List<RecurringRuleResponseDto> rules = recurringRuleService.getAllRules();
-        return ResponseEntity.ok(rules);
+    public ResponseEntity<List<RecurringRuleResponseDto>> getAllRules(WebRequest request) {
+        return ConditionalGet.respond(request, dataVersionService.rulesETag(), ConditionalGet.revalidate(),
+                recurringRuleService::getAllRules);
+    }
+
+    /**
+     * Rules suggested from manual entries that repeat monthly, most confident first.
+     * Patterns already covered by an active rule are not suggested.
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<RecurringRuleSuggestionDto>> getSuggestions() {
+        return ResponseEntity.ok(recurringSuggestionService.getSuggestions());
+    }
+
+    /**
+     * Months of variable-date and variable-amount rules that still need a date or an amount,
+     * oldest first.
+     */
+    @GetMapping("/pending")
+    public ResponseEntity<List<PendingConfirmationDto>> getPending() {
+        return ResponseEntity.ok(recurringRuleService.getPending());
+    }
+
+    /**
+     * Confirm a batch of pending months in one transaction. Nothing is written if any
+     * confirmation is invalid.
+     */
+    @PostMapping("/pending/confirm")
+    public ResponseEntity<PendingConfirmationResultDto> confirmPending(
+            @Valid @RequestBody PendingConfirmationRequestDto dto) {
+        return ResponseEntity.ok(recurringRuleService.confirmPending(dto));
+    }
+
+    /**
+     * Progress of a rule update being applied to generated transactions in the background
+     * (see rewriteJobId in the update response).
+     */
+    @GetMapping("/rewrite-jobs/{jobId}")
+    public ResponseEntity<RuleRewriteJobDto> getRewriteJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(ruleRewriteService.getJob(jobId));
     }
 
     /**
@@ -56,6 +100,8 @@ public class RecurringRuleController {
      *                   - FUTURE_ONLY (default): Only affects future transactions
      *                   - ALL: Updates all generated transactions (past and future),
      *                          but preserves manually edited ones
+     *                   Rewrites of many transactions continue in the background; the response
+     *                   then carries a rewriteJobId to poll.
      */
     @PutMapping("/{id}")
     public ResponseEntity<RecurringRuleResponseDto> updateRule(
@@ -66,6 +112,19 @@ public class RecurringRuleController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Preview what an update with the given scope would do to the generated transactions:
+     * how many change, date shifts, net amount change per month and the manually edited
+     * transactions that would be skipped. Nothing is written.
+     */
+    @PostMapping("/{id}/preview-update")
+    public ResponseEntity<RuleUpdatePreviewDto> previewUpdate(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateRecurringRuleRequestDto dto,
+            @RequestParam(defaultValue = "FUTURE_ONLY") ApplyScope applyScope) {
+        return ResponseEntity.ok(recurringRuleService.previewUpdate(id, dto, applyScope));
+    }
+
     /**
      * Toggle the active status of a recurring rule.
      * When deactivating, optionally delete future generated transactions.
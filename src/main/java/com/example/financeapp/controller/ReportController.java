@@ -1,35 +1,87 @@
 package com.example.financeapp.controller;
 
 import com.example.financeapp.dto.CategoryTotalDto;
+import com.example.financeapp.dto.DailyTotalsResponseDto;
 import com.example.financeapp.dto.EntryResponseDto;
+import com.example.financeapp.dto.MonthComparisonResponseDto;
 import com.example.financeapp.dto.MonthlySummaryResponseDto;
 import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.service.DataVersionService;
 import com.example.financeapp.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Duration;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/months")
 @RequiredArgsConstructor
 public class ReportController {
 
+    private static final Duration CLOSED_MONTH_MAX_AGE = Duration.ofHours(1);
+
     private final ReportService reportService;
+    private final DataVersionService dataVersionService;
 
+    /**
+     * Supports If-None-Match. Summaries of past months may additionally be cached by the client
+     * for a while, since they rarely change once the month is closed.
+     */
     @GetMapping("/{yearMonth}/summary")
-    public ResponseEntity<MonthlySummaryResponseDto> getMonthlySummary(@PathVariable String yearMonth) {
-        MonthlySummaryResponseDto summary = reportService.getMonthlySummary(yearMonth);
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<MonthlySummaryResponseDto> getMonthlySummary(
+            @PathVariable String yearMonth,
+            @RequestParam(name = "baseCurrency", required = false) CurrencyCode baseCurrency,
+            WebRequest request
+    ) {
+        YearMonth ym = YearMonth.parse(yearMonth);
+        CacheControl cacheControl = ym.isBefore(YearMonth.now())
+                ? CacheControl.maxAge(CLOSED_MONTH_MAX_AGE).cachePrivate()
+                : ConditionalGet.revalidate();
+        return ConditionalGet.respond(request, dataVersionService.monthETag(ym), cacheControl,
+                () -> reportService.getMonthlySummary(yearMonth, Optional.ofNullable(baseCurrency)));
     }
 
     @GetMapping("/{yearMonth}/spending-by-category")
     public ResponseEntity<List<CategoryTotalDto>> getSpendingByCategory(
             @PathVariable String yearMonth,
+            @RequestParam(name = "currency", defaultValue = "RSD") CurrencyCode currency,
+            @RequestParam(name = "baseCurrency", required = false) CurrencyCode baseCurrency,
+            @RequestParam(name = "depth", required = false) Integer depth
+    ) {
+        return ResponseEntity.ok(reportService.getSpendingByCategory(
+                yearMonth, currency, Optional.ofNullable(baseCurrency), Optional.ofNullable(depth)));
+    }
+
+    /**
+     * Per-day income and expense totals for a calendar/heatmap view, one series per currency.
+     * Amounts are in minor units (cents).
+     */
+    @GetMapping("/{yearMonth}/daily")
+    public ResponseEntity<DailyTotalsResponseDto> getDailyTotals(
+            @PathVariable String yearMonth,
+            @RequestParam(name = "categoryId", required = false) Long categoryId,
+            @RequestParam(name = "currency", required = false) CurrencyCode currency
+    ) {
+        return ResponseEntity.ok(reportService.getDailyTotals(
+                yearMonth, Optional.ofNullable(categoryId), Optional.ofNullable(currency)));
+    }
+
+    /**
+     * Per-category spending deltas between this month and another (absolute and percent).
+     */
+    @GetMapping("/{yearMonth}/compare")
+    public ResponseEntity<MonthComparisonResponseDto> compareMonths(
+            @PathVariable String yearMonth,
+            @RequestParam(name = "with") String compareWith,
             @RequestParam(name = "currency", defaultValue = "RSD") CurrencyCode currency
     ) {
-        return ResponseEntity.ok(reportService.getSpendingByCategory(yearMonth, currency));
+        return ResponseEntity.ok(reportService.compareMonths(yearMonth, compareWith, currency));
     }
 
     @GetMapping("/{yearMonth}/categories/{categoryId}/entries")
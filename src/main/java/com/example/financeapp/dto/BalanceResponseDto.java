@@ -0,0 +1,22 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceResponseDto {
+    private LocalDate date;
+
+    /**
+     * Balance at the end of {@code date}, one per currency.
+     */
+    private List<CurrencyBalanceDto> balances;
+}
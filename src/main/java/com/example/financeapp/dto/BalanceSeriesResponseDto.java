@@ -0,0 +1,20 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSeriesResponseDto {
+    private LocalDate from;
+    private LocalDate to;
+    private String step;
+    private List<BalanceResponseDto> points;
+}
@@ -0,0 +1,35 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatusDto {
+    private Long budgetId;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryEmoji;
+    private CurrencyCode currency;
+    private BigDecimal monthlyLimit;
+    private BigDecimal spent;
+
+    /**
+     * Limit minus spent. Negative when over budget.
+     */
+    private BigDecimal remaining;
+
+    /**
+     * Spent as a percentage of the limit (may exceed 100).
+     */
+    private BigDecimal percentUsed;
+
+    private Boolean overBudget;
+}
@@ -0,0 +1,24 @@
+package com.example.financeapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Create or replace a categorization rule.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizationRuleRequestDto {
+
+    @NotBlank(message = "Keyword is required")
+    @Size(max = 100, message = "Keyword must be at most 100 characters")
+    private String keyword;
+
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+}
@@ -0,0 +1,18 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizationRuleResponseDto {
+    private Long id;
+    private String keyword;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryEmoji;
+}
@@ -0,0 +1,22 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBudgetResponseDto {
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private String categoryEmoji;
+    private CurrencyCode currency;
+    private BigDecimal monthlyLimit;
+}
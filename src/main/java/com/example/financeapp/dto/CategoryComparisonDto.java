@@ -0,0 +1,38 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryComparisonDto {
+    private Long categoryId;
+    private String categoryName;
+    private String categoryEmoji;
+
+    /**
+     * Spending in the requested month.
+     */
+    private BigDecimal amount;
+
+    /**
+     * Spending in the month being compared with.
+     */
+    private BigDecimal compareAmount;
+
+    /**
+     * amount - compareAmount.
+     */
+    private BigDecimal delta;
+
+    /**
+     * delta as a percentage of compareAmount. Null when compareAmount is zero.
+     */
+    private BigDecimal deltaPercent;
+}
@@ -0,0 +1,17 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMergeResultDto {
+    private Long sourceCategoryId;
+    private Long targetCategoryId;
+    private Integer entriesMoved;
+    private Integer rulesMoved;
+}
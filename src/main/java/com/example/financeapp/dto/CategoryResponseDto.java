@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.OffsetDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,5 +17,12 @@ public class CategoryResponseDto {
     private String emoji;
     private boolean isDefault;
     private boolean isArchived;
-}
+    private Long parentId;
+    private int level;
 
+    /**
+     * Usage statistics, only filled in when categories are listed with sort=usage.
+     */
+    private Long usageCount;
+    private OffsetDateTime lastUsedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.ChangeEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A deleted entity: the id for entries, categories and rules, YYYY-MM for overviews.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeTombstoneDto {
+    private ChangeEntityType type;
+    private String key;
+}
@@ -0,0 +1,40 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything that changed after a sync version, with each changed entity in its current state.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponseDto {
+
+    /**
+     * Version to pass as {@code since} on the next call.
+     */
+    private Long nextSince;
+
+    /**
+     * True if the page limit was reached and more changes follow immediately.
+     */
+    private boolean hasMore;
+
+    /**
+     * True if {@code since} is older than the retained log: the client must reload all data
+     * and continue from {@code nextSince}. No changes are returned in that case.
+     */
+    private boolean fullResyncRequired;
+
+    private List<EntryResponseDto> entries;
+    private List<CategoryResponseDto> categories;
+    private List<RecurringRuleResponseDto> rules;
+    private List<MonthlyOverviewResponseDto> overviews;
+    private List<ChangeTombstoneDto> deleted;
+}
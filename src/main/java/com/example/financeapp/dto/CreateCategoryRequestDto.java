@@ -14,5 +14,9 @@ public class CreateCategoryRequestDto {
     private String name;
     
     private String emoji;
-}
 
+    /**
+     * Parent category, or null for a top-level category.
+     */
+    private Long parentId;
+}
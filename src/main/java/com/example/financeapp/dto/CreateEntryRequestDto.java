@@ -16,7 +16,9 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class CreateEntryRequestDto {
     
-    @NotNull(message = "Category ID is required")
+    /**
+     * Optional: without it, the category is picked by the user's categorization rules from the note.
+     */
     private Long categoryId;
     
     @NotNull(message = "Entry type is required")
@@ -3,6 +3,7 @@ package com.example.financeapp.dto;
 import com.example.financeapp.entity.CurrencyCode;
 import com.example.financeapp.entity.EndType;
 import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.RecurrenceFrequency;
 import com.example.financeapp.entity.RecurringKind;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -44,7 +45,13 @@ public class CreateRecurringRuleRequestDto {
     private Boolean amountIsVariable = false;
 
     /**
-     * Day of month (1-31) when transactions should be scheduled.
+     * How often the rule repeats; monthly if omitted.
+     */
+    private RecurrenceFrequency frequency = RecurrenceFrequency.MONTHLY;
+
+    /**
+     * Day of month (1-31) when transactions should be scheduled, for monthly, quarterly and
+     * yearly rules. Weekly and biweekly rules repeat from startDate instead.
      * Null if dateIsVariable is true.
      */
     @Min(value = 1, message = "Day of month must be between 1 and 31")
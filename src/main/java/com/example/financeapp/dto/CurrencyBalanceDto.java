@@ -0,0 +1,24 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyBalanceDto {
+    private CurrencyCode currency;
+    private BigDecimal balance;
+
+    /**
+     * Month whose manual starting total the balance is anchored at (YYYY-MM),
+     * or null when it is the plain sum of all entries up to the date.
+     */
+    private String anchorMonth;
+}
@@ -0,0 +1,21 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-day totals for one currency, as compact arrays indexed by day of month - 1.
+ * Amounts are in minor units (cents) to keep the payload small and exact.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCurrencyTotalsDto {
+    private CurrencyCode currency;
+    private long[] incomeCents;
+    private long[] expenseCents;
+}
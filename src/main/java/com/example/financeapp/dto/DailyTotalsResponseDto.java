@@ -0,0 +1,22 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTotalsResponseDto {
+    private String yearMonth;
+    private Integer daysInMonth;
+
+    /**
+     * One series per currency that has entries in the month.
+     */
+    private List<DailyCurrencyTotalsDto> currencies;
+}
@@ -0,0 +1,45 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One queued entry write. CREATE uses the entry fields (the category may be left to the
+ * categorization rules, as for POST /api/entries), UPDATE uses {@code id} and the entry
+ * fields (same rules as PUT /api/entries/{id}), DELETE uses only {@code id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntryBatchOperationDto {
+
+    public enum Operation {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    @NotNull(message = "Operation is required")
+    private Operation op;
+
+    private Long id;
+
+    private Long categoryId;
+
+    private EntryType type;
+
+    private BigDecimal amount;
+
+    private CurrencyCode currency;
+
+    private LocalDate date;
+
+    private String note;
+}
@@ -0,0 +1,23 @@
+package com.example.financeapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntryBatchRequestDto {
+
+    public static final int MAX_OPERATIONS = 200;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations are allowed per batch")
+    @Valid
+    private List<EntryBatchOperationDto> operations;
+}
@@ -0,0 +1,23 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntryBatchResponseDto {
+
+    /**
+     * False if any operation was invalid; nothing was written then, and the invalid
+     * operations carry an error.
+     */
+    private boolean applied;
+
+    private List<EntryBatchResultDto> results;
+}
@@ -0,0 +1,34 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.dto.EntryBatchOperationDto.Operation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one batch operation, at the same index as in the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntryBatchResultDto {
+    private int index;
+    private Operation op;
+
+    /**
+     * Id of the written entry (assigned by the server for a CREATE).
+     */
+    private Long id;
+
+    /**
+     * The entry after the write, null for a DELETE or when the batch was rejected.
+     */
+    private EntryResponseDto entry;
+
+    /**
+     * Why this operation is invalid, null if it is valid.
+     */
+    private String error;
+}
@@ -49,5 +49,12 @@ public class EntryResponseDto {
      * True if this entry was auto-generated from a recurring rule.
      */
     private Boolean isGenerated;
+
+    /**
+     * Set on create/update responses only: true if, after this write, the entry's category
+     * has spent more than its monthly budget in the entry's currency and month.
+     * Null in list/detail responses.
+     */
+    private Boolean overBudget;
 }
 
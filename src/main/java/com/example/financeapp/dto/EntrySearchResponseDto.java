@@ -0,0 +1,25 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntrySearchResponseDto {
+
+    /**
+     * Matching entries, best match first.
+     */
+    private List<EntryResponseDto> entries;
+
+    /**
+     * Pass as {@code cursor} to get the next page; null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthComparisonResponseDto {
+    private String yearMonth;
+    private String compareWith;
+    private CurrencyCode currency;
+    private BigDecimal total;
+    private BigDecimal compareTotal;
+    private BigDecimal delta;
+    private BigDecimal deltaPercent;
+
+    /**
+     * Every category with spending in either month, largest absolute change first.
+     */
+    private List<CategoryComparisonDto> categories;
+}
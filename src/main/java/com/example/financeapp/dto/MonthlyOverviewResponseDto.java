@@ -15,5 +15,11 @@ public class MonthlyOverviewResponseDto {
     private String yearMonth;
     private BigDecimal startingTotal;
     private String note;
+
+    /**
+     * True when startingTotal was not entered for this month but carried over
+     * from the previous month's closing total (RSD).
+     */
+    private Boolean startingTotalDerived;
 }
 
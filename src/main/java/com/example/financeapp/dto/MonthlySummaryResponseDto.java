@@ -1,5 +1,6 @@
 package com.example.financeapp.dto;
 
+import com.example.financeapp.entity.CurrencyCode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,5 +16,17 @@ public class MonthlySummaryResponseDto {
     private String yearMonth;
     private List<CurrencyTotalDto> totalsByCurrency;
     private List<CategoryTotalDto> categoryTotals;
+
+    /**
+     * Currency all amounts were converted into for the consolidated figures.
+     * Null when no base currency was requested.
+     */
+    private CurrencyCode baseCurrency;
+
+    /**
+     * Income, expenses and net over all currencies, converted into baseCurrency
+     * at the rate of each entry's date. Null when no base currency was requested.
+     */
+    private CurrencyTotalDto consolidatedTotal;
 }
 
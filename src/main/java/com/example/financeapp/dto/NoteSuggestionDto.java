@@ -0,0 +1,19 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSuggestionDto {
+    private String note;
+
+    /**
+     * How many entries use this note.
+     */
+    private long count;
+}
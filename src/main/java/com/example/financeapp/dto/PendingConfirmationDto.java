@@ -0,0 +1,53 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One month of a variable rule that waits for the user: a variable-date rule without an entry
+ * for the month yet, or a generated entry of a variable-amount rule whose amount was never
+ * confirmed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingConfirmationDto {
+
+    private Long ruleId;
+    private String ruleName;
+    private EntryType direction;
+    private Long categoryId;
+    private String categoryName;
+    private CurrencyCode currency;
+
+    /**
+     * Month in YYYY-MM format.
+     */
+    private String yearMonth;
+
+    /**
+     * The generated entry to confirm, or null if the entry is created on confirmation.
+     */
+    private Long transactionId;
+
+    /**
+     * Current date of the generated entry; null while the date is still needed.
+     */
+    private LocalDate date;
+
+    /**
+     * Current amount of the generated entry, or the rule's default amount (may be null).
+     */
+    private BigDecimal amount;
+
+    private Boolean needsDate;
+    private Boolean needsAmount;
+}
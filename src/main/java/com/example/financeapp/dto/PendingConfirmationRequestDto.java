@@ -0,0 +1,55 @@
+package com.example.financeapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingConfirmationRequestDto {
+
+    public static final int MAX_CONFIRMATIONS = 200;
+
+    @NotEmpty(message = "At least one confirmation is required")
+    @Size(max = MAX_CONFIRMATIONS, message = "At most " + MAX_CONFIRMATIONS + " confirmations are allowed per request")
+    @Valid
+    private List<Confirmation> confirmations;
+
+    /**
+     * Confirms one pending month. {@code date} is required when the month has no entry yet and
+     * must lie in the month; {@code amount} defaults to the pending amount when that is set.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Confirmation {
+
+        @NotNull(message = "Rule ID is required")
+        private Long ruleId;
+
+        @NotNull(message = "Month is required")
+        @Pattern(regexp = "\\d{4}-(0[1-9]|1[0-2])", message = "Month must be in YYYY-MM format")
+        private String yearMonth;
+
+        /**
+         * The pending generated entry, when a weekly rule has several in the month.
+         */
+        private Long transactionId;
+
+        private LocalDate date;
+
+        @Positive(message = "Amount must be positive")
+        private BigDecimal amount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingConfirmationResultDto {
+
+    /**
+     * Entries created for variable-date months.
+     */
+    private Integer created;
+
+    /**
+     * Generated entries whose amount (and possibly date) was confirmed.
+     */
+    private Integer updated;
+
+    /**
+     * Ids of the created and updated entries, in request order.
+     */
+    private List<Long> transactionIds;
+}
@@ -0,0 +1,23 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecategorizeResultDto {
+
+    /**
+     * Manual entries with a note that were checked against the rules.
+     */
+    private int scanned;
+
+    /**
+     * Entries moved to the category of a matching rule.
+     */
+    private int recategorized;
+}
@@ -3,6 +3,7 @@ package com.example.financeapp.dto;
 import com.example.financeapp.entity.CurrencyCode;
 import com.example.financeapp.entity.EndType;
 import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.RecurrenceFrequency;
 import com.example.financeapp.entity.RecurringKind;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +33,7 @@ public class RecurringRuleResponseDto {
     private BigDecimal amountDefault;
     private Boolean amountIsVariable;
     
+    private RecurrenceFrequency frequency;
     private Integer dayOfMonth;
     private Boolean dateIsVariable;
     
@@ -70,4 +72,10 @@ public class RecurringRuleResponseDto {
      * Null for OPEN_ENDED rules.
      */
     private Integer progressPercent;
+
+    /**
+     * Set on update when the change is applied to generated transactions in the background;
+     * progress is at GET /api/recurring-rules/rewrite-jobs/{id}.
+     */
+    private Long rewriteJobId;
 }
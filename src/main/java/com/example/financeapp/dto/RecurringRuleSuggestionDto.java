@@ -0,0 +1,31 @@
+package com.example.financeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A monthly pattern found among manual entries, with a rule that would cover it from the next
+ * month on ({@code rule} can be posted to /api/recurring-rules as is, after review).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRuleSuggestionDto {
+
+    /**
+     * 0..1: how regularly the entries appeared once a month on about the same day.
+     */
+    private double confidence;
+
+    private int occurrences;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    private String categoryName;
+
+    private CreateRecurringRuleRequestDto rule;
+}
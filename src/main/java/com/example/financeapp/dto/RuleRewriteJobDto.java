@@ -0,0 +1,42 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.ApplyScope;
+import com.example.financeapp.entity.RuleRewriteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleRewriteJobDto {
+
+    private Long id;
+    private Long ruleId;
+    private ApplyScope applyScope;
+    private RuleRewriteStatus status;
+
+    /**
+     * Generated transactions in scope when the rule was updated.
+     */
+    private Integer totalCount;
+
+    /**
+     * Generated transactions rewritten so far (committed).
+     */
+    private Integer processedCount;
+
+    private Integer progressPercent;
+
+    /**
+     * Why the job stopped, for FAILED jobs.
+     */
+    private String error;
+
+    private OffsetDateTime createdAt;
+    private OffsetDateTime finishedAt;
+}
@@ -0,0 +1,82 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.ApplyScope;
+import com.example.financeapp.entity.CurrencyCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What an update of a recurring rule would do to its generated transactions, computed without
+ * writing anything.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleUpdatePreviewDto {
+
+    private ApplyScope applyScope;
+
+    /**
+     * Generated transactions in scope that the update would change.
+     */
+    private Integer affectedCount;
+
+    /**
+     * Generated transactions in scope that already match the updated rule.
+     */
+    private Integer unchangedCount;
+
+    /**
+     * Transactions whose date would move, by scheduled date.
+     */
+    private List<DateShift> dateShifts;
+
+    /**
+     * Change of the net amount (income minus expenses) per month and currency; months
+     * without a change are left out.
+     */
+    private List<MonthlyDelta> monthlyDeltas;
+
+    /**
+     * Manually edited transactions in scope, which the update leaves as they are.
+     */
+    private List<SkippedInstance> skippedOverrides;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateShift {
+        private Long transactionId;
+        private LocalDate from;
+        private LocalDate to;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthlyDelta {
+        private String yearMonth;
+        private CurrencyCode currency;
+        private BigDecimal netDelta;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SkippedInstance {
+        private Long transactionId;
+        private LocalDate scheduledFor;
+        private LocalDate date;
+        private BigDecimal amount;
+    }
+}
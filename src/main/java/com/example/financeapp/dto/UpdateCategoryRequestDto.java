@@ -14,5 +14,9 @@ public class UpdateCategoryRequestDto {
     private String name;
     
     private String emoji;
-}
 
+    /**
+     * Parent category, or null to make it a top-level category. Moves the whole subtree.
+     */
+    private Long parentId;
+}
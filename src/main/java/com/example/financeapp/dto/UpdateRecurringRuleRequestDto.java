@@ -3,6 +3,7 @@ package com.example.financeapp.dto;
 import com.example.financeapp.entity.CurrencyCode;
 import com.example.financeapp.entity.EndType;
 import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.RecurrenceFrequency;
 import com.example.financeapp.entity.RecurringKind;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -36,6 +37,8 @@ public class UpdateRecurringRuleRequestDto {
 
     private Boolean amountIsVariable = false;
 
+    private RecurrenceFrequency frequency = RecurrenceFrequency.MONTHLY;
+
     @Min(value = 1, message = "Day of month must be between 1 and 31")
     @Max(value = 31, message = "Day of month must be between 1 and 31")
     private Integer dayOfMonth;
@@ -0,0 +1,25 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertCategoryBudgetRequestDto {
+
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+
+    private CurrencyCode currency = CurrencyCode.RSD;
+
+    @NotNull(message = "Monthly limit is required")
+    @Positive(message = "Monthly limit must be positive")
+    private BigDecimal monthlyLimit;
+}
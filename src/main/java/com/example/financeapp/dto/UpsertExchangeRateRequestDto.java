@@ -0,0 +1,30 @@
+package com.example.financeapp.dto;
+
+import com.example.financeapp.entity.CurrencyCode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertExchangeRateRequestDto {
+
+    @NotNull(message = "Currency is required")
+    private CurrencyCode currency;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+
+    /**
+     * Units of RSD for one unit of the currency.
+     */
+    @NotNull(message = "Rate is required")
+    @Positive(message = "Rate must be positive")
+    private BigDecimal rate;
+}
@@ -0,0 +1,47 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Running total of expenses per (user, category, month, currency).
+ * Maintained incrementally on every entry write so budget status never
+ * has to re-scan a month's entries.
+ */
+@Entity
+@Table(name = "budget_spend", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "category_id", "year_month", "currency"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetSpend {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Column(name = "year_month", nullable = false, length = 7)
+    private String yearMonth; // Format: YYYY-MM
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CurrencyCode currency;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal spent = BigDecimal.ZERO;
+}
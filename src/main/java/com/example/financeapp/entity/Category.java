@@ -5,15 +5,25 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+    @Index(name = "idx_categories_user_usage", columnList = "user_id, usage_count DESC, last_used_at DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
 
+    /**
+     * Deepest allowed level; trees have at most five levels.
+     */
+    public static final int MAX_LEVEL = 4;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,5 +42,31 @@ public class Category {
 
     @Column(name = "is_archived")
     private boolean isArchived = false;
+
+    /**
+     * Parent category, or null for a top-level category. Ancestor paths are kept in
+     * category_closure (see CategoryClosure) so rollups never walk the tree in Java.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Category parent;
+
+    /**
+     * Distance from the top level: 0 for a root, at most {@code MAX_LEVEL}.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int level = 0;
+
+    /**
+     * Number of entries created in (or moved into) this category. Maintained by
+     * CategoryUsageTracker in periodic batches, never by entity saves.
+     */
+    @Column(name = "usage_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long usageCount;
+
+    @Column(name = "last_used_at", insertable = false, updatable = false)
+    private OffsetDateTime lastUsedAt;
 }
 
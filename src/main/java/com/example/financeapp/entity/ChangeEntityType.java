@@ -0,0 +1,8 @@
+package com.example.financeapp.entity;
+
+public enum ChangeEntityType {
+    ENTRY,
+    CATEGORY,
+    RULE,
+    OVERVIEW
+}
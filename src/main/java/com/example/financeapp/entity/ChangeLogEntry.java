@@ -0,0 +1,58 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Append-only log of changes to a user's synced data, written in the same transaction as the
+ * change itself. The version, drawn from the user's {@link ChangeLogVersion} counter, is the sync
+ * token clients pass back as {@code since}.
+ *
+ * Entities are identified by a key: the id for entries, categories and rules, YYYY-MM for overviews.
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+    @Index(name = "idx_change_log_user_version", columnList = "user_id, version"),
+    @Index(name = "idx_change_log_entity", columnList = "user_id, entity_type, entity_key")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * 0 only for rows logged before versions existed, until db/change-log-versions.sql numbers them.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private ChangeEntityType entityType;
+
+    @Column(name = "entity_key", nullable = false, length = 32)
+    private String entityKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private OffsetDateTime changedAt;
+}
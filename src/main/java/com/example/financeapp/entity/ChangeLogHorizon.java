@@ -0,0 +1,27 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-user compaction watermark of the change log. Tombstones up to {@code minSince} have been
+ * removed, so a client syncing from an older version must do a full resync.
+ */
+@Entity
+@Table(name = "change_log_horizon")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogHorizon {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "min_since", nullable = false)
+    private Long minSince;
+}
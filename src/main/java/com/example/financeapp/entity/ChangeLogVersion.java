@@ -0,0 +1,28 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-user counter the change log versions are drawn from. Every log write increments it in
+ * the writing transaction, which keeps the row locked until commit: a user's versions are
+ * therefore committed in order, and a client that has seen a version has seen all below it.
+ */
+@Entity
+@Table(name = "change_log_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,13 @@
+package com.example.financeapp.entity;
+
+public enum ChangeOperation {
+    /**
+     * Created or updated; the current state is fetched when the change is served.
+     */
+    UPSERT,
+
+    /**
+     * Deleted (tombstone).
+     */
+    DELETE
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,7 +15,13 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "entries")
+@Table(name = "entries", indexes = {
+    // Date range listing (newest first) and range aggregates; amount, type and note filters are applied on top
+    @Index(name = "idx_entries_user_date", columnList = "user_id, date DESC, id DESC"),
+    @Index(name = "idx_entries_user_category_date", columnList = "user_id, category_id, date"),
+    @Index(name = "idx_entries_user_currency_date", columnList = "user_id, currency, date"),
+    @Index(name = "idx_entries_user_rule_date", columnList = "user_id, recurring_rule_id, date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -50,6 +57,14 @@ public class Entry {
 
     private String note;
 
+    /**
+     * Whether the category was picked by a categorization rule rather than by the user.
+     * Only such entries are moved by recategorization; choosing another category clears it.
+     */
+    @Column(name = "category_auto_assigned", nullable = false)
+    @ColumnDefault("false")
+    private boolean categoryAutoAssigned;
+
     /**
      * Optional reference to the recurring rule that generated this entry.
      * Null for manually created entries.
@@ -0,0 +1,45 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Memoized balance chain for a month: starting total (manual anchor or previous month's closing),
+ * the month's net, and the resulting closing total.
+ * Rows are dropped from the first month a write touches onwards and recomputed lazily.
+ */
+@Entity
+@Table(name = "month_balances", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "year_month"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "year_month", nullable = false, length = 7)
+    private String yearMonth; // Format: YYYY-MM
+
+    @Column(name = "starting_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal startingTotal;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal net;
+
+    @Column(name = "closing_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal closingTotal;
+}
@@ -13,7 +13,9 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "monthly_overviews")
+@Table(name = "monthly_overviews", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_monthly_overviews_user_month", columnNames = {"user_id", "year_month"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
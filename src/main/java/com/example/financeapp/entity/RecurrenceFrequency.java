@@ -0,0 +1,33 @@
+package com.example.financeapp.entity;
+
+/**
+ * How often a recurring rule repeats. Week-based frequencies repeat every N days from the start
+ * date; month-based ones repeat every N months on the rule's day of month.
+ */
+public enum RecurrenceFrequency {
+    WEEKLY(7, 0),
+    BIWEEKLY(14, 0),
+    MONTHLY(0, 1),
+    QUARTERLY(0, 3),
+    YEARLY(0, 12);
+
+    private final int stepDays;
+    private final int stepMonths;
+
+    RecurrenceFrequency(int stepDays, int stepMonths) {
+        this.stepDays = stepDays;
+        this.stepMonths = stepMonths;
+    }
+
+    public int getStepDays() {
+        return stepDays;
+    }
+
+    public int getStepMonths() {
+        return stepMonths;
+    }
+
+    public boolean isMonthBased() {
+        return stepMonths > 0;
+    }
+}
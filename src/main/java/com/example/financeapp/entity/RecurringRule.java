@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,7 +17,7 @@ import java.time.OffsetDateTime;
 /**
  * Represents a recurring transaction rule.
  * Users define rules (salary, subscriptions, rent, loans, etc.) and the backend
- * automatically generates monthly transactions from those rules.
+ * automatically generates transactions from those rules on their schedule (see RecurrenceFrequency).
  */
 @Entity
 @Table(name = "recurring_rules")
@@ -73,7 +74,16 @@ public class RecurringRule {
     private Boolean amountIsVariable = false;
 
     /**
-     * Day of month for scheduled transactions (1-31).
+     * How often the rule repeats. Rules created before frequencies existed are monthly.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @ColumnDefault("'MONTHLY'")
+    private RecurrenceFrequency frequency = RecurrenceFrequency.MONTHLY;
+
+    /**
+     * Day of month for scheduled transactions (1-31) of month-based rules; ignored by
+     * weekly and biweekly rules, which repeat from the start date.
      * If null, date is variable and user decides each month.
      */
     @Column(name = "day_of_month")
@@ -0,0 +1,86 @@
+package com.example.financeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A rule update being applied to the rule's generated transactions in the background, chunk by
+ * chunk. The cursor ({@code lastInstanceId}) is committed together with each chunk, so after a
+ * restart the job continues exactly where it stopped.
+ */
+@Entity
+@Table(name = "rule_rewrite_jobs", indexes = {
+    @Index(name = "idx_rule_rewrite_jobs_status", columnList = "status"),
+    @Index(name = "idx_rule_rewrite_jobs_rule", columnList = "rule_id, status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class RuleRewriteJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rule_id", nullable = false)
+    private RecurringRule rule;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "apply_scope", nullable = false, length = 16)
+    private ApplyScope applyScope;
+
+    /**
+     * Only instances scheduled on or after this date are rewritten; null for ApplyScope.ALL.
+     */
+    @Column(name = "from_date")
+    private LocalDate fromDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RuleRewriteStatus status = RuleRewriteStatus.PENDING;
+
+    /**
+     * Instances in scope when the job was created.
+     */
+    @Column(name = "total_count", nullable = false)
+    private Integer totalCount;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount = 0;
+
+    /**
+     * Highest instance id already rewritten; instances are processed in id order.
+     */
+    @Column(name = "last_instance_id", nullable = false)
+    private Long lastInstanceId = 0L;
+
+    @Column(length = 500)
+    private String error;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+}
@@ -0,0 +1,11 @@
+package com.example.financeapp.entity;
+
+/**
+ * Progress of a background rewrite of a rule's generated transactions.
+ */
+public enum RuleRewriteStatus {
+    PENDING,    // Waiting to be picked up
+    RUNNING,    // Some chunks committed, more to go
+    COMPLETED,  // All instances in scope rewritten
+    FAILED      // Stopped on an error; chunks committed before it stay applied
+}
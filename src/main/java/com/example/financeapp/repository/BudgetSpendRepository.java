@@ -0,0 +1,79 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.BudgetSpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface BudgetSpendRepository extends JpaRepository<BudgetSpend, Long> {
+
+    List<BudgetSpend> findByUserIdAndYearMonth(Long userId, String yearMonth);
+
+    /**
+     * Atomically adds delta to a spend counter, creating it if needed,
+     * and returns the new total. Safe under concurrent writers.
+     */
+    @Query(value = "INSERT INTO budget_spend (user_id, category_id, year_month, currency, spent) " +
+                   "VALUES (:userId, :categoryId, :yearMonth, :currency, :delta) " +
+                   "ON CONFLICT (user_id, category_id, year_month, currency) " +
+                   "DO UPDATE SET spent = budget_spend.spent + EXCLUDED.spent " +
+                   "RETURNING spent", nativeQuery = true)
+    BigDecimal addToSpent(
+            @Param("userId") Long userId,
+            @Param("categoryId") Long categoryId,
+            @Param("yearMonth") String yearMonth,
+            @Param("currency") String currency,
+            @Param("delta") BigDecimal delta
+    );
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM budget_spend", nativeQuery = true)
+    boolean anyCounterExists();
+
+    /**
+     * Blocks counter writes ({@link #addToSpent} and every other insert or update) and other
+     * holders of this lock until the current transaction ends.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE budget_spend IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockAgainstWriters();
+
+    /**
+     * Backfills counters from existing expense entries in one grouped statement.
+     * Used once when counters are introduced on a database that already has entries;
+     * callers hold {@link #lockAgainstWriters} so no increment is overwritten.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO budget_spend (user_id, category_id, year_month, currency, spent) " +
+                   "SELECT e.user_id, e.category_id, to_char(e.date, 'YYYY-MM'), e.currency, SUM(e.amount) " +
+                   "FROM entries e WHERE e.type = 'EXPENSE' " +
+                   "GROUP BY e.user_id, e.category_id, to_char(e.date, 'YYYY-MM'), e.currency " +
+                   "ON CONFLICT (user_id, category_id, year_month, currency) " +
+                   "DO UPDATE SET spent = EXCLUDED.spent", nativeQuery = true)
+    int rebuildAllCounters();
+
+    /**
+     * Adds every counter of the source category onto the matching counter of the target
+     * category (creating it if needed). The source counters are left for the caller to delete.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO budget_spend (user_id, category_id, year_month, currency, spent) " +
+                   "SELECT user_id, :targetId, year_month, currency, spent FROM budget_spend " +
+                   "WHERE user_id = :userId AND category_id = :sourceId " +
+                   "ON CONFLICT (user_id, category_id, year_month, currency) " +
+                   "DO UPDATE SET spent = budget_spend.spent + EXCLUDED.spent", nativeQuery = true)
+    int mergeCounters(
+            @Param("userId") Long userId,
+            @Param("sourceId") Long sourceId,
+            @Param("targetId") Long targetId
+    );
+
+    @Modifying
+    @Query("DELETE FROM BudgetSpend s WHERE s.user.id = :userId AND s.category.id = :categoryId")
+    int deleteByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+}
@@ -0,0 +1,28 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CategorizationRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRule, Long> {
+
+    List<CategorizationRule> findByUserIdOrderByKeywordAsc(Long userId);
+
+    Optional<CategorizationRule> findByIdAndUserId(Long id, Long userId);
+
+    boolean existsByUserIdAndKeyword(Long userId, String keyword);
+
+    boolean existsByUserIdAndKeywordAndIdNot(Long userId, String keyword, Long id);
+
+    @Modifying
+    @Query(value = "UPDATE categorization_rules SET category_id = :targetId, updated_at = now() " +
+                   "WHERE user_id = :userId AND category_id = :sourceId", nativeQuery = true)
+    int reassignCategory(@Param("userId") Long userId, @Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+}
@@ -0,0 +1,41 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CategoryBudget;
+import com.example.financeapp.entity.CurrencyCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryBudgetRepository extends JpaRepository<CategoryBudget, Long> {
+
+    List<CategoryBudget> findByUserId(Long userId);
+
+    Optional<CategoryBudget> findByIdAndUserId(Long id, Long userId);
+
+    Optional<CategoryBudget> findByUserIdAndCategoryIdAndCurrency(Long userId, Long categoryId, CurrencyCode currency);
+
+    /**
+     * Moves the source category's budgets to the target category, except for currencies
+     * the target already has a budget in.
+     */
+    @Modifying
+    @Query(value = "UPDATE category_budgets b SET category_id = :targetId, updated_at = now() " +
+                   "WHERE b.user_id = :userId AND b.category_id = :sourceId AND NOT EXISTS (" +
+                   "SELECT 1 FROM category_budgets t WHERE t.user_id = b.user_id " +
+                   "AND t.category_id = :targetId AND t.currency = b.currency)", nativeQuery = true)
+    int moveToCategory(
+            @Param("userId") Long userId,
+            @Param("sourceId") Long sourceId,
+            @Param("targetId") Long targetId
+    );
+
+    @Modifying
+    @Query("DELETE FROM CategoryBudget b WHERE b.user.id = :userId AND b.category.id = :categoryId")
+    int deleteByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+}
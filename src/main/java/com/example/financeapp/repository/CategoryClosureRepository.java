@@ -0,0 +1,83 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    /**
+     * Every path ending at one of the user's categories, including the self rows.
+     */
+    @Query("SELECT cc FROM CategoryClosure cc WHERE cc.descendantId IN " +
+           "(SELECT c.id FROM Category c WHERE c.user.id = :userId)")
+    List<CategoryClosure> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Number of levels below the category (0 for a leaf).
+     */
+    @Query("SELECT COALESCE(MAX(cc.depth), 0) FROM CategoryClosure cc WHERE cc.ancestorId = :categoryId")
+    int subtreeHeight(@Param("categoryId") Long categoryId);
+
+    /**
+     * Adds the paths of a new leaf: itself at depth 0 and every ancestor of its parent one level further.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT ancestor_id, :categoryId, depth + 1 FROM category_closure WHERE descendant_id = :parentId " +
+                   "UNION ALL SELECT :categoryId, :categoryId, 0", nativeQuery = true)
+    int insertLeaf(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "VALUES (:categoryId, :categoryId, 0)", nativeQuery = true)
+    int insertRoot(@Param("categoryId") Long categoryId);
+
+    /**
+     * First half of moving a subtree: removes the paths from the subtree's old ancestors into it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM category_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId) " +
+                   "AND ancestor_id NOT IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId)",
+           nativeQuery = true)
+    int detachSubtree(@Param("categoryId") Long categoryId);
+
+    /**
+     * Second half of moving a subtree: links every ancestor of the new parent to every node of the subtree.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1 " +
+                   "FROM category_closure p CROSS JOIN category_closure s " +
+                   "WHERE p.descendant_id = :parentId AND s.ancestor_id = :categoryId", nativeQuery = true)
+    int attachSubtree(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+
+    /**
+     * Shifts the level of every category strictly below the given one.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE categories SET level = level + :delta WHERE id IN " +
+                   "(SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId AND depth > 0)",
+           nativeQuery = true)
+    int shiftDescendantLevels(@Param("categoryId") Long categoryId, @Param("delta") int delta);
+
+    /**
+     * Adds the self row for every category that has none, e.g. categories that existed
+     * before the closure table was introduced (all top-level).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO category_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT c.id, c.id, 0 FROM categories c WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM category_closure cc WHERE cc.ancestor_id = c.id AND cc.descendant_id = c.id)",
+           nativeQuery = true)
+    int insertMissingSelfRows();
+}
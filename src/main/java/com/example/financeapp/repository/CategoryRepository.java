@@ -2,8 +2,12 @@ package com.example.financeapp.repository;
 
 import com.example.financeapp.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,5 +18,23 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
     
     long countByUserId(Long userId);
+
+    List<Category> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Active categories, most used first (served by idx_categories_user_usage).
+     */
+    List<Category> findByUserIdAndIsArchivedFalseOrderByUsageCountDescLastUsedAtDesc(Long userId);
+
+    /**
+     * Folds the source category's usage into the target's when merging them: counts add up and
+     * the later last use wins. The source is left with no uses.
+     */
+    @Modifying
+    @Query(value = "UPDATE categories c SET " +
+                   "usage_count = CASE WHEN c.id = :targetId THEN c.usage_count + s.usage_count ELSE 0 END, " +
+                   "last_used_at = CASE WHEN c.id = :targetId THEN GREATEST(c.last_used_at, s.last_used_at) ELSE c.last_used_at END " +
+                   "FROM categories s WHERE s.id = :sourceId AND c.id IN (:sourceId, :targetId)", nativeQuery = true)
+    int foldUsageInto(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
 }
 
@@ -0,0 +1,9 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.ChangeLogHorizon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeLogHorizonRepository extends JpaRepository<ChangeLogHorizon, Long> {
+}
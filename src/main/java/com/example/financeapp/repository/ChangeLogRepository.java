@@ -0,0 +1,111 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Every append draws its versions from the user's change_log_versions row in the same statement
+ * (see {@link com.example.financeapp.entity.ChangeLogVersion}); bulk appends take one version per
+ * logged row in a single increment.
+ */
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Increments the user's version counter by the number of rows in the {@code src} CTE (each
+     * with a 1-based {@code n}), creating it on the first write and locking it until commit.
+     * The rows get consecutive versions ending at the new counter value, see {@link #SRC_VERSION}.
+     */
+    String RESERVE_VERSIONS_SQL =
+            "v AS (INSERT INTO change_log_versions (user_id, version) SELECT :userId, COUNT(*) FROM src " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = change_log_versions.version + EXCLUDED.version " +
+            "RETURNING version) ";
+
+    String SRC_VERSION = "v.version - (SELECT COUNT(*) FROM src) + src.n";
+
+    /**
+     * Keyset page of a user's changes after version {@code since}, oldest first.
+     */
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.user.id = :userId AND c.version > :since ORDER BY c.version")
+    List<ChangeLogEntry> findPage(@Param("userId") Long userId, @Param("since") Long since, Pageable page);
+
+    @Modifying
+    @Query(value = "WITH v AS (INSERT INTO change_log_versions (user_id, version) VALUES (:userId, 1) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET version = change_log_versions.version + 1 " +
+                   "RETURNING user_id, version) " +
+                   "INSERT INTO change_log (user_id, version, entity_type, entity_key, operation, changed_at) " +
+                   "SELECT v.user_id, v.version, :entityType, :entityKey, :operation, clock_timestamp() FROM v",
+           nativeQuery = true)
+    int append(
+            @Param("userId") Long userId,
+            @Param("entityType") String entityType,
+            @Param("entityKey") String entityKey,
+            @Param("operation") String operation
+    );
+
+    /**
+     * Logs an upsert for every entry of a category, e.g. before a bulk reassignment.
+     */
+    @Modifying
+    @Query(value = "WITH src AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS n FROM entries " +
+                   "WHERE user_id = :userId AND category_id = :categoryId), " + RESERVE_VERSIONS_SQL +
+                   "INSERT INTO change_log (user_id, version, entity_type, entity_key, operation, changed_at) " +
+                   "SELECT :userId, " + SRC_VERSION + ", 'ENTRY', CAST(src.id AS VARCHAR), 'UPSERT', clock_timestamp() " +
+                   "FROM src CROSS JOIN v", nativeQuery = true)
+    int appendEntriesOfCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    /**
+     * Logs an upsert for every recurring rule of a category, e.g. before a bulk reassignment.
+     */
+    @Modifying
+    @Query(value = "WITH src AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS n FROM recurring_rules " +
+                   "WHERE user_id = :userId AND category_id = :categoryId), " + RESERVE_VERSIONS_SQL +
+                   "INSERT INTO change_log (user_id, version, entity_type, entity_key, operation, changed_at) " +
+                   "SELECT :userId, " + SRC_VERSION + ", 'RULE', CAST(src.id AS VARCHAR), 'UPSERT', clock_timestamp() " +
+                   "FROM src CROSS JOIN v", nativeQuery = true)
+    int appendRulesOfCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    /**
+     * Logs an upsert for a category and every category below it, e.g. after a subtree move.
+     */
+    @Modifying
+    @Query(value = "WITH src AS (SELECT descendant_id AS id, ROW_NUMBER() OVER (ORDER BY descendant_id) AS n " +
+                   "FROM category_closure WHERE ancestor_id = :categoryId), " + RESERVE_VERSIONS_SQL +
+                   "INSERT INTO change_log (user_id, version, entity_type, entity_key, operation, changed_at) " +
+                   "SELECT :userId, " + SRC_VERSION + ", 'CATEGORY', CAST(src.id AS VARCHAR), 'UPSERT', clock_timestamp() " +
+                   "FROM src CROSS JOIN v", nativeQuery = true)
+    int appendCategorySubtree(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    /**
+     * Deletes rows that a newer row for the same entity supersedes. Safe at any time:
+     * a client behind the deleted row still receives the newer one.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM change_log c WHERE EXISTS (" +
+                   "SELECT 1 FROM change_log n WHERE n.user_id = c.user_id AND n.entity_type = c.entity_type " +
+                   "AND n.entity_key = c.entity_key AND n.version > c.version)", nativeQuery = true)
+    int deleteSuperseded();
+
+    /**
+     * Deletes tombstones older than the cutoff and moves each affected user's horizon
+     * past the newest deleted one, in a single statement.
+     *
+     * @return the number of users whose horizon moved
+     */
+    @Modifying
+    @Query(value = "WITH deleted AS (" +
+                   "DELETE FROM change_log WHERE operation = 'DELETE' AND changed_at < :cutoff RETURNING user_id, version) " +
+                   "INSERT INTO change_log_horizon (user_id, min_since) " +
+                   "SELECT user_id, MAX(version) FROM deleted GROUP BY user_id " +
+                   "ON CONFLICT (user_id) DO UPDATE SET min_since = GREATEST(change_log_horizon.min_since, EXCLUDED.min_since)",
+           nativeQuery = true)
+    int deleteTombstonesBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
@@ -2,32 +2,24 @@ package com.example.financeapp.repository;
 
 import com.example.financeapp.entity.CurrencyCode;
 import com.example.financeapp.entity.Entry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EntryRepository extends JpaRepository<Entry, Long> {
-    
-    List<Entry> findByUserIdAndDateBetween(Long userId, LocalDate from, LocalDate to);
-    
-    // Returns entries ordered by date descending (newest first), with id descending as tie-breaker
-    @Query("SELECT e FROM Entry e WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
-           "AND (:categoryId IS NULL OR e.category.id = :categoryId) " +
-           "AND (:currency IS NULL OR e.currency = :currency) " +
-           "ORDER BY e.date DESC, e.id DESC")
-    List<Entry> findByUserIdAndDateBetweenAndOptionalFilters(
-            @Param("userId") Long userId,
-            @Param("from") LocalDate from,
-            @Param("to") LocalDate to,
-            @Param("categoryId") Long categoryId,
-            @Param("currency") CurrencyCode currency
-    );
+public interface EntryRepository extends JpaRepository<Entry, Long>, JpaSpecificationExecutor<Entry> {
     
     // Returns entries ordered by date descending (newest first), with id descending as tie-breaker
     List<Entry> findByUserIdAndDateBetweenOrderByDateDescIdDesc(Long userId, LocalDate from, LocalDate to);
@@ -35,5 +27,129 @@ public interface EntryRepository extends JpaRepository<Entry, Long> {
     List<Entry> findByUserId(Long userId);
     
     Optional<Entry> findByIdAndUserId(Long id, Long userId);
-}
 
+    List<Entry> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Bulk delete; pending changes are flushed first so earlier writes in the same transaction are kept.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Entry e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Net amount (income minus expenses) per month for one currency.
+     * Each row is [Integer year, Integer month, BigDecimal net].
+     */
+    @Query("SELECT YEAR(e.date), MONTH(e.date), " +
+           "SUM(CASE WHEN e.type = com.example.financeapp.entity.EntryType.INCOME THEN e.amount ELSE -e.amount END) " +
+           "FROM Entry e WHERE e.user.id = :userId AND e.currency = :currency AND e.date BETWEEN :from AND :to " +
+           "GROUP BY YEAR(e.date), MONTH(e.date)")
+    List<Object[]> sumNetByMonth(
+            @Param("userId") Long userId,
+            @Param("currency") CurrencyCode currency,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Net amount (income minus expenses) per day and currency over all of a user's entries.
+     * Each row is [LocalDate date, CurrencyCode currency, BigDecimal net].
+     */
+    @Query("SELECT e.date, e.currency, " +
+           "SUM(CASE WHEN e.type = com.example.financeapp.entity.EntryType.INCOME THEN e.amount ELSE -e.amount END) " +
+           "FROM Entry e WHERE e.user.id = :userId " +
+           "GROUP BY e.date, e.currency")
+    List<Object[]> sumNetByDayAndCurrency(@Param("userId") Long userId);
+
+    /**
+     * Moves all of a user's entries from one category to another in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE entries SET category_id = :targetId, updated_at = now() " +
+                   "WHERE user_id = :userId AND category_id = :sourceId", nativeQuery = true)
+    int reassignCategory(
+            @Param("userId") Long userId,
+            @Param("sourceId") Long sourceId,
+            @Param("targetId") Long targetId
+    );
+
+    /**
+     * All entries of a user in date order, fetched from the database in chunks while the
+     * stream is consumed. Must be read inside a transaction and closed.
+     * Each row is [Long id, LocalDate date, BigDecimal amount, Long categoryId,
+     * CurrencyCode currency, EntryType type].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.date, e.amount, e.category.id, e.currency, e.type FROM Entry e " +
+           "WHERE e.user.id = :userId ORDER BY e.date, e.id")
+    Stream<Object[]> streamColumns(@Param("userId") Long userId);
+
+    /**
+     * All manual (not rule-generated) entries of a user, oldest first, fetched from the database
+     * in chunks while the stream is consumed. Must be read inside a transaction and closed.
+     * Each row is [String note, Long categoryId, EntryType type, CurrencyCode currency,
+     * BigDecimal amount, LocalDate date].
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.note, e.category.id, e.type, e.currency, e.amount, e.date FROM Entry e " +
+           "WHERE e.user.id = :userId AND e.recurringRule IS NULL ORDER BY e.date, e.id")
+    Stream<Object[]> streamManualEntries(@Param("userId") Long userId);
+
+    /**
+     * How many manual (not rule-generated) entries use each distinct note.
+     * Each row is [String note, Long count].
+     */
+    @Query("SELECT e.note, COUNT(e) FROM Entry e WHERE e.user.id = :userId AND e.recurringRule IS NULL " +
+           "AND e.note IS NOT NULL AND e.note <> '' GROUP BY e.note")
+    List<Object[]> countManualNotes(@Param("userId") Long userId);
+
+    /**
+     * Ranked note search, shared by the first-page and next-page queries below. Matches notes by
+     * word (note_tsv), by substring and by similar words (trigram indexes), and generated entries
+     * by their rule's name. {@code :q} must be lower case and {@code :pattern} a LIKE pattern
+     * for it; the score is exact in double precision, so it can be used as a keyset cursor.
+     */
+    String NOTE_SEARCH_SQL =
+            "SELECT s.id, s.score FROM (" +
+            "SELECT e.id AS id, CAST(ts_rank_cd(e.note_tsv, websearch_to_tsquery('simple', :q)) " +
+            "+ GREATEST(word_similarity(:q, lower(coalesce(e.note, ''))), word_similarity(:q, lower(coalesce(r.name, '')))) " +
+            "AS double precision) AS score " +
+            "FROM (" +
+            // Note matches: every predicate is served by a GIN index, so they combine as a BitmapOr
+            "SELECT n.id FROM entries n WHERE n.user_id = :userId AND (n.note_tsv @@ websearch_to_tsquery('simple', :q) " +
+            "OR lower(n.note) LIKE :pattern OR :q <% lower(n.note)) " +
+            "UNION " +
+            // Rule name matches: the few matching rules, then their entries via idx_entries_user_rule_date
+            "SELECT g.id FROM recurring_rules rr JOIN entries g ON g.user_id = rr.user_id AND g.recurring_rule_id = rr.id " +
+            "WHERE rr.user_id = :userId AND (lower(rr.name) LIKE :pattern OR :q <% lower(rr.name))" +
+            ") m " +
+            "JOIN entries e ON e.id = m.id LEFT JOIN recurring_rules r ON r.id = e.recurring_rule_id" +
+            ") s ";
+
+    /**
+     * First page of a note search, best match first. Each row is [Long id, Double score].
+     */
+    @Query(value = NOTE_SEARCH_SQL + "ORDER BY s.score DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchNotes(
+            @Param("userId") Long userId,
+            @Param("q") String q,
+            @Param("pattern") String pattern,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Next page of a note search, after the (score, id) of the last row of the previous page.
+     */
+    @Query(value = NOTE_SEARCH_SQL +
+                   "WHERE s.score < :afterScore OR (s.score = :afterScore AND s.id < :afterId) " +
+                   "ORDER BY s.score DESC, s.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchNotesAfter(
+            @Param("userId") Long userId,
+            @Param("q") String q,
+            @Param("pattern") String pattern,
+            @Param("afterScore") double afterScore,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit
+    );
+}
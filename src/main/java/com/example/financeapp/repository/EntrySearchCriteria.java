@@ -0,0 +1,32 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Entry filters; every filter except the date range is optional (null or empty = not filtered).
+ *
+ * @param categoryIds entries in any of these categories
+ * @param minAmount   inclusive lower bound on the amount
+ * @param maxAmount   inclusive upper bound on the amount
+ * @param generated   true for entries generated by recurring rules, false for manual ones
+ * @param noteText    case-insensitive substring of the note
+ */
+@Builder
+public record EntrySearchCriteria(
+        LocalDate from,
+        LocalDate to,
+        List<Long> categoryIds,
+        EntryType type,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        CurrencyCode currency,
+        Boolean generated,
+        String noteText
+) {
+}
@@ -0,0 +1,61 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.Entry;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds entry queries containing only the predicates that are actually filtered on, instead
+ * of {@code (:param IS NULL OR ...)} for every optional filter. Each filter combination gets
+ * its own SQL, so Postgres plans it with the index that fits (see the idx_entries_* indexes on
+ * {@link Entry}).
+ */
+public final class EntrySpecifications {
+
+    private EntrySpecifications() {
+    }
+
+    public static Specification<Entry> matching(Long userId, EntrySearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("user").get("id"), userId));
+            predicates.add(cb.between(root.get("date"), criteria.from(), criteria.to()));
+
+            if (criteria.categoryIds() != null && !criteria.categoryIds().isEmpty()) {
+                predicates.add(criteria.categoryIds().size() == 1
+                        ? cb.equal(root.get("category").get("id"), criteria.categoryIds().get(0))
+                        : root.get("category").get("id").in(criteria.categoryIds()));
+            }
+            if (criteria.type() != null) {
+                predicates.add(cb.equal(root.get("type"), criteria.type()));
+            }
+            if (criteria.currency() != null) {
+                predicates.add(cb.equal(root.get("currency"), criteria.currency()));
+            }
+            if (criteria.minAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), criteria.minAmount()));
+            }
+            if (criteria.maxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), criteria.maxAmount()));
+            }
+            if (criteria.generated() != null) {
+                predicates.add(criteria.generated()
+                        ? cb.isNotNull(root.get("recurringRule"))
+                        : cb.isNull(root.get("recurringRule")));
+            }
+            if (criteria.noteText() != null && !criteria.noteText().isBlank()) {
+                String pattern = "%" + escapeLike(criteria.noteText().trim().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.like(cb.lower(root.get("note")), pattern, '\\'));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    /**
+     * Loads every rate ordered for building the in-memory rate table.
+     */
+    List<ExchangeRate> findAllByOrderByCurrencyAscRateDateAsc();
+
+    List<ExchangeRate> findByCurrencyOrderByRateDateAsc(CurrencyCode currency);
+
+    Optional<ExchangeRate> findByCurrencyAndRateDate(CurrencyCode currency, LocalDate rateDate);
+}
@@ -0,0 +1,49 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.MonthBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MonthBalanceRepository extends JpaRepository<MonthBalance, Long> {
+
+    Optional<MonthBalance> findByUserIdAndYearMonth(Long userId, String yearMonth);
+
+    List<MonthBalance> findByUserIdAndYearMonthBetween(Long userId, String from, String to);
+
+    /**
+     * Latest memoized month strictly before the given month (YYYY-MM sorts chronologically).
+     */
+    Optional<MonthBalance> findFirstByUserIdAndYearMonthLessThanOrderByYearMonthDesc(Long userId, String yearMonth);
+
+    /**
+     * Drops memoized balances from the given month onwards.
+     * Earlier months do not depend on later ones, so they stay valid.
+     */
+    @Modifying
+    @Query("DELETE FROM MonthBalance b WHERE b.user.id = :userId AND b.yearMonth >= :yearMonth")
+    int deleteFromMonth(@Param("userId") Long userId, @Param("yearMonth") String yearMonth);
+
+    /**
+     * Inserts or replaces a memoized month. Concurrent readers may compute the same month.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO month_balances (user_id, year_month, starting_total, net, closing_total) " +
+                   "VALUES (:userId, :yearMonth, :startingTotal, :net, :closingTotal) " +
+                   "ON CONFLICT (user_id, year_month) DO UPDATE SET starting_total = EXCLUDED.starting_total, " +
+                   "net = EXCLUDED.net, closing_total = EXCLUDED.closing_total", nativeQuery = true)
+    int upsert(
+            @Param("userId") Long userId,
+            @Param("yearMonth") String yearMonth,
+            @Param("startingTotal") BigDecimal startingTotal,
+            @Param("net") BigDecimal net,
+            @Param("closingTotal") BigDecimal closingTotal
+    );
+}
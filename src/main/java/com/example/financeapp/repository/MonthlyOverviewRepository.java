@@ -2,13 +2,53 @@ package com.example.financeapp.repository;
 
 import com.example.financeapp.entity.MonthlyOverview;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MonthlyOverviewRepository extends JpaRepository<MonthlyOverview, Long> {
     
     Optional<MonthlyOverview> findByUserIdAndYearMonth(Long userId, String yearMonth);
+
+    /**
+     * Nearest month before the given one whose starting total was set manually.
+     */
+    Optional<MonthlyOverview> findFirstByUserIdAndYearMonthLessThanAndStartingTotalIsNotNullOrderByYearMonthDesc(
+            Long userId, String yearMonth);
+
+    /**
+     * All overviews in an inclusive YYYY-MM range, oldest first.
+     */
+    List<MonthlyOverview> findByUserIdAndYearMonthBetweenOrderByYearMonthAsc(Long userId, String from, String to);
+
+    /**
+     * Every month with a manually entered starting total, oldest first.
+     */
+    List<MonthlyOverview> findByUserIdAndStartingTotalIsNotNullOrderByYearMonthAsc(Long userId);
+
+    List<MonthlyOverview> findByUserIdAndYearMonthIn(Long userId, Collection<String> yearMonths);
+
+    /**
+     * Race-free create-or-update backed by the unique (user_id, year_month) index.
+     * Concurrent PUTs for the same month converge on one row instead of creating duplicates.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO monthly_overviews (user_id, year_month, starting_total, note, created_at, updated_at) " +
+                   "VALUES (:userId, :yearMonth, :startingTotal, :note, now(), now()) " +
+                   "ON CONFLICT (user_id, year_month) DO UPDATE SET starting_total = EXCLUDED.starting_total, " +
+                   "note = EXCLUDED.note, updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int upsert(
+            @Param("userId") Long userId,
+            @Param("yearMonth") String yearMonth,
+            @Param("startingTotal") BigDecimal startingTotal,
+            @Param("note") String note
+    );
 }
 
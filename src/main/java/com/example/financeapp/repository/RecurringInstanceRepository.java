@@ -1,12 +1,15 @@
 package com.example.financeapp.repository;
 
 import com.example.financeapp.entity.RecurringInstance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,20 @@ public interface RecurringInstanceRepository extends JpaRepository<RecurringInst
 
     Optional<RecurringInstance> findByTransactionId(Long transactionId);
 
+    /**
+     * Removes the instance links of entries about to be deleted in bulk.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RecurringInstance ri WHERE ri.transaction.id IN :transactionIds")
+    int deleteByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+
+    /**
+     * Marks the instances of the given entries as manually edited, in bulk.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RecurringInstance ri SET ri.isManualOverride = true WHERE ri.transaction.id IN :transactionIds")
+    int markManualOverrideByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+
     /**
      * Check if an instance already exists for a rule and scheduled date.
      * Used to prevent duplicate generation.
@@ -26,18 +43,59 @@ public interface RecurringInstanceRepository extends JpaRepository<RecurringInst
     boolean existsByRuleIdAndScheduledFor(Long ruleId, LocalDate scheduledFor);
 
     /**
-     * Check if any instance exists for a rule within a given month (year-month).
-     * Used to prevent creating duplicate transactions when dayOfMonth changes.
-     * This ensures only one transaction per rule per month, regardless of exact day.
+     * Scheduled dates of all instances of a rule, to find the missing occurrences with one query.
+     */
+    @Query("SELECT ri.scheduledFor FROM RecurringInstance ri WHERE ri.rule.id = :ruleId")
+    List<LocalDate> findScheduledDatesByRuleId(@Param("ruleId") Long ruleId);
+
+    /**
+     * Instances of a rule a rule update rewrites: all that are not manually overridden.
+     */
+    @Query("SELECT COUNT(ri) FROM RecurringInstance ri WHERE ri.rule.id = :ruleId AND ri.isManualOverride = false")
+    long countRewritable(@Param("ruleId") Long ruleId);
+
+    /**
+     * Same as {@link #countRewritable}, limited to instances scheduled on or after {@code from}.
      */
-    @Query("SELECT COUNT(ri) > 0 FROM RecurringInstance ri WHERE ri.rule.id = :ruleId " +
-           "AND YEAR(ri.scheduledFor) = :year AND MONTH(ri.scheduledFor) = :month")
-    boolean existsByRuleIdAndYearMonth(
+    @Query("SELECT COUNT(ri) FROM RecurringInstance ri WHERE ri.rule.id = :ruleId " +
+           "AND ri.isManualOverride = false AND ri.scheduledFor >= :from")
+    long countRewritableFrom(@Param("ruleId") Long ruleId, @Param("from") LocalDate from);
+
+    /**
+     * The next instances to rewrite after {@code afterId}, in id order, with their transactions.
+     * Same filter as {@link #countRewritable}.
+     */
+    @Query("SELECT ri FROM RecurringInstance ri JOIN FETCH ri.transaction WHERE ri.rule.id = :ruleId " +
+           "AND ri.id > :afterId AND ri.isManualOverride = false ORDER BY ri.id")
+    List<RecurringInstance> findRewriteChunk(
             @Param("ruleId") Long ruleId,
-            @Param("year") int year,
-            @Param("month") int month
+            @Param("afterId") Long afterId,
+            Pageable pageable
     );
 
+    /**
+     * Same as {@link #findRewriteChunk}, limited to instances scheduled on or after {@code from}.
+     */
+    @Query("SELECT ri FROM RecurringInstance ri JOIN FETCH ri.transaction WHERE ri.rule.id = :ruleId " +
+           "AND ri.id > :afterId AND ri.isManualOverride = false AND ri.scheduledFor >= :from ORDER BY ri.id")
+    List<RecurringInstance> findRewriteChunkFrom(
+            @Param("ruleId") Long ruleId,
+            @Param("afterId") Long afterId,
+            @Param("from") LocalDate from,
+            Pageable pageable
+    );
+
+    /**
+     * Every instance of a rule with the fields of its transaction that a rule update may change,
+     * ordered by scheduled date. Each row is [LocalDate scheduledFor, Boolean isManualOverride,
+     * Long transactionId, LocalDate date, BigDecimal amount, EntryType type, CurrencyCode currency,
+     * Long categoryId].
+     */
+    @Query("SELECT ri.scheduledFor, ri.isManualOverride, t.id, t.date, t.amount, t.type, t.currency, c.id " +
+           "FROM RecurringInstance ri JOIN ri.transaction t LEFT JOIN t.category c " +
+           "WHERE ri.rule.id = :ruleId ORDER BY ri.scheduledFor")
+    List<Object[]> findTransactionStatesByRuleId(@Param("ruleId") Long ruleId);
+
     /**
      * Find instance by rule and scheduled date.
      */
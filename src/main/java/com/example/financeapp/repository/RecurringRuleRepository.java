@@ -1,11 +1,15 @@
 package com.example.financeapp.repository;
 
 import com.example.financeapp.entity.RecurringRule;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,10 +18,20 @@ public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Lo
 
     List<RecurringRule> findByUserId(Long userId);
 
+    List<RecurringRule> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
     List<RecurringRule> findByUserIdOrderByCreatedAtDesc(Long userId);
 
     Optional<RecurringRule> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Loads rules of a user and locks their rows until the transaction ends, in id order so
+     * two transactions locking overlapping rules cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringRule r WHERE r.user.id = :userId AND r.id IN :ids ORDER BY r.id")
+    List<RecurringRule> findByUserIdAndIdInForUpdate(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
     List<RecurringRule> findByUserIdAndIsActiveTrue(Long userId);
 
     /**
@@ -28,8 +42,33 @@ public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Lo
     @Query("SELECT r FROM RecurringRule r WHERE r.user.id = :userId AND r.isActive = true")
     List<RecurringRule> findActiveRulesForGeneration(@Param("userId") Long userId);
 
+    /**
+     * Active variable-date and variable-amount rules of a user together with every instance they
+     * have, one row per instance (one row with nulls for a rule without instances), ordered by
+     * rule and date. Each row is [RecurringRule rule, LocalDate scheduledFor,
+     * Boolean isManualOverride, Long transactionId, LocalDate date, BigDecimal amount].
+     */
+    @Query("SELECT r, ri.scheduledFor, ri.isManualOverride, t.id, t.date, t.amount FROM RecurringRule r " +
+           "LEFT JOIN RecurringInstance ri ON ri.rule = r LEFT JOIN ri.transaction t " +
+           "WHERE r.user.id = :userId AND r.isActive = true " +
+           "AND (r.dateIsVariable = true OR r.amountIsVariable = true) " +
+           "ORDER BY r.id, ri.scheduledFor")
+    List<Object[]> findVariableRulesWithInstances(@Param("userId") Long userId);
+
     /**
      * Count active rules for a user.
      */
     long countByUserIdAndIsActiveTrue(Long userId);
+
+    /**
+     * Moves all of a user's recurring rules from one category to another in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE recurring_rules SET category_id = :targetId, updated_at = now() " +
+                   "WHERE user_id = :userId AND category_id = :sourceId", nativeQuery = true)
+    int reassignCategory(
+            @Param("userId") Long userId,
+            @Param("sourceId") Long sourceId,
+            @Param("targetId") Long targetId
+    );
 }
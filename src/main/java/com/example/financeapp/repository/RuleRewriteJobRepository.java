@@ -0,0 +1,33 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.RuleRewriteJob;
+import com.example.financeapp.entity.RuleRewriteStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RuleRewriteJobRepository extends JpaRepository<RuleRewriteJob, Long> {
+
+    Optional<RuleRewriteJob> findByIdAndUserId(Long id, Long userId);
+
+    Optional<RuleRewriteJob> findFirstByRuleIdAndStatusIn(Long ruleId, Collection<RuleRewriteStatus> statuses);
+
+    @Query("SELECT j.id FROM RuleRewriteJob j WHERE j.status IN :statuses ORDER BY j.id")
+    List<Long> findIdsByStatusIn(@Param("statuses") Collection<RuleRewriteStatus> statuses);
+
+    /**
+     * Loads a job and locks its row until the transaction ends, so a chunk is never
+     * processed twice, even by two nodes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM RuleRewriteJob j WHERE j.id = :id")
+    Optional<RuleRewriteJob> findByIdForUpdate(@Param("id") Long id);
+}
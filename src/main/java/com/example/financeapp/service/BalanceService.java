@@ -0,0 +1,292 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.BalanceResponseDto;
+import com.example.financeapp.dto.BalanceSeriesResponseDto;
+import com.example.financeapp.dto.CurrencyBalanceDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.MonthlyOverview;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.MonthlyOverviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running balance per currency at any date.
+ *
+ * Daily nets live in an in-memory {@link DailyNetIndex} per user, built lazily from one grouped
+ * query and patched after every committed entry write. RSD balances are anchored at the nearest
+ * month with a manually entered starting total (MonthlyOverview); other currencies have no
+ * anchor and are the sum of all their entries up to the date.
+ *
+ * Indexes are kept in LRU order; when the indexes of all cached users together exceed the
+ * memory budget, the least recently used users are dropped (the current one is always kept)
+ * and rebuilt on their next read. Anchors are kept for a bounded number of recent users.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+
+    /**
+     * Extra days kept on both sides of the data so typical new entries (backdated or
+     * generated ahead by recurring rules) fit without a rebuild.
+     */
+    private static final int WINDOW_MARGIN_DAYS = 2 * 366;
+    private static final int MAX_SERIES_POINTS = 1000;
+    private static final int MAX_ANCHOR_USERS = 1000;
+
+    private final EntryRepository entryRepository;
+    private final MonthlyOverviewRepository monthlyOverviewRepository;
+    private final EntryWriteTracker entryWriteTracker;
+
+    @Value("${app.balance-index.max-bytes:33554432}")
+    private long maxBytes;
+
+    private final Map<Long, DailyNetIndex> indexesByUser = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Manual RSD starting totals per user, in cents, keyed by month.
+     */
+    private final Map<Long, NavigableMap<YearMonth, Long>> anchorsByUser = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, NavigableMap<YearMonth, Long>> eldest) {
+                    return size() > MAX_ANCHOR_USERS;
+                }
+            });
+
+    /**
+     * Bumped on every anchor eviction; anchors loaded while it moved may predate the write
+     * and are not cached.
+     */
+    private final AtomicLong anchorGeneration = new AtomicLong();
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    public BalanceResponseDto getBalance(LocalDate at) {
+        Long userId = getCurrentUserId();
+        return balanceAt(indexFor(userId), anchorsFor(userId), at);
+    }
+
+    /**
+     * Balances at {@code from}, then every day or week up to and including {@code to}.
+     */
+    public BalanceSeriesResponseDto getBalanceSeries(LocalDate from, LocalDate to, String step) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        int stepDays = switch (step.toLowerCase()) {
+            case "day" -> 1;
+            case "week" -> 7;
+            default -> throw new IllegalArgumentException("Unsupported step '" + step + "', use day or week");
+        };
+        long points = (to.toEpochDay() - from.toEpochDay()) / stepDays + 1;
+        if (points > MAX_SERIES_POINTS) {
+            throw new IllegalArgumentException("Series would have " + points + " points, at most "
+                    + MAX_SERIES_POINTS + " are allowed");
+        }
+
+        Long userId = getCurrentUserId();
+        DailyNetIndex index = indexFor(userId);
+        NavigableMap<YearMonth, Long> anchors = anchorsFor(userId);
+
+        List<BalanceResponseDto> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(stepDays)) {
+            series.add(balanceAt(index, anchors, day));
+        }
+        return BalanceSeriesResponseDto.builder()
+                .from(from)
+                .to(to)
+                .step(step.toLowerCase())
+                .points(series)
+                .build();
+    }
+
+    private BalanceResponseDto balanceAt(DailyNetIndex index, NavigableMap<YearMonth, Long> anchors, LocalDate at) {
+        Set<CurrencyCode> currencies = EnumSet.noneOf(CurrencyCode.class);
+        currencies.addAll(index.currencies());
+        if (!anchors.isEmpty()) {
+            currencies.add(MonthBalanceService.BALANCE_CURRENCY);
+        }
+
+        List<CurrencyBalanceDto> balances = new ArrayList<>();
+        for (CurrencyCode currency : currencies) {
+            Map.Entry<YearMonth, Long> anchor = currency == MonthBalanceService.BALANCE_CURRENCY
+                    ? anchors.floorEntry(YearMonth.from(at))
+                    : null;
+            long cents = anchor != null
+                    ? anchor.getValue() + index.sumBetween(currency, anchor.getKey().atDay(1), at)
+                    : index.sumThrough(currency, at);
+            balances.add(CurrencyBalanceDto.builder()
+                    .currency(currency)
+                    .balance(BigDecimal.valueOf(cents, 2))
+                    .anchorMonth(anchor != null ? anchor.getKey().toString() : null)
+                    .build());
+        }
+        return BalanceResponseDto.builder()
+                .date(at)
+                .balances(balances)
+                .build();
+    }
+
+    // ==================== Index maintenance ====================
+
+    /**
+     * Patches the cached index with the committed change. A change outside the index window
+     * drops the index, and the next read rebuilds it around the new data; so does a change
+     * that may already be part of the index (see {@link EntryWriteTracker#isTracked}). Ordered
+     * ahead of the tracker's completion callback, which stops tracking the event.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntryChanged(EntryChangedEvent event) {
+        Long userId = event.userId();
+        DailyNetIndex index;
+        synchronized (indexesByUser) {
+            index = indexesByUser.get(userId);
+        }
+        if (index == null) {
+            return;
+        }
+        boolean applied = entryWriteTracker.isTracked(event);
+        if (applied && event.before() != null) {
+            applied = apply(index, event.before(), true);
+        }
+        if (applied && event.after() != null) {
+            applied = apply(index, event.after(), false);
+        }
+        synchronized (indexesByUser) {
+            if (!applied) {
+                indexesByUser.remove(userId, index);
+            } else if (indexesByUser.get(userId) == index) {
+                // A new tree may have been allocated for a first entry in another currency
+                trimToBudget(userId);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached anchors once the current transaction commits, e.g. after a manual
+     * starting total changed.
+     */
+    public void evictAnchorsAfterCommit(Long userId) {
+        AfterCommit.run(() -> {
+            synchronized (anchorsByUser) {
+                anchorGeneration.incrementAndGet();
+                anchorsByUser.remove(userId);
+            }
+        });
+    }
+
+    private boolean apply(DailyNetIndex index, EntrySnapshot entry, boolean remove) {
+        long cents = toCents(entry.amount());
+        long signed = entry.isExpense() ? -cents : cents;
+        return index.add(entry.currency(), entry.date(), remove ? -signed : signed);
+    }
+
+    private DailyNetIndex indexFor(Long userId) {
+        synchronized (indexesByUser) {
+            DailyNetIndex cached = indexesByUser.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // An index that may already contain a write whose listener has yet to patch it
+        // serves this request only
+        long token = entryWriteTracker.beforeBuild(userId);
+        List<DailyNetIndex.DailyNet> rows = new ArrayList<>();
+        LocalDate min = LocalDate.now();
+        LocalDate max = min;
+        for (Object[] row : entryRepository.sumNetByDayAndCurrency(userId)) {
+            LocalDate date = (LocalDate) row[0];
+            rows.add(new DailyNetIndex.DailyNet((CurrencyCode) row[1], date, toCents((BigDecimal) row[2])));
+            min = date.isBefore(min) ? date : min;
+            max = date.isAfter(max) ? date : max;
+        }
+        DailyNetIndex built = DailyNetIndex.of(
+                min.minusDays(WINDOW_MARGIN_DAYS), max.plusDays(WINDOW_MARGIN_DAYS), rows);
+        log.debug("Built daily net index for user {} from {} rows ({} to {})",
+                userId, rows.size(), built.getFirstDay(), built.getLastDay());
+
+        if (!entryWriteTracker.mayCache(userId, token)) {
+            return built;
+        }
+        synchronized (indexesByUser) {
+            DailyNetIndex existing = indexesByUser.putIfAbsent(userId, built);
+            if (existing != null) {
+                return existing;
+            }
+            trimToBudget(userId);
+            return built;
+        }
+    }
+
+    /**
+     * Drops least recently used users until the budget is met. Caller holds the map lock.
+     */
+    private void trimToBudget(Long keepUserId) {
+        long total = 0;
+        for (DailyNetIndex index : indexesByUser.values()) {
+            total += index.estimatedBytes();
+        }
+        Iterator<Map.Entry<Long, DailyNetIndex>> eldestFirst = indexesByUser.entrySet().iterator();
+        while (total > maxBytes && eldestFirst.hasNext()) {
+            Map.Entry<Long, DailyNetIndex> eldest = eldestFirst.next();
+            if (eldest.getKey().equals(keepUserId)) {
+                continue;
+            }
+            total -= eldest.getValue().estimatedBytes();
+            eldestFirst.remove();
+            log.debug("Evicted daily net index of user {} (budget {} bytes)", eldest.getKey(), maxBytes);
+        }
+    }
+
+    private NavigableMap<YearMonth, Long> anchorsFor(Long userId) {
+        NavigableMap<YearMonth, Long> cached = anchorsByUser.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = anchorGeneration.get();
+        NavigableMap<YearMonth, Long> anchors = new TreeMap<>();
+        for (MonthlyOverview overview : monthlyOverviewRepository
+                .findByUserIdAndStartingTotalIsNotNullOrderByYearMonthAsc(userId)) {
+            anchors.put(YearMonth.parse(overview.getYearMonth()), toCents(overview.getStartingTotal()));
+        }
+        NavigableMap<YearMonth, Long> loaded = Collections.unmodifiableNavigableMap(anchors);
+        synchronized (anchorsByUser) {
+            if (anchorGeneration.get() == loadedAt) {
+                anchorsByUser.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.BudgetStatusDto;
+import com.example.financeapp.dto.CategoryBudgetResponseDto;
+import com.example.financeapp.dto.UpsertCategoryBudgetRequestDto;
+import com.example.financeapp.entity.BudgetSpend;
+import com.example.financeapp.entity.Category;
+import com.example.financeapp.entity.CategoryBudget;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.User;
+import com.example.financeapp.exception.ResourceNotFoundException;
+import com.example.financeapp.repository.BudgetSpendRepository;
+import com.example.financeapp.repository.CategoryBudgetRepository;
+import com.example.financeapp.repository.CategoryRepository;
+import com.example.financeapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BudgetService implements SmartInitializingSingleton {
+
+    private final CategoryBudgetRepository budgetRepository;
+    private final BudgetSpendRepository spendRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Budget limits per user, keyed by (category, currency). Read on every entry write,
+     * so it is cached and only reloaded after a budget changes.
+     */
+    private final Map<Long, Map<BudgetKey, BigDecimal>> limitsByUser = new ConcurrentHashMap<>();
+
+    private record BudgetKey(Long categoryId, CurrencyCode currency) {
+    }
+
+    private record SpendCounter(Long userId, Long categoryId, YearMonth yearMonth, CurrencyCode currency) {
+        static SpendCounter of(EntrySnapshot entry) {
+            return new SpendCounter(entry.userId(), entry.categoryId(), entry.yearMonth(), entry.currency());
+        }
+    }
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    // ==================== Budget CRUD ====================
+
+    public List<CategoryBudgetResponseDto> getBudgets() {
+        Long userId = getCurrentUserId();
+        return budgetRepository.findByUserId(userId).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public CategoryBudgetResponseDto upsertBudget(UpsertCategoryBudgetRequestDto dto) {
+        Long userId = getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Category category = categoryRepository.findById(dto.getCategoryId())
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        if (!category.getUser().getId().equals(userId)) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+
+        CurrencyCode currency = dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD;
+        CategoryBudget budget = budgetRepository.findByUserIdAndCategoryIdAndCurrency(userId, category.getId(), currency)
+                .orElse(new CategoryBudget());
+        budget.setUser(user);
+        budget.setCategory(category);
+        budget.setCurrency(currency);
+        budget.setMonthlyLimit(dto.getMonthlyLimit());
+
+        CategoryBudget saved = budgetRepository.save(budget);
+        evictLimitsAfterCommit(userId);
+        return mapToDto(saved);
+    }
+
+    @Transactional
+    public void deleteBudget(Long id) {
+        Long userId = getCurrentUserId();
+        CategoryBudget budget = budgetRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget not found"));
+        budgetRepository.delete(budget);
+        evictLimitsAfterCommit(userId);
+    }
+
+    // ==================== Budget Status ====================
+
+    /**
+     * Returns spent/remaining for every budget in the given month.
+     * Reads the maintained counters, never the month's entries.
+     */
+    public List<BudgetStatusDto> getBudgetStatus(String yearMonth) {
+        Long userId = getCurrentUserId();
+        YearMonth.parse(yearMonth); // validate format
+
+        Map<BudgetKey, BigDecimal> spentByKey = spendRepository.findByUserIdAndYearMonth(userId, yearMonth).stream()
+                .collect(Collectors.toMap(
+                        s -> new BudgetKey(s.getCategory().getId(), s.getCurrency()),
+                        BudgetSpend::getSpent));
+
+        return budgetRepository.findByUserId(userId).stream()
+                .map(budget -> {
+                    BigDecimal limit = budget.getMonthlyLimit();
+                    BigDecimal spent = spentByKey.getOrDefault(
+                            new BudgetKey(budget.getCategory().getId(), budget.getCurrency()), BigDecimal.ZERO);
+                    BigDecimal percentUsed = spent.multiply(BigDecimal.valueOf(100))
+                            .divide(limit, 2, RoundingMode.HALF_UP);
+                    return BudgetStatusDto.builder()
+                            .budgetId(budget.getId())
+                            .categoryId(budget.getCategory().getId())
+                            .categoryName(budget.getCategory().getName())
+                            .categoryEmoji(budget.getCategory().getEmoji())
+                            .currency(budget.getCurrency())
+                            .monthlyLimit(limit)
+                            .spent(spent)
+                            .remaining(limit.subtract(spent))
+                            .percentUsed(percentUsed)
+                            .overBudget(spent.compareTo(limit) > 0)
+                            .build();
+                })
+                .sorted(Comparator.comparing(BudgetStatusDto::getPercentUsed).reversed())
+                .collect(Collectors.toList());
+    }
+
+    // ==================== Incremental Counters ====================
+
+    /**
+     * Applies an entry write to the spend counters and reports whether the entry's
+     * category is over budget afterwards.
+     *
+     * @param before the entry before the write, or null for a create
+     * @param after  the entry after the write, or null for a delete
+     * @return true if {@code after} is an expense whose (category, month, currency) spend exceeds its limit
+     */
+    @Transactional
+    public boolean applyEntryChange(EntrySnapshot before, EntrySnapshot after) {
+        boolean beforeCounts = before != null && before.isExpense();
+        boolean afterCounts = after != null && after.isExpense();
+
+        if (beforeCounts && afterCounts && sameCounter(before, after)) {
+            // Same counter: a single upsert with the difference
+            BigDecimal spent = addToSpent(after, after.amount().subtract(before.amount()));
+            return isOverLimit(after, spent);
+        }
+        if (beforeCounts) {
+            addToSpent(before, before.amount().negate());
+        }
+        if (afterCounts) {
+            BigDecimal spent = addToSpent(after, after.amount());
+            return isOverLimit(after, spent);
+        }
+        return false;
+    }
+
+    /**
+     * Applies many entry writes at once: deltas are summed per counter first, so each
+     * (category, month, currency) counter is updated with a single upsert.
+     *
+     * @return ids of the written expense entries whose counter exceeds its limit afterwards
+     */
+    @Transactional
+    public Set<Long> applyEntryChanges(List<EntryChangedEvent> changes) {
+        Map<SpendCounter, BigDecimal> deltas = new LinkedHashMap<>();
+        for (EntryChangedEvent change : changes) {
+            if (change.before() != null && change.before().isExpense()) {
+                deltas.merge(SpendCounter.of(change.before()), change.before().amount().negate(), BigDecimal::add);
+            }
+            if (change.after() != null && change.after().isExpense()) {
+                deltas.merge(SpendCounter.of(change.after()), change.after().amount(), BigDecimal::add);
+            }
+        }
+
+        Map<SpendCounter, Boolean> overLimit = new HashMap<>();
+        deltas.forEach((counter, delta) -> {
+            BigDecimal spent = spendRepository.addToSpent(counter.userId(), counter.categoryId(),
+                    counter.yearMonth().toString(), counter.currency().name(), delta);
+            BigDecimal limit = limitsFor(counter.userId()).get(new BudgetKey(counter.categoryId(), counter.currency()));
+            overLimit.put(counter, limit != null && spent.compareTo(limit) > 0);
+        });
+
+        Set<Long> overBudget = new HashSet<>();
+        for (EntryChangedEvent change : changes) {
+            EntrySnapshot after = change.after();
+            if (after != null && after.isExpense() && overLimit.get(SpendCounter.of(after))) {
+                overBudget.add(after.id());
+            }
+        }
+        return overBudget;
+    }
+
+    /**
+     * Backfills the counters before the web server starts, so no request of this node can
+     * create a counter first and make the table look backfilled.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> backfillCountersIfEmpty());
+    }
+
+    /**
+     * Backfills the counters from existing entries when the counter table is still empty,
+     * e.g. on the first start after budgets were introduced. Afterwards the counters are
+     * maintained incrementally by {@link #applyEntryChange}.
+     *
+     * The counter table stays locked until the backfill commits: writers of other nodes wait
+     * and then add onto the rebuilt counters instead of being overwritten by them, and a node
+     * starting at the same time finds the counters once it gets the lock.
+     */
+    void backfillCountersIfEmpty() {
+        spendRepository.lockAgainstWriters();
+        if (spendRepository.anyCounterExists()) {
+            return;
+        }
+        int rows = spendRepository.rebuildAllCounters();
+        log.info("Backfilled {} budget spend counters from existing entries", rows);
+    }
+
+    /**
+     * Folds the source category's spend counters and budgets into the target category,
+     * as part of a category merge. Budgets the target already has in the same currency win.
+     */
+    @Transactional
+    public void mergeCategory(Long userId, Long sourceId, Long targetId) {
+        spendRepository.mergeCounters(userId, sourceId, targetId);
+        spendRepository.deleteByUserIdAndCategoryId(userId, sourceId);
+        budgetRepository.moveToCategory(userId, sourceId, targetId);
+        budgetRepository.deleteByUserIdAndCategoryId(userId, sourceId);
+        evictLimitsAfterCommit(userId);
+    }
+
+    private boolean sameCounter(EntrySnapshot a, EntrySnapshot b) {
+        return a.categoryId().equals(b.categoryId())
+                && a.currency() == b.currency()
+                && a.yearMonth().equals(b.yearMonth());
+    }
+
+    private BigDecimal addToSpent(EntrySnapshot entry, BigDecimal delta) {
+        return spendRepository.addToSpent(
+                entry.userId(), entry.categoryId(), entry.yearMonth().toString(),
+                entry.currency().name(), delta);
+    }
+
+    private boolean isOverLimit(EntrySnapshot entry, BigDecimal spent) {
+        BigDecimal limit = limitsFor(entry.userId()).get(new BudgetKey(entry.categoryId(), entry.currency()));
+        return limit != null && spent.compareTo(limit) > 0;
+    }
+
+    private Map<BudgetKey, BigDecimal> limitsFor(Long userId) {
+        return limitsByUser.computeIfAbsent(userId, id -> budgetRepository.findByUserId(id).stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        b -> new BudgetKey(b.getCategory().getId(), b.getCurrency()),
+                        CategoryBudget::getMonthlyLimit)));
+    }
+
+    private void evictLimitsAfterCommit(Long userId) {
+        AfterCommit.run(() -> limitsByUser.remove(userId));
+    }
+
+    private CategoryBudgetResponseDto mapToDto(CategoryBudget budget) {
+        return CategoryBudgetResponseDto.builder()
+                .id(budget.getId())
+                .categoryId(budget.getCategory().getId())
+                .categoryName(budget.getCategory().getName())
+                .categoryEmoji(budget.getCategory().getEmoji())
+                .currency(budget.getCurrency())
+                .monthlyLimit(budget.getMonthlyLimit())
+                .build();
+    }
+}
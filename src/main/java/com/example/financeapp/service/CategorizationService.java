@@ -0,0 +1,279 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.CategorizationRuleRequestDto;
+import com.example.financeapp.dto.CategorizationRuleResponseDto;
+import com.example.financeapp.dto.RecategorizeResultDto;
+import com.example.financeapp.entity.CategorizationRule;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.exception.ResourceNotFoundException;
+import com.example.financeapp.repository.CategorizationRuleRepository;
+import com.example.financeapp.repository.CategoryRepository;
+import com.example.financeapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keyword rules that pick a category from an entry's note.
+ *
+ * A user's rules are compiled into one {@link KeywordMatcher}, so matching a note is a single
+ * pass over it regardless of the number of rules. Matchers are immutable: after a rule write
+ * commits, the user's matcher is dropped and the next match installs a newly compiled one as a whole.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategorizationService {
+
+    private static final int MAX_USERS = 1000;
+    private static final int RECATEGORIZE_CHUNK_SIZE = 1000;
+
+    /**
+     * Keyset chunk (by id) of manual entries that have a note and a category picked by a
+     * categorization rule, locked until the chunk's transaction ends: concurrent edits wait,
+     * so the snapshots read here are exactly the rows the chunk rewrites.
+     */
+    private static final String LOCK_CHUNK_SQL = "SELECT id, category_id, type, amount, currency, date, note " +
+            "FROM entries WHERE user_id = ? AND recurring_rule_id IS NULL AND category_auto_assigned " +
+            "AND note IS NOT NULL AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String REASSIGN_SQL = "UPDATE entries SET category_id = ?, updated_at = now() " +
+            "WHERE id = ? AND category_id = ? AND category_auto_assigned";
+
+    private final CategorizationRuleRepository ruleRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final BudgetService budgetService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, KeywordMatcher> matchers = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, KeywordMatcher> eldest) {
+                    return size() > MAX_USERS;
+                }
+            });
+
+    /**
+     * Bumped on every eviction; a matcher compiled while it moved may predate the write
+     * and is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    // ==================== Rules ====================
+
+    public List<CategorizationRuleResponseDto> getRules() {
+        Long userId = getCurrentUserId();
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        return ruleRepository.findByUserIdOrderByKeywordAsc(userId).stream()
+                .map(rule -> mapToDto(rule, refs))
+                .toList();
+    }
+
+    @Transactional
+    public CategorizationRuleResponseDto createRule(CategorizationRuleRequestDto dto) {
+        Long userId = getCurrentUserId();
+        String keyword = KeywordMatcher.normalize(dto.getKeyword());
+        if (ruleRepository.existsByUserIdAndKeyword(userId, keyword)) {
+            throw new IllegalArgumentException("A rule for keyword '" + keyword + "' already exists");
+        }
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+
+        CategorizationRule rule = new CategorizationRule();
+        rule.setUser(userRepository.getReferenceById(userId));
+        rule.setKeyword(keyword);
+        rule.setCategory(categoryRepository.getReferenceById(requireActiveCategory(refs, dto.getCategoryId())));
+
+        CategorizationRule saved = ruleRepository.save(rule);
+        evictAfterCommit(userId);
+        return mapToDto(saved, refs);
+    }
+
+    @Transactional
+    public CategorizationRuleResponseDto updateRule(Long id, CategorizationRuleRequestDto dto) {
+        Long userId = getCurrentUserId();
+        CategorizationRule rule = ruleRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Categorization rule not found"));
+        String keyword = KeywordMatcher.normalize(dto.getKeyword());
+        if (ruleRepository.existsByUserIdAndKeywordAndIdNot(userId, keyword, id)) {
+            throw new IllegalArgumentException("A rule for keyword '" + keyword + "' already exists");
+        }
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+
+        rule.setKeyword(keyword);
+        rule.setCategory(categoryRepository.getReferenceById(requireActiveCategory(refs, dto.getCategoryId())));
+
+        CategorizationRule saved = ruleRepository.save(rule);
+        evictAfterCommit(userId);
+        return mapToDto(saved, refs);
+    }
+
+    @Transactional
+    public void deleteRule(Long id) {
+        Long userId = getCurrentUserId();
+        CategorizationRule rule = ruleRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Categorization rule not found"));
+        ruleRepository.delete(rule);
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Points the rules of a merged category to the category it was merged into.
+     */
+    @Transactional
+    public void mergeCategory(Long userId, Long sourceId, Long targetId) {
+        if (ruleRepository.reassignCategory(userId, sourceId, targetId) > 0) {
+            evictAfterCommit(userId);
+        }
+    }
+
+    // ==================== Matching ====================
+
+    /**
+     * Category of the best rule matching the note, unless that category has been archived.
+     */
+    public Optional<Long> categorize(Long userId, String note, ReferenceDataSnapshot refs) {
+        return matcherFor(userId).match(note)
+                .map(KeywordMatcher.Keyword::categoryId)
+                .filter(categoryId -> refs.category(categoryId).map(category -> !category.archived()).orElse(false));
+    }
+
+    /**
+     * Applies the current rules to every manual entry whose category a rule picked, moving
+     * entries whose best matching rule now points to another category; categories the user
+     * chose are left alone. Entries are read in id order in chunks, each chunk locked in a
+     * transaction of its own and written with one JDBC batch.
+     */
+    public RecategorizeResultDto recategorize() {
+        Long userId = getCurrentUserId();
+        KeywordMatcher matcher = matcherFor(userId);
+        if (matcher.isEmpty()) {
+            return RecategorizeResultDto.builder().scanned(0).recategorized(0).build();
+        }
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+
+        int scanned = 0;
+        int recategorized = 0;
+        long afterId = 0;
+        while (true) {
+            long chunkAfterId = afterId;
+            Chunk chunk = transactionTemplate.execute(status -> recategorizeChunk(userId, chunkAfterId, refs));
+            if (chunk.scanned() == 0) {
+                break;
+            }
+            scanned += chunk.scanned();
+            recategorized += chunk.recategorized();
+            afterId = chunk.lastId();
+        }
+        log.info("Recategorized {} of {} entries for user {}", recategorized, scanned, userId);
+        return RecategorizeResultDto.builder().scanned(scanned).recategorized(recategorized).build();
+    }
+
+    private record Chunk(int scanned, int recategorized, long lastId) {
+    }
+
+    private Chunk recategorizeChunk(Long userId, long afterId, ReferenceDataSnapshot refs) {
+        List<EntrySnapshot> rows = jdbcTemplate.query(LOCK_CHUNK_SQL, (rs, rowNum) -> new EntrySnapshot(
+                rs.getLong("id"), userId, rs.getLong("category_id"), EntryType.valueOf(rs.getString("type")),
+                rs.getBigDecimal("amount"), CurrencyCode.valueOf(rs.getString("currency")),
+                rs.getObject("date", LocalDate.class), rs.getString("note"), null),
+                userId, afterId, RECATEGORIZE_CHUNK_SIZE);
+        long lastId = afterId;
+        List<Object[]> updates = new ArrayList<>();
+        List<EntryChangedEvent> changes = new ArrayList<>();
+        for (EntrySnapshot before : rows) {
+            lastId = before.id();
+            Optional<Long> target = categorize(userId, before.note(), refs);
+            if (target.isEmpty() || target.get().equals(before.categoryId())) {
+                continue;
+            }
+            EntrySnapshot after = new EntrySnapshot(before.id(), userId, target.get(), before.type(),
+                    before.amount(), before.currency(), before.date(), before.note(), null);
+            updates.add(new Object[]{target.get(), before.id(), before.categoryId()});
+            changes.add(new EntryChangedEvent(before, after));
+        }
+        if (updates.isEmpty()) {
+            return new Chunk(rows.size(), 0, lastId);
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(REASSIGN_SQL, updates);
+        List<EntryChangedEvent> applied = new ArrayList<>(changes.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                applied.add(changes.get(i));
+            }
+        }
+        budgetService.applyEntryChanges(applied);
+        applied.forEach(eventPublisher::publishEvent);
+        return new Chunk(rows.size(), applied.size(), lastId);
+    }
+
+    private KeywordMatcher matcherFor(Long userId) {
+        KeywordMatcher cached = matchers.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long compiledAt = generation.get();
+        KeywordMatcher compiled = KeywordMatcher.of(ruleRepository.findByUserIdOrderByKeywordAsc(userId).stream()
+                .map(rule -> new KeywordMatcher.Keyword(rule.getKeyword(), rule.getCategory().getId()))
+                .toList());
+        synchronized (matchers) {
+            if (generation.get() == compiledAt) {
+                matchers.put(userId, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    private void evictAfterCommit(Long userId) {
+        AfterCommit.run(() -> evict(userId));
+    }
+
+    private void evict(Long userId) {
+        synchronized (matchers) {
+            generation.incrementAndGet();
+            matchers.remove(userId);
+        }
+    }
+
+    private Long requireActiveCategory(ReferenceDataSnapshot refs, Long categoryId) {
+        ReferenceDataSnapshot.CategoryRef category = refs.requireCategory(categoryId);
+        if (category.archived()) {
+            throw new IllegalArgumentException("Cannot use archived category");
+        }
+        return category.id();
+    }
+
+    private CategorizationRuleResponseDto mapToDto(CategorizationRule rule, ReferenceDataSnapshot refs) {
+        Long categoryId = rule.getCategory().getId();
+        Optional<ReferenceDataSnapshot.CategoryRef> category = refs.category(categoryId);
+        return CategorizationRuleResponseDto.builder()
+                .id(rule.getId())
+                .keyword(rule.getKeyword())
+                .categoryId(categoryId)
+                .categoryName(category.map(ReferenceDataSnapshot.CategoryRef::name).orElse(null))
+                .categoryEmoji(category.map(ReferenceDataSnapshot.CategoryRef::emoji).orElse(null))
+                .build();
+    }
+}
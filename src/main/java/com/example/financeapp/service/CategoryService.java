@@ -1,35 +1,93 @@
 package com.example.financeapp.service;
 
+import com.example.financeapp.dto.CategoryMergeResultDto;
 import com.example.financeapp.dto.CategoryResponseDto;
 import com.example.financeapp.dto.CreateCategoryRequestDto;
 import com.example.financeapp.dto.UpdateCategoryRequestDto;
 import com.example.financeapp.entity.Category;
+import com.example.financeapp.entity.ChangeEntityType;
 import com.example.financeapp.entity.User;
 import com.example.financeapp.exception.ResourceNotFoundException;
+import com.example.financeapp.repository.CategoryClosureRepository;
 import com.example.financeapp.repository.CategoryRepository;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.RecurringRuleRepository;
 import com.example.financeapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository closureRepository;
+    private final EntryRepository entryRepository;
+    private final RecurringRuleRepository ruleRepository;
     private final UserRepository userRepository;
+    private final MonthReportCache monthReportCache;
+    private final EntryColumnsCache entryColumnsCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final DataVersionService dataVersionService;
+    private final BudgetService budgetService;
+    private final ChangeLogService changeLogService;
+    private final CategorizationService categorizationService;
+    private final CategoryUsageTracker categoryUsageTracker;
 
     private Long getCurrentUserId() {
         return 1L;
     }
 
+    /**
+     * Served from the reference snapshot, so repeated calls do not query the database.
+     */
     public List<CategoryResponseDto> getAllActiveCategoriesForCurrentUser() {
         Long userId = getCurrentUserId();
-        List<Category> categories = categoryRepository.findByUserIdAndIsArchivedFalse(userId);
-        return categories.stream()
+        return referenceDataCache.get(userId).activeCategories().stream()
+                .map(category -> CategoryResponseDto.builder()
+                        .id(category.id())
+                        .name(category.name())
+                        .emoji(category.emoji())
+                        .isDefault(category.isDefault())
+                        .isArchived(category.archived())
+                        .parentId(category.parentId())
+                        .level(category.level())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Active categories ordered by how often and how recently they were used, for pickers.
+     * One indexed read; uses from the last few seconds may not be counted yet.
+     */
+    public List<CategoryResponseDto> getActiveCategoriesByUsage() {
+        Long userId = getCurrentUserId();
+        return categoryRepository.findByUserIdAndIsArchivedFalseOrderByUsageCountDescLastUsedAtDesc(userId).stream()
+                .map(category -> {
+                    CategoryResponseDto dto = mapToDto(category);
+                    dto.setUsageCount(category.getUsageCount());
+                    dto.setLastUsedAt(category.getLastUsedAt());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Categories of the current user with the given ids, archived ones included.
+     */
+    public List<CategoryResponseDto> getCategoriesByIds(Collection<Long> ids) {
+        Long userId = getCurrentUserId();
+        return categoryRepository.findByUserIdAndIdIn(userId, ids).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
@@ -40,14 +98,36 @@ public class CategoryService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        Category parent = null;
+        int level = 0;
+        if (dto.getParentId() != null) {
+            ReferenceDataSnapshot.CategoryRef parentRef = referenceDataCache.get(userId).requireCategory(dto.getParentId());
+            if (parentRef.archived()) {
+                throw new IllegalArgumentException("Cannot add a subcategory to an archived category");
+            }
+            level = parentRef.level() + 1;
+            checkLevel(level);
+            parent = categoryRepository.getReferenceById(parentRef.id());
+        }
+
         Category category = new Category();
         category.setUser(user);
         category.setName(dto.getName());
         category.setEmoji(dto.getEmoji());
         category.setDefault(false);
         category.setArchived(false);
+        category.setParent(parent);
+        category.setLevel(level);
 
         Category saved = categoryRepository.save(category);
+        if (parent == null) {
+            closureRepository.insertRoot(saved.getId());
+        } else {
+            closureRepository.insertLeaf(saved.getId(), parent.getId());
+        }
+        changeLogService.recordUpsert(userId, ChangeEntityType.CATEGORY, saved.getId());
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
         return mapToDto(saved);
     }
 
@@ -64,7 +144,20 @@ public class CategoryService {
         category.setName(dto.getName());
         category.setEmoji(dto.getEmoji());
 
+        Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+        if (!Objects.equals(currentParentId, dto.getParentId())) {
+            moveSubtree(userId, category, dto.getParentId());
+            // Descendant levels changed too
+            changeLogService.recordCategorySubtree(userId, id);
+        } else {
+            changeLogService.recordUpsert(userId, ChangeEntityType.CATEGORY, id);
+        }
+
         Category updated = categoryRepository.save(category);
+        // Reports embed category names and roll up along the tree
+        monthReportCache.invalidateUserAfterCommit(userId);
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
         return mapToDto(updated);
     }
 
@@ -80,6 +173,113 @@ public class CategoryService {
 
         category.setArchived(true);
         categoryRepository.save(category);
+        changeLogService.recordUpsert(userId, ChangeEntityType.CATEGORY, id);
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
+    }
+
+    /**
+     * Moves every entry and recurring rule of a category to another category with one UPDATE
+     * per table, folds its budget counters into the target and archives it. Runs in constant
+     * memory regardless of how many entries the category has.
+     */
+    @Transactional
+    public CategoryMergeResultDto mergeInto(Long sourceId, Long targetId) {
+        Long userId = getCurrentUserId();
+        if (sourceId.equals(targetId)) {
+            throw new IllegalArgumentException("Cannot merge a category into itself");
+        }
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        refs.requireCategory(sourceId);
+        if (closureRepository.subtreeHeight(sourceId) > 0) {
+            throw new IllegalArgumentException("Cannot merge a category that has subcategories; move or merge them first");
+        }
+        if (refs.requireCategory(targetId).archived()) {
+            throw new IllegalArgumentException("Cannot merge into an archived category");
+        }
+
+        // Log the moved entries and rules while they can still be found by their old category
+        changeLogService.recordCategoryContents(userId, sourceId);
+        int entriesMoved = entryRepository.reassignCategory(userId, sourceId, targetId);
+        int rulesMoved = ruleRepository.reassignCategory(userId, sourceId, targetId);
+        budgetService.mergeCategory(userId, sourceId, targetId);
+        categorizationService.mergeCategory(userId, sourceId, targetId);
+        categoryRepository.foldUsageInto(sourceId, targetId);
+        categoryUsageTracker.mergeCategoryAfterCommit(sourceId, targetId);
+
+        Category source = categoryRepository.findById(sourceId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+        source.setArchived(true);
+        categoryRepository.save(source);
+        changeLogService.recordUpsert(userId, ChangeEntityType.CATEGORY, sourceId);
+
+        // Reports group by category, and rule snapshots reference the moved category; the
+        // bulk update publishes no entry events, so the report columns are rebuilt
+        monthReportCache.invalidateUserAfterCommit(userId);
+        entryColumnsCache.evictAfterCommit(userId);
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
+
+        log.info("Merged category {} into {} ({} entries, {} rules moved)", sourceId, targetId, entriesMoved, rulesMoved);
+        return CategoryMergeResultDto.builder()
+                .sourceCategoryId(sourceId)
+                .targetCategoryId(targetId)
+                .entriesMoved(entriesMoved)
+                .rulesMoved(rulesMoved)
+                .build();
+    }
+
+    /**
+     * Adds the closure self row for categories that have none, e.g. on the first start
+     * after category trees were introduced. New categories get their rows on creation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillClosureRows() {
+        int rows = closureRepository.insertMissingSelfRows();
+        if (rows > 0) {
+            log.info("Backfilled {} category closure rows", rows);
+        }
+    }
+
+    /**
+     * Moves a category and everything below it under a new parent (or to the top level),
+     * rewriting the closure paths of the whole subtree with set-based statements.
+     */
+    private void moveSubtree(Long userId, Category category, Long newParentId) {
+        Category newParent = null;
+        int newLevel = 0;
+        if (newParentId != null) {
+            ReferenceDataSnapshot.CategoryRef parentRef = referenceDataCache.get(userId).requireCategory(newParentId);
+            if (closureRepository.existsByAncestorIdAndDescendantId(category.getId(), newParentId)) {
+                throw new IllegalArgumentException("Cannot move a category under itself or one of its subcategories");
+            }
+            if (parentRef.archived()) {
+                throw new IllegalArgumentException("Cannot add a subcategory to an archived category");
+            }
+            newLevel = parentRef.level() + 1;
+            newParent = categoryRepository.getReferenceById(parentRef.id());
+        }
+        checkLevel(newLevel + closureRepository.subtreeHeight(category.getId()));
+
+        int delta = newLevel - category.getLevel();
+        category.setParent(newParent);
+        category.setLevel(newLevel);
+
+        closureRepository.detachSubtree(category.getId());
+        if (newParentId != null) {
+            closureRepository.attachSubtree(category.getId(), newParentId);
+        }
+        if (delta != 0) {
+            closureRepository.shiftDescendantLevels(category.getId(), delta);
+        }
+    }
+
+    private void checkLevel(int level) {
+        if (level > Category.MAX_LEVEL) {
+            throw new IllegalArgumentException(
+                    "Categories can be nested at most " + (Category.MAX_LEVEL + 1) + " levels deep");
+        }
     }
 
     private CategoryResponseDto mapToDto(Category category) {
@@ -89,6 +289,8 @@ public class CategoryService {
                 .emoji(category.getEmoji())
                 .isDefault(category.isDefault())
                 .isArchived(category.isArchived())
+                .parentId(category.getParent() != null ? category.getParent().getId() : null)
+                .level(category.getLevel())
                 .build();
     }
 }
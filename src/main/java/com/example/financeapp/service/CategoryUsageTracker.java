@@ -0,0 +1,97 @@
+package com.example.financeapp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers category usage (entry count and last use) in memory and writes it to
+ * {@code categories} in one JDBC batch per flush, so creating an entry never locks its
+ * category row. Uses of the same category between flushes are coalesced into one update.
+ *
+ * Counters in the database lag by at most one flush interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryUsageTracker {
+
+    private static final String FLUSH_SQL =
+            "UPDATE categories SET usage_count = usage_count + ?, last_used_at = GREATEST(last_used_at, ?) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Usage(long count, OffsetDateTime lastUsedAt) {
+        Usage combine(Usage other) {
+            return new Usage(count + other.count,
+                    lastUsedAt.isAfter(other.lastUsedAt) ? lastUsedAt : other.lastUsedAt);
+        }
+    }
+
+    private final Map<Long, Usage> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Counts one use of the category once the current transaction commits (immediately when there is none).
+     */
+    public void recordUseAfterCommit(Long categoryId) {
+        Usage use = new Usage(1, OffsetDateTime.now());
+        AfterCommit.run(() -> pending.merge(categoryId, use, Usage::combine));
+    }
+
+    /**
+     * Moves the source category's buffered uses to the target once the current transaction
+     * commits, after the merge folded the stored counters.
+     */
+    public void mergeCategoryAfterCommit(Long sourceId, Long targetId) {
+        AfterCommit.run(() -> {
+            Usage usage = pending.remove(sourceId);
+            if (usage != null) {
+                pending.merge(targetId, usage, Usage::combine);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.category-usage.flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // remove() is atomic per key, so a use recorded concurrently lands in a fresh
+        // pending value and is picked up by the next flush
+        Map<Long, Usage> drained = new LinkedHashMap<>();
+        for (Long categoryId : List.copyOf(pending.keySet())) {
+            Usage usage = pending.remove(categoryId);
+            if (usage != null) {
+                drained.put(categoryId, usage);
+            }
+        }
+
+        List<Object[]> batch = new ArrayList<>(drained.size());
+        drained.forEach((categoryId, usage) -> batch.add(new Object[]{
+                usage.count(), Timestamp.from(usage.lastUsedAt().toInstant()), categoryId}));
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            log.debug("Flushed usage counters for {} categories", batch.size());
+        } catch (RuntimeException e) {
+            // Keep the counts for the next attempt
+            drained.forEach((categoryId, usage) -> pending.merge(categoryId, usage, Usage::combine));
+            log.warn("Failed to flush category usage counters, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
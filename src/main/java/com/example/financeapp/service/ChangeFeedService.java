@@ -0,0 +1,113 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.ChangeTombstoneDto;
+import com.example.financeapp.dto.ChangesResponseDto;
+import com.example.financeapp.entity.ChangeEntityType;
+import com.example.financeapp.entity.ChangeLogEntry;
+import com.example.financeapp.entity.ChangeLogHorizon;
+import com.example.financeapp.entity.ChangeOperation;
+import com.example.financeapp.repository.ChangeLogHorizonRepository;
+import com.example.financeapp.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental sync: reads a page of the change log after a version and returns the current
+ * state of every changed entity, or a tombstone if its last logged change was a delete.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogHorizonRepository horizonRepository;
+    private final EntryService entryService;
+    private final CategoryService categoryService;
+    private final RecurringRuleService recurringRuleService;
+    private final MonthlyOverviewService monthlyOverviewService;
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    /**
+     * @param since version from the previous response, or 0 for the first sync
+     * @param limit maximum number of log rows to read (1 to {@link #MAX_LIMIT})
+     */
+    public ChangesResponseDto getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("'since' must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        Long userId = getCurrentUserId();
+
+        long horizon = horizonRepository.findById(userId).map(ChangeLogHorizon::getMinSince).orElse(0L);
+        if (since < horizon) {
+            // Tombstones after 'since' are gone; replaying from the horizon after a full reload is complete
+            return ChangesResponseDto.builder()
+                    .nextSince(horizon)
+                    .fullResyncRequired(true)
+                    .entries(List.of())
+                    .categories(List.of())
+                    .rules(List.of())
+                    .overviews(List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+
+        // One extra row tells whether more changes follow
+        List<ChangeLogEntry> rows = changeLogRepository.findPage(userId, since, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+
+        // Versions commit in order, so no change below the last one read can still appear
+        int end = Math.min(rows.size(), limit);
+
+        // Last operation per entity wins
+        Map<ChangeEntityType, Map<String, ChangeOperation>> latest = new EnumMap<>(ChangeEntityType.class);
+        for (ChangeLogEntry row : rows.subList(0, end)) {
+            latest.computeIfAbsent(row.getEntityType(), t -> new LinkedHashMap<>())
+                    .put(row.getEntityKey(), row.getOperation());
+        }
+
+        List<ChangeTombstoneDto> deleted = new ArrayList<>();
+        Map<ChangeEntityType, List<String>> upserted = new EnumMap<>(ChangeEntityType.class);
+        latest.forEach((type, keys) -> keys.forEach((key, operation) -> {
+            if (operation == ChangeOperation.DELETE) {
+                deleted.add(ChangeTombstoneDto.builder().type(type).key(key).build());
+            } else {
+                upserted.computeIfAbsent(type, t -> new ArrayList<>()).add(key);
+            }
+        }));
+
+        return ChangesResponseDto.builder()
+                .nextSince(end > 0 ? rows.get(end - 1).getVersion() : since)
+                .hasMore(hasMore)
+                .fullResyncRequired(false)
+                .entries(upserted.containsKey(ChangeEntityType.ENTRY)
+                        ? entryService.getEntriesByIds(ids(upserted.get(ChangeEntityType.ENTRY))) : List.of())
+                .categories(upserted.containsKey(ChangeEntityType.CATEGORY)
+                        ? categoryService.getCategoriesByIds(ids(upserted.get(ChangeEntityType.CATEGORY))) : List.of())
+                .rules(upserted.containsKey(ChangeEntityType.RULE)
+                        ? recurringRuleService.getRulesByIds(ids(upserted.get(ChangeEntityType.RULE))) : List.of())
+                .overviews(upserted.containsKey(ChangeEntityType.OVERVIEW)
+                        ? monthlyOverviewService.getStoredOverviews(upserted.get(ChangeEntityType.OVERVIEW)) : List.of())
+                .deleted(deleted)
+                .build();
+    }
+
+    private static List<Long> ids(List<String> keys) {
+        return keys.stream().map(Long::valueOf).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.ChangeEntityType;
+import com.example.financeapp.entity.ChangeOperation;
+import com.example.financeapp.repository.ChangeLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the change log that incremental sync (GET /api/changes) reads from. Every row is
+ * inserted in the transaction of the change it describes, so a change is logged if and only
+ * if it committed. Versions come from a per-user counter that each writing transaction holds
+ * locked until it commits, so they become visible in order and readers need no settle delay.
+ *
+ * Compaction keeps the log small: rows superseded by a newer row for the same entity are
+ * dropped, and tombstones are dropped after the retention period, moving the user's
+ * horizon so clients older than that are told to resync fully.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    /**
+     * Same as {@link ChangeLogRepository#append}, for JDBC batches.
+     */
+    private static final String APPEND_SQL =
+            "WITH v AS (INSERT INTO change_log_versions (user_id, version) VALUES (?, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = change_log_versions.version + 1 RETURNING user_id, version) " +
+            "INSERT INTO change_log (user_id, version, entity_type, entity_key, operation, changed_at) " +
+            "SELECT v.user_id, v.version, ?, ?, ?, clock_timestamp() FROM v";
+
+    private final ChangeLogRepository changeLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Transaction resource key of the entry changes waiting to be logged at commit.
+     */
+    private final Object pendingEntryRowsKey = new Object();
+
+    @Value("${app.change-log.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    public void record(Long userId, ChangeEntityType type, Object key, ChangeOperation operation) {
+        changeLogRepository.append(userId, type.name(), key.toString(), operation.name());
+    }
+
+    public void recordUpsert(Long userId, ChangeEntityType type, Object key) {
+        record(userId, type, key, ChangeOperation.UPSERT);
+    }
+
+    public void recordOverview(Long userId, YearMonth yearMonth) {
+        recordUpsert(userId, ChangeEntityType.OVERVIEW, yearMonth);
+    }
+
+    /**
+     * Logs entries and rules of a category as changed, before they are reassigned in bulk.
+     */
+    public void recordCategoryContents(Long userId, Long categoryId) {
+        changeLogRepository.appendEntriesOfCategory(userId, categoryId);
+        changeLogRepository.appendRulesOfCategory(userId, categoryId);
+    }
+
+    /**
+     * Logs a category and all its descendants as changed, e.g. after their levels moved.
+     */
+    public void recordCategorySubtree(Long userId, Long categoryId) {
+        changeLogRepository.appendCategorySubtree(userId, categoryId);
+    }
+
+    /**
+     * Runs synchronously inside the writing transaction (unlike the after-commit cache
+     * listeners), so the log rows commit or roll back together with the entries. Rows are
+     * collected per transaction and written in one JDBC batch just before commit, so bulk
+     * entry writes cost one round trip here.
+     */
+    @EventListener
+    public void onEntryChanged(EntryChangedEvent event) {
+        Object[] row = event.after() == null
+                ? new Object[]{event.userId(), ChangeEntityType.ENTRY.name(), event.before().id().toString(), ChangeOperation.DELETE.name()}
+                : new Object[]{event.userId(), ChangeEntityType.ENTRY.name(), event.after().id().toString(), ChangeOperation.UPSERT.name()};
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.batchUpdate(APPEND_SQL, List.<Object[]>of(row));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> pending = (List<Object[]>) TransactionSynchronizationManager.getResource(pendingEntryRowsKey);
+        if (pending == null) {
+            List<Object[]> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingEntryRowsKey, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(APPEND_SQL, rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingEntryRowsKey);
+                }
+            });
+            pending = rows;
+        }
+        pending.add(row);
+    }
+
+    @Scheduled(fixedDelayString = "${app.change-log.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        int superseded = changeLogRepository.deleteSuperseded();
+        int users = changeLogRepository.deleteTombstonesBefore(
+                OffsetDateTime.now().minusDays(tombstoneRetentionDays));
+        if (superseded > 0 || users > 0) {
+            log.info("Compacted change log: {} superseded rows removed, expired tombstones removed for {} users",
+                    superseded, users);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Daily net amounts (income minus expenses, in cents) of one user, per currency, over a fixed
+ * window of days. Each currency is a Fenwick tree, so adding an entry and summing any range of
+ * days are both O(log n) and never touch the database.
+ *
+ * Writes outside the window are rejected; the caller drops the index and rebuilds it with a
+ * wider window.
+ */
+public final class DailyNetIndex {
+
+    public record DailyNet(CurrencyCode currency, LocalDate date, long cents) {
+    }
+
+    private final long firstDay;
+    private final int size;
+
+    /**
+     * One 1-based Fenwick tree per currency ordinal, null for currencies without entries.
+     */
+    private final long[][] trees = new long[CurrencyCode.values().length][];
+
+    private DailyNetIndex(LocalDate first, LocalDate last) {
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("Window end " + last + " is before its start " + first);
+        }
+        this.firstDay = first.toEpochDay();
+        this.size = Math.toIntExact(last.toEpochDay() - firstDay + 1);
+    }
+
+    /**
+     * Builds the index in linear time from per-day net rows (at most one row per currency and day
+     * is expected, but duplicates are summed). Rows outside [first, last] are rejected.
+     */
+    public static DailyNetIndex of(LocalDate first, LocalDate last, Collection<DailyNet> rows) {
+        DailyNetIndex index = new DailyNetIndex(first, last);
+        for (DailyNet row : rows) {
+            int position = index.position(row.date());
+            if (position < 0) {
+                throw new IllegalArgumentException("Day " + row.date() + " is outside the index window");
+            }
+            index.treeFor(row.currency())[position + 1] += row.cents();
+        }
+        for (long[] tree : index.trees) {
+            if (tree == null) {
+                continue;
+            }
+            // Turn raw per-day values into Fenwick partial sums
+            for (int i = 1; i <= index.size; i++) {
+                int parent = i + (i & -i);
+                if (parent <= index.size) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+        return index;
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    public LocalDate getLastDay() {
+        return LocalDate.ofEpochDay(firstDay + size - 1);
+    }
+
+    /**
+     * Adds a signed amount to one day.
+     *
+     * @return false if the day lies outside the window (nothing was changed)
+     */
+    public synchronized boolean add(CurrencyCode currency, LocalDate date, long cents) {
+        int position = position(date);
+        if (position < 0) {
+            return false;
+        }
+        long[] tree = treeFor(currency);
+        for (int i = position + 1; i <= size; i += i & -i) {
+            tree[i] += cents;
+        }
+        return true;
+    }
+
+    /**
+     * Sum of all days up to and including {@code date}. Days after the window count as its last day.
+     */
+    public synchronized long sumThrough(CurrencyCode currency, LocalDate date) {
+        long[] tree = trees[currency.ordinal()];
+        long offset = date.toEpochDay() - firstDay;
+        if (tree == null || offset < 0) {
+            return 0L;
+        }
+        long sum = 0L;
+        for (int i = (int) Math.min(offset + 1, size); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of the days in [from, to], both inclusive.
+     */
+    public synchronized long sumBetween(CurrencyCode currency, LocalDate from, LocalDate to) {
+        return sumThrough(currency, to) - sumThrough(currency, from.minusDays(1));
+    }
+
+    /**
+     * Currencies that have had at least one entry in the window.
+     */
+    public synchronized Set<CurrencyCode> currencies() {
+        Set<CurrencyCode> present = EnumSet.noneOf(CurrencyCode.class);
+        for (CurrencyCode currency : CurrencyCode.values()) {
+            if (trees[currency.ordinal()] != null) {
+                present.add(currency);
+            }
+        }
+        return present;
+    }
+
+    /**
+     * Approximate heap footprint of the trees, for memory budgets.
+     */
+    public synchronized long estimatedBytes() {
+        long bytes = 0;
+        for (long[] tree : trees) {
+            if (tree != null) {
+                bytes += 16L + 8L * tree.length;
+            }
+        }
+        return bytes;
+    }
+
+    private int position(LocalDate date) {
+        long offset = date.toEpochDay() - firstDay;
+        return offset >= 0 && offset < size ? (int) offset : -1;
+    }
+
+    private long[] treeFor(CurrencyCode currency) {
+        long[] tree = trees[currency.ordinal()];
+        if (tree == null) {
+            tree = new long[size + 1];
+            trees[currency.ordinal()] = tree;
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.financeapp.service;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing data versions used as ETags, so unchanged GETs can be answered
+ * with 304 before any query runs.
+ *
+ * Versions are kept in memory and drawn from one clock seeded with the startup time, so a
+ * version handed out before a restart never matches one handed out after it. Every version
+ * not bumped since startup equals the startup version.
+ *
+ * Bumps happen after commit and after the cached reports they cover have been invalidated: the
+ * entry listener is ordered after the cache listeners, and the other bumps run on completion,
+ * after every plain after-commit action. A report cached under a new version has therefore been
+ * computed after the invalidation, from committed data.
+ */
+@Service
+public class DataVersionService {
+
+    private record MonthKey(Long userId, YearMonth month) {
+    }
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final long startupVersion = clock.get();
+
+    /** Any change of the user's data. */
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+    /** Entries or the overview of one month changed. */
+    private final Map<MonthKey, Long> monthVersions = new ConcurrentHashMap<>();
+    /** Categories or recurring rules changed (names and groupings shown in every month). */
+    private final Map<Long, Long> referenceVersions = new ConcurrentHashMap<>();
+    /** Data shared by all users changed (exchange rates). */
+    private volatile long globalVersion = startupVersion;
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    // ==================== ETags ====================
+
+    /**
+     * ETag for entry listings: changes with any write of the user.
+     */
+    public String entriesETag() {
+        return "e-" + userVersion(getCurrentUserId());
+    }
+
+    /**
+     * ETag for month-scoped reports: changes with writes to that month, category or rule
+     * changes, and exchange rate changes.
+     */
+    public String monthETag(YearMonth month) {
+        Long userId = getCurrentUserId();
+        long monthVersion = monthVersions.getOrDefault(new MonthKey(userId, month), startupVersion);
+        long referenceVersion = referenceVersions.getOrDefault(userId, startupVersion);
+        return "m-" + monthVersion + "-" + referenceVersion + "-" + globalVersion;
+    }
+
+    /**
+     * ETag for recurring rules. Includes today's date because next scheduled dates move with it.
+     */
+    public String rulesETag() {
+        return "r-" + userVersion(getCurrentUserId()) + "-" + LocalDate.now();
+    }
+
+    private long userVersion(Long userId) {
+        return userVersions.getOrDefault(userId, startupVersion);
+    }
+
+    // ==================== Bumps ====================
+
+    /**
+     * Ordered after {@link MonthReportCache#onEntryChanged} and the other cache listeners.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onEntryChanged(EntryChangedEvent event) {
+        long version = clock.incrementAndGet();
+        for (YearMonth month : event.affectedMonths()) {
+            monthVersions.put(new MonthKey(event.userId(), month), version);
+        }
+        userVersions.put(event.userId(), version);
+    }
+
+    /**
+     * Bumps the month (and the user) once the current transaction commits, e.g. after an overview change.
+     */
+    public void bumpMonthAfterCommit(Long userId, YearMonth month) {
+        AfterCommit.runLast(() -> {
+            long version = clock.incrementAndGet();
+            monthVersions.put(new MonthKey(userId, month), version);
+            userVersions.put(userId, version);
+        });
+    }
+
+    /**
+     * Bumps the user's reference data version (and the user) once the current transaction commits.
+     * Used by category and recurring rule writes, which can change every month's reports.
+     */
+    public void bumpReferenceAfterCommit(Long userId) {
+        AfterCommit.runLast(() -> {
+            long version = clock.incrementAndGet();
+            referenceVersions.put(userId, version);
+            userVersions.put(userId, version);
+        });
+    }
+
+    public void bumpGlobal() {
+        globalVersion = clock.incrementAndGet();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.financeapp.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Published after every entry create, update or delete, from every write path
+ * (manual writes and entries generated or rewritten by recurring rules).
+ *
+ * @param before the entry before the write, or null for a create
+ * @param after  the entry after the write, or null for a delete
+ */
+public record EntryChangedEvent(EntrySnapshot before, EntrySnapshot after) {
+
+    public Long userId() {
+        return after != null ? after.userId() : before.userId();
+    }
+
+    /**
+     * Months whose data this write touched (one, or two when the date moved across months).
+     */
+    public List<YearMonth> affectedMonths() {
+        if (before == null) {
+            return List.of(after.yearMonth());
+        }
+        if (after == null || before.yearMonth().equals(after.yearMonth())) {
+            return List.of(before.yearMonth());
+        }
+        return List.of(before.yearMonth(), after.yearMonth());
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar copy of one user's entries for reports: parallel primitive arrays of epoch day,
+ * amount in cents, category index, currency ordinal and expense bit, one row per entry.
+ *
+ * Rows are kept sorted by day, so any date range is one contiguous slice found by binary
+ * search. Category ids are dictionary-encoded into dense indexes, which lets aggregations sum
+ * into plain long[] slots. Slices of at least {@link #PARALLEL_THRESHOLD} rows are summed on
+ * the common fork/join pool.
+ *
+ * All methods are synchronized; scan callbacks run while the lock is held and may read rows
+ * through the accessors ({@link #day}, {@link #cents}, ...).
+ */
+public final class EntryColumns {
+
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Bytes per row over all columns (id, day, cents, category, currency, expense).
+     */
+    private static final int BYTES_PER_ROW = 8 + 4 + 8 + 4 + 1 + 1;
+
+    /**
+     * Rough cost of one dictionary entry (boxed key and value plus the map node).
+     */
+    private static final int BYTES_PER_CATEGORY = 64;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private int[] categories = new int[INITIAL_CAPACITY];
+    private byte[] currencies = new byte[INITIAL_CAPACITY];
+    private boolean[] expense = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    private long[] categoryIds = new long[16];
+    private int categoryCount;
+    private final Map<Long, Integer> categoryIndexes = new HashMap<>();
+
+    // ==================== Writes ====================
+
+    /**
+     * Adds a row after all rows of the same or an earlier day. Appending rows in day order
+     * (as the initial load does) never shifts anything.
+     */
+    public synchronized void add(long id, LocalDate date, long amountCents, Long categoryId,
+                                 CurrencyCode currency, boolean isExpense) {
+        int day = Math.toIntExact(date.toEpochDay());
+        int position = size > 0 && days[size - 1] > day ? upperBound(day) : size;
+        ensureCapacity(size + 1);
+        if (position < size) {
+            shift(position, position + 1, size - position);
+        }
+        set(position, id, day, amountCents, categoryIndexFor(categoryId), currency, isExpense);
+        size++;
+    }
+
+    /**
+     * Removes the row of an entry, looked up among the rows of its day.
+     *
+     * @return false if no such row exists (the columns no longer match the database)
+     */
+    public synchronized boolean remove(long id, LocalDate date) {
+        int day = Math.toIntExact(date.toEpochDay());
+        for (int i = lowerBound(day); i < size && days[i] == day; i++) {
+            if (ids[i] == id) {
+                shift(i + 1, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== Scans ====================
+
+    /**
+     * Runs a reader while holding the lock, so several scans see the same rows and
+     * {@link #categoryCount()} stays valid for slot arrays sized from it.
+     */
+    public synchronized <T> T read(Function<EntryColumns, T> reader) {
+        return reader.apply(this);
+    }
+
+    /**
+     * Sums cents per slot over the rows dated within [from, to]. {@code slotOf} maps a row
+     * to its slot in [0, slots), or to -1 to skip the row; it may run on several threads.
+     */
+    public synchronized long[] sum(LocalDate from, LocalDate to, int slots, IntUnaryOperator slotOf) {
+        int start = lowerBound(Math.toIntExact(from.toEpochDay()));
+        int end = upperBound(Math.toIntExact(to.toEpochDay()));
+        long[] amounts = cents;
+        if (end - start < PARALLEL_THRESHOLD) {
+            long[] totals = new long[slots];
+            for (int i = start; i < end; i++) {
+                int slot = slotOf.applyAsInt(i);
+                if (slot >= 0) {
+                    totals[slot] += amounts[i];
+                }
+            }
+            return totals;
+        }
+        // Fork/join split of the slice; each task sums into its own slots, merged pairwise
+        return IntStream.range(start, end).parallel().collect(
+                () -> new long[slots],
+                (totals, i) -> {
+                    int slot = slotOf.applyAsInt(i);
+                    if (slot >= 0) {
+                        totals[slot] += amounts[i];
+                    }
+                },
+                (left, right) -> {
+                    for (int s = 0; s < slots; s++) {
+                        left[s] += right[s];
+                    }
+                });
+    }
+
+    /**
+     * Visits the rows dated within [from, to] in day order, on the calling thread.
+     */
+    public synchronized void forEach(LocalDate from, LocalDate to, IntConsumer row) {
+        int start = lowerBound(Math.toIntExact(from.toEpochDay()));
+        int end = upperBound(Math.toIntExact(to.toEpochDay()));
+        for (int i = start; i < end; i++) {
+            row.accept(i);
+        }
+    }
+
+    // ==================== Row accessors ====================
+
+    public int day(int row) {
+        return days[row];
+    }
+
+    public long cents(int row) {
+        return cents[row];
+    }
+
+    public int categoryIndex(int row) {
+        return categories[row];
+    }
+
+    public int currencyOrdinal(int row) {
+        return currencies[row];
+    }
+
+    public boolean isExpense(int row) {
+        return expense[row];
+    }
+
+    // ==================== Category dictionary ====================
+
+    public synchronized int categoryCount() {
+        return categoryCount;
+    }
+
+    public synchronized long categoryId(int index) {
+        return categoryIds[index];
+    }
+
+    /**
+     * Index of a category id, or -1 if no row has ever used it.
+     */
+    public synchronized int categoryIndexOf(Long categoryId) {
+        Integer index = categoryIndexes.get(categoryId);
+        return index != null ? index : -1;
+    }
+
+    // ==================== Sizing ====================
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap footprint, counting allocated (not only used) capacity.
+     */
+    public synchronized long estimatedBytes() {
+        return (long) ids.length * BYTES_PER_ROW + (long) categoryIds.length * 8
+                + (long) categoryIndexes.size() * BYTES_PER_CATEGORY;
+    }
+
+    // ==================== Internals ====================
+
+    /**
+     * First row whose day is on or after the given day.
+     */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First row whose day is after the given day.
+     */
+    private int upperBound(int day) {
+        return day == Integer.MAX_VALUE ? size : lowerBound(day + 1);
+    }
+
+    private int categoryIndexFor(Long categoryId) {
+        Integer existing = categoryIndexes.get(categoryId);
+        if (existing != null) {
+            return existing;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categoryIndexes.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+
+    private void set(int row, long id, int day, long amountCents, int categoryIndex,
+                     CurrencyCode currency, boolean isExpense) {
+        ids[row] = id;
+        days[row] = day;
+        cents[row] = amountCents;
+        categories[row] = categoryIndex;
+        currencies[row] = (byte) currency.ordinal();
+        expense[row] = isExpense;
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(cents, from, cents, to, length);
+        System.arraycopy(categories, from, categories, to, length);
+        System.arraycopy(currencies, from, currencies, to, length);
+        System.arraycopy(expense, from, expense, to, length);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        expense = Arrays.copyOf(expense, capacity);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.repository.EntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Per-user {@link EntryColumns} that reports scan instead of querying entries.
+ *
+ * Columns are built from one streaming query on first use and patched after every committed
+ * entry write. Users are kept in LRU order; when the columns of all cached users together
+ * exceed the memory budget, the least recently used users are dropped (the current one is
+ * always kept) and rebuilt on their next report.
+ *
+ * The entry listener runs before the other after-commit listeners, in particular before
+ * {@link MonthReportCache} drops the affected months, so a report computed after that
+ * invalidation already sees the patched columns.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntryColumnsCache {
+
+    private final EntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntryWriteTracker entryWriteTracker;
+
+    @Value("${app.report-columns.max-bytes:67108864}")
+    private long maxBytes;
+
+    private final Map<Long, EntryColumns> columnsByUser = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Bumped on every eviction; columns built while it moved may predate a bulk write and are
+     * used for that one request only instead of being cached.
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EntryColumns get(Long userId) {
+        synchronized (columnsByUser) {
+            EntryColumns cached = columnsByUser.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Columns that may already contain a write whose listener has yet to patch them
+        // serve this request only
+        long evicted = evictions.get();
+        long token = entryWriteTracker.beforeBuild(userId);
+        EntryColumns built = build(userId);
+        synchronized (columnsByUser) {
+            if (evictions.get() != evicted || !entryWriteTracker.mayCache(userId, token)) {
+                return built;
+            }
+            EntryColumns existing = columnsByUser.putIfAbsent(userId, built);
+            if (existing != null) {
+                return existing;
+            }
+            trimToBudget(userId);
+            return built;
+        }
+    }
+
+    /**
+     * Drops a user's columns once the current transaction commits (immediately when there is
+     * none). Used for bulk writes that publish no entry events, such as merging categories.
+     */
+    public void evictAfterCommit(Long userId) {
+        AfterCommit.run(() -> evict(userId));
+    }
+
+    /**
+     * Moves the changed entry's row. A row that cannot be found means the columns missed a
+     * write; they are dropped and rebuilt on the next report, and so are columns that may
+     * already contain the change (see {@link EntryWriteTracker#isTracked}).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntryChanged(EntryChangedEvent event) {
+        Long userId = event.userId();
+        EntryColumns columns;
+        synchronized (columnsByUser) {
+            columns = columnsByUser.get(userId);
+        }
+        if (columns == null) {
+            return;
+        }
+        if (!entryWriteTracker.isTracked(event)) {
+            evict(userId);
+            return;
+        }
+        EntrySnapshot before = event.before();
+        EntrySnapshot after = event.after();
+        // Holding the columns' lock makes the move atomic for concurrent scans; the map lock
+        // is only taken after releasing it (trimming locks the map, then each columns)
+        boolean missed;
+        synchronized (columns) {
+            missed = before != null && !columns.remove(before.id(), before.date());
+            if (!missed && after != null) {
+                columns.add(after.id(), after.date(), toCents(after.amount()), after.categoryId(),
+                        after.currency(), after.isExpense());
+            }
+        }
+        if (missed) {
+            evict(userId);
+        } else if (before == null) {
+            synchronized (columnsByUser) {
+                trimToBudget(userId);
+            }
+        }
+    }
+
+    private void evict(Long userId) {
+        evictions.incrementAndGet();
+        synchronized (columnsByUser) {
+            columnsByUser.remove(userId);
+        }
+    }
+
+    private EntryColumns build(Long userId) {
+        EntryColumns columns = new EntryColumns();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = entryRepository.streamColumns(userId)) {
+                rows.forEach(row -> columns.add(
+                        (Long) row[0],
+                        (LocalDate) row[1],
+                        toCents((BigDecimal) row[2]),
+                        (Long) row[3],
+                        (CurrencyCode) row[4],
+                        row[5] == EntryType.EXPENSE));
+            }
+        });
+        log.debug("Built report columns for user {} ({} rows, ~{} bytes)",
+                userId, columns.size(), columns.estimatedBytes());
+        return columns;
+    }
+
+    /**
+     * Drops least recently used users until the budget is met. Caller holds the map lock.
+     */
+    private void trimToBudget(Long keepUserId) {
+        long total = 0;
+        for (EntryColumns columns : columnsByUser.values()) {
+            total += columns.estimatedBytes();
+        }
+        Iterator<Map.Entry<Long, EntryColumns>> eldestFirst = columnsByUser.entrySet().iterator();
+        while (total > maxBytes && eldestFirst.hasNext()) {
+            Map.Entry<Long, EntryColumns> eldest = eldestFirst.next();
+            if (eldest.getKey().equals(keepUserId)) {
+                continue;
+            }
+            total -= eldest.getValue().estimatedBytes();
+            eldestFirst.remove();
+            log.debug("Evicted report columns of user {} (budget {} bytes)", eldest.getKey(), maxBytes);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -1,92 +1,218 @@
 package com.example.financeapp.service;
 
 import com.example.financeapp.dto.CreateEntryRequestDto;
+import com.example.financeapp.dto.EntryBatchOperationDto;
+import com.example.financeapp.dto.EntryBatchResponseDto;
+import com.example.financeapp.dto.EntryBatchResultDto;
 import com.example.financeapp.dto.EntryResponseDto;
+import com.example.financeapp.dto.EntrySearchResponseDto;
 import com.example.financeapp.dto.UpdateEntryRequestDto;
-import com.example.financeapp.entity.Category;
 import com.example.financeapp.entity.CurrencyCode;
 import com.example.financeapp.entity.Entry;
-import com.example.financeapp.entity.User;
 import com.example.financeapp.exception.ResourceNotFoundException;
 import com.example.financeapp.repository.CategoryRepository;
 import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.EntrySearchCriteria;
+import com.example.financeapp.repository.EntrySpecifications;
 import com.example.financeapp.repository.RecurringInstanceRepository;
 import com.example.financeapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EntryService {
 
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO entries (user_id, category_id, type, amount, currency, date, note, category_auto_assigned, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String NO_CATEGORY_MESSAGE =
+            "Category ID is required when no categorization rule matches the note";
+
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     private final EntryRepository entryRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final RecurringInstanceRepository recurringInstanceRepository;
+    private final BudgetService budgetService;
+    private final ReferenceDataCache referenceDataCache;
+    private final CategoryUsageTracker categoryUsageTracker;
+    private final CategorizationService categorizationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     private Long getCurrentUserId() {
         return 1L;
     }
 
     /**
-     * Returns entries for the current user within the specified date range, ordered by date descending (newest first).
-     * Optional filters for category and currency are applied while preserving the date order.
+     * Returns entries for the current user matching the criteria, ordered by date descending (newest first),
+     * with id descending as tie-breaker. The query contains only the filters that are set.
      */
-    public List<EntryResponseDto> getEntries(LocalDate from, LocalDate to, Optional<Long> categoryId, Optional<CurrencyCode> currency) {
+    public List<EntryResponseDto> getEntries(EntrySearchCriteria criteria) {
+        if (criteria.from().isAfter(criteria.to())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (criteria.minAmount() != null && criteria.maxAmount() != null
+                && criteria.minAmount().compareTo(criteria.maxAmount()) > 0) {
+            throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+        }
         Long userId = getCurrentUserId();
-        
-        // Fetch entries ordered by date descending (newest first)
-        List<Entry> entries = entryRepository.findByUserIdAndDateBetweenAndOptionalFilters(
-                userId, from, to, categoryId.orElse(null), currency.orElse(null)
-        );
-        
-        // Entries are already sorted by date DESC, id DESC from the repository query
+
+        List<Entry> entries = entryRepository.findAll(
+                EntrySpecifications.matching(userId, criteria),
+                Sort.by(Sort.Direction.DESC, "date", "id"));
+
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
         return entries.stream()
-                .map(this::mapToDto)
+                .map(entry -> mapToDto(entry, refs))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Searches entry notes (and the names of the rules that generated entries) for a word,
+     * substring or similar spelling, best match first, one page at a time.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public EntrySearchResponseDto searchEntries(String q, String cursor, int limit) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        Long userId = getCurrentUserId();
+        String text = q.trim().toLowerCase(Locale.ROOT);
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+
+        // One extra row tells whether there is a next page
+        List<Object[]> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = entryRepository.searchNotes(userId, text, pattern, limit + 1);
+        } else {
+            SearchCursor after = SearchCursor.decode(cursor);
+            rows = entryRepository.searchNotesAfter(userId, text, pattern, after.score(), after.id(), limit + 1);
+        }
+        boolean hasMore = rows.size() > limit;
+        List<Object[]> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Long> ids = page.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, Entry> entries = ids.isEmpty() ? Map.of()
+                : entryRepository.findByUserIdAndIdIn(userId, ids).stream()
+                        .collect(Collectors.toMap(Entry::getId, Function.identity()));
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+
+        Object[] last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return EntrySearchResponseDto.builder()
+                .entries(ids.stream()
+                        .map(entries::get)
+                        .filter(Objects::nonNull)
+                        .map(entry -> mapToDto(entry, refs))
+                        .toList())
+                .nextCursor(hasMore
+                        ? new SearchCursor(((Number) last[1]).doubleValue(), ((Number) last[0]).longValue()).encode()
+                        : null)
+                .build();
+    }
+
+    /**
+     * Position after the last search result of a page: its score and id.
+     */
+    private record SearchCursor(double score, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((score + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                return new SearchCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
     public EntryResponseDto getEntry(Long id) {
         Long userId = getCurrentUserId();
         Entry entry = entryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
-        return mapToDto(entry);
+        return mapToDto(entry, referenceDataCache.get(userId));
+    }
+
+    /**
+     * Entries of the current user with the given ids, in no particular order; unknown ids are skipped.
+     */
+    public List<EntryResponseDto> getEntriesByIds(Collection<Long> ids) {
+        Long userId = getCurrentUserId();
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        return entryRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .map(entry -> mapToDto(entry, refs))
+                .collect(Collectors.toList());
     }
 
     @Transactional
     public EntryResponseDto createEntry(CreateEntryRequestDto dto) {
         Long userId = getCurrentUserId();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-
-        if (!category.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("Category not found");
-        }
-
-        if (category.isArchived()) {
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        Long categoryId = dto.getCategoryId() != null ? dto.getCategoryId()
+                : categorizationService.categorize(userId, dto.getNote(), refs)
+                        .orElseThrow(() -> new IllegalArgumentException(NO_CATEGORY_MESSAGE));
+        ReferenceDataSnapshot.CategoryRef category = refs.requireCategory(categoryId);
+        if (category.archived()) {
             throw new IllegalArgumentException("Cannot create entry for archived category");
         }
 
         Entry entry = new Entry();
-        entry.setUser(user);
-        entry.setCategory(category);
+        entry.setUser(userRepository.getReferenceById(userId));
+        entry.setCategory(categoryRepository.getReferenceById(category.id()));
         entry.setType(dto.getType());
         entry.setAmount(dto.getAmount());
         entry.setCurrency(dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD);
         entry.setDate(dto.getDate());
         entry.setNote(dto.getNote());
+        entry.setCategoryAutoAssigned(dto.getCategoryId() == null);
 
         Entry saved = entryRepository.save(entry);
-        return mapToDto(saved);
+        boolean overBudget = recordChange(null, EntrySnapshot.of(saved));
+        categoryUsageTracker.recordUseAfterCommit(category.id());
+
+        EntryResponseDto response = mapToDto(saved, refs);
+        response.setOverBudget(overBudget);
+        return response;
     }
 
     @Transactional
@@ -95,29 +221,36 @@ public class EntryService {
         Entry entry = entryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entry not found"));
 
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-
-        if (!category.getUser().getId().equals(userId)) {
-            throw new ResourceNotFoundException("Category not found");
-        }
-
-        if (category.isArchived()) {
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        ReferenceDataSnapshot.CategoryRef category = refs.requireCategory(dto.getCategoryId());
+        if (category.archived()) {
             throw new IllegalArgumentException("Cannot update entry to archived category");
         }
 
-        entry.setCategory(category);
+        EntrySnapshot before = EntrySnapshot.of(entry);
+
+        entry.setCategory(categoryRepository.getReferenceById(category.id()));
         entry.setType(dto.getType());
         entry.setAmount(dto.getAmount());
         entry.setCurrency(dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD);
         entry.setDate(dto.getDate());
         entry.setNote(dto.getNote());
+        if (!category.id().equals(before.categoryId())) {
+            entry.setCategoryAutoAssigned(false);
+        }
 
         // Mark as manually overridden if this was a generated entry
         markAsManualOverrideIfGenerated(entry);
 
         Entry updated = entryRepository.save(entry);
-        return mapToDto(updated);
+        boolean overBudget = recordChange(before, EntrySnapshot.of(updated));
+        if (!category.id().equals(before.categoryId())) {
+            categoryUsageTracker.recordUseAfterCommit(category.id());
+        }
+
+        EntryResponseDto response = mapToDto(updated, refs);
+        response.setOverBudget(overBudget);
+        return response;
     }
 
     @Transactional
@@ -131,15 +264,256 @@ public class EntryService {
         recurringInstanceRepository.findByTransactionId(id)
                 .ifPresent(recurringInstanceRepository::delete);
 
+        recordChange(EntrySnapshot.of(entry), null);
         entryRepository.delete(entry);
     }
 
-    private EntryResponseDto mapToDto(Entry entry) {
+    /**
+     * Applies a batch of queued writes (e.g. replayed by an offline client) in one transaction.
+     * Every operation is validated first against one reference snapshot and one read of the
+     * referenced entries; if any is invalid, nothing is written. Creates are inserted with one
+     * JDBC batch, updates are flushed as a Hibernate batch, deletes run as bulk statements and
+     * each budget counter is updated once.
+     */
+    @Transactional
+    public EntryBatchResponseDto applyBatch(List<EntryBatchOperationDto> operations) {
+        Long userId = getCurrentUserId();
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+
+        Set<Long> referencedIds = operations.stream()
+                .map(EntryBatchOperationDto::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Entry> existing = referencedIds.isEmpty() ? Map.of()
+                : entryRepository.findByUserIdAndIdIn(userId, referencedIds).stream()
+                        .collect(Collectors.toMap(Entry::getId, Function.identity()));
+
+        List<String> errors = new ArrayList<>(operations.size());
+        Set<Long> seenIds = new HashSet<>();
+        Set<EntryBatchOperationDto> autoCategorized = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (EntryBatchOperationDto op : operations) {
+            if (op.getOp() == EntryBatchOperationDto.Operation.CREATE && op.getCategoryId() == null) {
+                categorizationService.categorize(userId, op.getNote(), refs).ifPresent(categoryId -> {
+                    op.setCategoryId(categoryId);
+                    autoCategorized.add(op);
+                });
+            }
+            errors.add(validateBatchOperation(op, refs, existing, seenIds));
+        }
+        if (errors.stream().anyMatch(Objects::nonNull)) {
+            List<EntryBatchResultDto> results = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(EntryBatchResultDto.builder()
+                        .index(i)
+                        .op(operations.get(i).getOp())
+                        .id(operations.get(i).getId())
+                        .error(errors.get(i))
+                        .build());
+            }
+            return EntryBatchResponseDto.builder().applied(false).results(results).build();
+        }
+
+        Entry[] written = new Entry[operations.size()];
+        EntryChangedEvent[] changes = new EntryChangedEvent[operations.size()];
+
+        List<Entry> created = new ArrayList<>();
+        List<Long> generatedUpdated = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            EntryBatchOperationDto op = operations.get(i);
+            switch (op.getOp()) {
+                case CREATE -> {
+                    Entry entry = new Entry();
+                    entry.setUser(userRepository.getReferenceById(userId));
+                    applyBatchFields(entry, op);
+                    entry.setCategoryAutoAssigned(autoCategorized.contains(op));
+                    created.add(entry);
+                    written[i] = entry;
+                }
+                case UPDATE -> {
+                    Entry entry = existing.get(op.getId());
+                    EntrySnapshot before = EntrySnapshot.of(entry);
+                    applyBatchFields(entry, op);
+                    if (!op.getCategoryId().equals(before.categoryId())) {
+                        entry.setCategoryAutoAssigned(false);
+                    }
+                    if (entry.getRecurringRule() != null) {
+                        generatedUpdated.add(entry.getId());
+                    }
+                    written[i] = entry;
+                    changes[i] = new EntryChangedEvent(before, EntrySnapshot.of(entry));
+                }
+                case DELETE -> {
+                    deletedIds.add(op.getId());
+                    changes[i] = new EntryChangedEvent(EntrySnapshot.of(existing.get(op.getId())), null);
+                }
+            }
+        }
+
+        insertAll(created);
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i).getOp() == EntryBatchOperationDto.Operation.CREATE) {
+                changes[i] = new EntryChangedEvent(null, EntrySnapshot.of(written[i]));
+            }
+        }
+        // Each flushes the pending updates first, as one JDBC batch
+        if (!generatedUpdated.isEmpty()) {
+            recurringInstanceRepository.markManualOverrideByTransactionIdIn(generatedUpdated);
+        }
+        if (!deletedIds.isEmpty()) {
+            recurringInstanceRepository.deleteByTransactionIdIn(deletedIds);
+            entryRepository.deleteByUserIdAndIdIn(userId, deletedIds);
+        }
+
+        List<EntryChangedEvent> changeList = Arrays.asList(changes);
+        Set<Long> overBudget = budgetService.applyEntryChanges(changeList);
+        List<EntryBatchResultDto> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            EntryChangedEvent change = changes[i];
+            eventPublisher.publishEvent(change);
+            if (change.after() != null
+                    && (change.before() == null || !change.after().categoryId().equals(change.before().categoryId()))) {
+                categoryUsageTracker.recordUseAfterCommit(change.after().categoryId());
+            }
+
+            EntryResponseDto entry = null;
+            if (written[i] != null) {
+                entry = mapToDto(written[i], refs);
+                entry.setOverBudget(overBudget.contains(written[i].getId()));
+            }
+            results.add(EntryBatchResultDto.builder()
+                    .index(i)
+                    .op(operations.get(i).getOp())
+                    .id(change.after() != null ? change.after().id() : change.before().id())
+                    .entry(entry)
+                    .build());
+        }
+        return EntryBatchResponseDto.builder().applied(true).results(results).build();
+    }
+
+    /**
+     * @return why the operation cannot be applied, or null if it can
+     */
+    private String validateBatchOperation(EntryBatchOperationDto op, ReferenceDataSnapshot refs,
+                                          Map<Long, Entry> existing, Set<Long> seenIds) {
+        if (op.getOp() == EntryBatchOperationDto.Operation.CREATE) {
+            if (op.getId() != null) {
+                return "Entry ID must not be set for CREATE";
+            }
+        } else {
+            if (op.getId() == null) {
+                return "Entry ID is required";
+            }
+            if (!seenIds.add(op.getId())) {
+                return "Entry is already changed by an earlier operation in this batch";
+            }
+            if (!existing.containsKey(op.getId())) {
+                return "Entry not found";
+            }
+            if (op.getOp() == EntryBatchOperationDto.Operation.DELETE) {
+                return null;
+            }
+        }
+
+        if (op.getCategoryId() == null) {
+            return op.getOp() == EntryBatchOperationDto.Operation.CREATE ? NO_CATEGORY_MESSAGE : "Category ID is required";
+        }
+        if (op.getType() == null) {
+            return "Entry type is required";
+        }
+        if (op.getAmount() == null) {
+            return "Amount is required";
+        }
+        if (op.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (op.getDate() == null) {
+            return "Date is required";
+        }
+        Optional<ReferenceDataSnapshot.CategoryRef> category = refs.category(op.getCategoryId());
+        if (category.isEmpty()) {
+            return "Category not found";
+        }
+        if (category.get().archived()) {
+            return "Cannot use archived category";
+        }
+        return null;
+    }
+
+    private void applyBatchFields(Entry entry, EntryBatchOperationDto op) {
+        entry.setCategory(categoryRepository.getReferenceById(op.getCategoryId()));
+        entry.setType(op.getType());
+        entry.setAmount(op.getAmount());
+        entry.setCurrency(op.getCurrency() != null ? op.getCurrency() : CurrencyCode.RSD);
+        entry.setDate(op.getDate());
+        entry.setNote(op.getNote());
+    }
+
+    /**
+     * Inserts new entries with one JDBC batch and sets their generated ids (and timestamps).
+     */
+    private void insertAll(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ENTRY_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Entry entry = entries.get(i);
+                        ps.setLong(1, entry.getUser().getId());
+                        ps.setLong(2, entry.getCategory().getId());
+                        ps.setString(3, entry.getType().name());
+                        ps.setBigDecimal(4, entry.getAmount());
+                        ps.setString(5, entry.getCurrency().name());
+                        ps.setObject(6, entry.getDate());
+                        ps.setString(7, entry.getNote());
+                        ps.setBoolean(8, entry.isCategoryAutoAssigned());
+                        ps.setObject(9, now);
+                        ps.setObject(10, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            entry.setId(((Number) generated.get(i).get("id")).longValue());
+            entry.setCreatedAt(now);
+            entry.setUpdatedAt(now);
+        }
+    }
+
+    /**
+     * Updates budget counters for an entry write and notifies listeners (report caches, ...).
+     *
+     * @return whether the entry's category is over budget after the write
+     */
+    private boolean recordChange(EntrySnapshot before, EntrySnapshot after) {
+        boolean overBudget = budgetService.applyEntryChange(before, after);
+        eventPublisher.publishEvent(new EntryChangedEvent(before, after));
+        return overBudget;
+    }
+
+    /**
+     * Names come from the reference snapshot, so mapping never initializes the lazy
+     * category or rule of an entry (falls back to the entity for rules no longer active).
+     */
+    private EntryResponseDto mapToDto(Entry entry, ReferenceDataSnapshot refs) {
+        Long categoryId = entry.getCategory().getId();
+        ReferenceDataSnapshot.CategoryRef category = refs.category(categoryId).orElse(null);
         EntryResponseDto.EntryResponseDtoBuilder builder = EntryResponseDto.builder()
                 .id(entry.getId())
-                .categoryId(entry.getCategory().getId())
-                .categoryName(entry.getCategory().getName())
-                .categoryEmoji(entry.getCategory().getEmoji())
+                .categoryId(categoryId)
+                .categoryName(category != null ? category.name() : entry.getCategory().getName())
+                .categoryEmoji(category != null ? category.emoji() : entry.getCategory().getEmoji())
                 .type(entry.getType())
                 .amount(entry.getAmount())
                 .currency(entry.getCurrency())
@@ -148,8 +522,11 @@ public class EntryService {
 
         // Add recurring metadata if this entry was generated from a rule
         if (entry.getRecurringRule() != null) {
-            builder.recurringRuleId(entry.getRecurringRule().getId())
-                    .recurringRuleName(entry.getRecurringRule().getName())
+            Long ruleId = entry.getRecurringRule().getId();
+            builder.recurringRuleId(ruleId)
+                    .recurringRuleName(refs.activeRule(ruleId)
+                            .map(ReferenceDataSnapshot.RuleRef::name)
+                            .orElseGet(() -> entry.getRecurringRule().getName()))
                     .scheduledFor(entry.getScheduledFor())
                     .isGenerated(true);
         } else {
@@ -0,0 +1,49 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.Entry;
+import com.example.financeapp.entity.EntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Immutable copy of the fields of an entry that derived state (counters, caches, indexes)
+ * depends on. Taken before and after a write so the old contribution can be removed and
+ * the new one added without re-reading anything.
+ */
+public record EntrySnapshot(
+        Long id,
+        Long userId,
+        Long categoryId,
+        EntryType type,
+        BigDecimal amount,
+        CurrencyCode currency,
+        LocalDate date,
+        String note,
+        Long recurringRuleId
+) {
+
+    public static EntrySnapshot of(Entry entry) {
+        return new EntrySnapshot(
+                entry.getId(),
+                entry.getUser().getId(),
+                entry.getCategory().getId(),
+                entry.getType(),
+                entry.getAmount(),
+                entry.getCurrency(),
+                entry.getDate(),
+                entry.getNote(),
+                entry.getRecurringRule() != null ? entry.getRecurringRule().getId() : null
+        );
+    }
+
+    public YearMonth yearMonth() {
+        return YearMonth.from(date);
+    }
+
+    public boolean isExpense() {
+        return type == EntryType.EXPENSE;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.financeapp.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks entry writes from the moment they publish their {@link EntryChangedEvent} until their
+ * transaction has completed, i.e. until every after-commit listener has applied them.
+ *
+ * In-memory indexes that are built from a query and then patched by those listeners use it to
+ * close the window in which a write is both visible to the build query and applied again by its
+ * listener once the build is cached: a build is only cached when no write of the user was in
+ * flight as it started and none has been published since.
+ *
+ * A write stops counting as in flight in a completion callback ordered
+ * {@link Ordered#LOWEST_PRECEDENCE}. After-commit listeners run from completion callbacks too,
+ * in their listener order, and equal orders fall back to registration order; listeners that
+ * call {@link #isTracked} must therefore declare an earlier {@code @Order} to run before it.
+ */
+@Component
+public class EntryWriteTracker {
+
+    private static final long IN_FLIGHT = -1;
+
+    private final Map<Long, Writes> writesByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Events published inside a transaction whose listeners have not all run yet.
+     */
+    private final Set<EntryChangedEvent> tracked = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    /**
+     * Runs synchronously inside the writing transaction, before it can commit. The write counts
+     * as in flight until its transaction has completed and every listener ordered before
+     * {@link Ordered#LOWEST_PRECEDENCE} has applied it (or the transaction rolled back).
+     */
+    @EventListener
+    public void onEntryChanged(EntryChangedEvent event) {
+        Writes writes = writesFor(event.userId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (writes) {
+                writes.published++;
+            }
+            return;
+        }
+        synchronized (writes) {
+            writes.inFlight++;
+            writes.published++;
+        }
+        tracked.add(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                tracked.remove(event);
+                synchronized (writes) {
+                    writes.inFlight--;
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether the event was published inside its writing transaction. An event published
+     * without one comes after a write that has already committed, possibly before a concurrent
+     * build queried, so listeners must drop their index instead of patching it.
+     */
+    public boolean isTracked(EntryChangedEvent event) {
+        return tracked.contains(event);
+    }
+
+    /**
+     * Taken before a build queries; pass it to {@link #mayCache} once the build is done.
+     */
+    public long beforeBuild(Long userId) {
+        Writes writes = writesFor(userId);
+        synchronized (writes) {
+            return writes.inFlight > 0 ? IN_FLIGHT : writes.published;
+        }
+    }
+
+    /**
+     * Whether a build that took the given token may be cached: no write of the user was in
+     * flight when it started and none has been published since.
+     */
+    public boolean mayCache(Long userId, long token) {
+        if (token == IN_FLIGHT) {
+            return false;
+        }
+        Writes writes = writesFor(userId);
+        synchronized (writes) {
+            return writes.published == token;
+        }
+    }
+
+    private Writes writesFor(Long userId) {
+        return writesByUser.computeIfAbsent(userId, id -> new Writes());
+    }
+
+    private static final class Writes {
+        private int inFlight;
+        private long published;
+    }
+}
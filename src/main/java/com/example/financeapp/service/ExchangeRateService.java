@@ -0,0 +1,107 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.ExchangeRateResponseDto;
+import com.example.financeapp.dto.UpsertExchangeRateRequestDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.ExchangeRate;
+import com.example.financeapp.exception.ResourceNotFoundException;
+import com.example.financeapp.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final MonthReportCache monthReportCache;
+    private final DataVersionService dataVersionService;
+
+    /**
+     * Current immutable rate table. Loaded on first use and replaced as a whole
+     * after every committed change, so readers never see a partially built table.
+     */
+    private volatile ExchangeRateTable table;
+
+    public ExchangeRateTable getRateTable() {
+        ExchangeRateTable current = table;
+        if (current == null) {
+            synchronized (this) {
+                current = table;
+                if (current == null) {
+                    current = loadTable();
+                    table = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public List<ExchangeRateResponseDto> getRates(Optional<CurrencyCode> currency) {
+        List<ExchangeRate> rates = currency
+                .map(exchangeRateRepository::findByCurrencyOrderByRateDateAsc)
+                .orElseGet(exchangeRateRepository::findAllByOrderByCurrencyAscRateDateAsc);
+        return rates.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public ExchangeRateResponseDto upsertRate(UpsertExchangeRateRequestDto dto) {
+        if (dto.getCurrency() == ExchangeRateTable.REFERENCE_CURRENCY) {
+            throw new IllegalArgumentException("Rates for the reference currency "
+                    + ExchangeRateTable.REFERENCE_CURRENCY + " are fixed at 1");
+        }
+
+        ExchangeRate rate = exchangeRateRepository.findByCurrencyAndRateDate(dto.getCurrency(), dto.getDate())
+                .orElse(new ExchangeRate());
+        rate.setCurrency(dto.getCurrency());
+        rate.setRateDate(dto.getDate());
+        rate.setRate(dto.getRate());
+
+        ExchangeRate saved = exchangeRateRepository.save(rate);
+        refreshAfterCommit();
+        return mapToDto(saved);
+    }
+
+    @Transactional
+    public void deleteRate(Long id) {
+        ExchangeRate rate = exchangeRateRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Exchange rate not found"));
+        exchangeRateRepository.delete(rate);
+        refreshAfterCommit();
+    }
+
+    private void refreshAfterCommit() {
+        AfterCommit.run(this::refresh);
+    }
+
+    private void refresh() {
+        table = loadTable();
+        // Converted (base currency) reports may have used the old rates
+        monthReportCache.invalidateAll();
+        dataVersionService.bumpGlobal();
+    }
+
+    private ExchangeRateTable loadTable() {
+        List<ExchangeRate> rates = exchangeRateRepository.findAllByOrderByCurrencyAscRateDateAsc();
+        log.info("Loaded {} exchange rates into memory", rates.size());
+        return ExchangeRateTable.of(rates);
+    }
+
+    private ExchangeRateResponseDto mapToDto(ExchangeRate rate) {
+        return ExchangeRateResponseDto.builder()
+                .id(rate.getId())
+                .currency(rate.getCurrency())
+                .date(rate.getRateDate())
+                .rate(rate.getRate())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.ExchangeRate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, date-indexed view of all exchange rates.
+ *
+ * For every currency the rates are kept as a sorted int[] of epoch days with a parallel
+ * array of rates, so looking up the rate for an entry's date is a single binary search.
+ * The reference currency (RSD) always has rate 1.
+ */
+public final class ExchangeRateTable {
+
+    public static final CurrencyCode REFERENCE_CURRENCY = CurrencyCode.RSD;
+
+    private static final int RATE_SCALE = 8;
+
+    private static final ExchangeRateTable EMPTY = new ExchangeRateTable(List.of());
+
+    private final int[][] daysByCurrency;
+    private final BigDecimal[][] ratesByCurrency;
+
+    private ExchangeRateTable(List<ExchangeRate> rates) {
+        int currencyCount = CurrencyCode.values().length;
+        int[] counts = new int[currencyCount];
+        for (ExchangeRate rate : rates) {
+            counts[rate.getCurrency().ordinal()]++;
+        }
+
+        // Sort keys pack the epoch day into the high bits and the original position into
+        // the low bits, so each currency slice can be ordered with a primitive sort.
+        long[][] keys = new long[currencyCount][];
+        BigDecimal[][] unsorted = new BigDecimal[currencyCount][];
+        for (int c = 0; c < currencyCount; c++) {
+            keys[c] = new long[counts[c]];
+            unsorted[c] = new BigDecimal[counts[c]];
+        }
+        int[] fill = new int[currencyCount];
+        for (ExchangeRate rate : rates) {
+            int c = rate.getCurrency().ordinal();
+            int i = fill[c]++;
+            keys[c][i] = (rate.getRateDate().toEpochDay() << 32) | i;
+            unsorted[c][i] = rate.getRate();
+        }
+
+        daysByCurrency = new int[currencyCount][];
+        ratesByCurrency = new BigDecimal[currencyCount][];
+        for (int c = 0; c < currencyCount; c++) {
+            Arrays.sort(keys[c]);
+            daysByCurrency[c] = new int[counts[c]];
+            ratesByCurrency[c] = new BigDecimal[counts[c]];
+            for (int i = 0; i < counts[c]; i++) {
+                daysByCurrency[c][i] = (int) (keys[c][i] >> 32);
+                ratesByCurrency[c][i] = unsorted[c][(int) keys[c][i]];
+            }
+        }
+    }
+
+    public static ExchangeRateTable of(List<ExchangeRate> rates) {
+        return rates.isEmpty() ? EMPTY : new ExchangeRateTable(rates);
+    }
+
+    public static ExchangeRateTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the rate (units of RSD per unit of currency) in effect on the given day,
+     * i.e. the latest rate dated on or before it.
+     *
+     * @throws IllegalArgumentException if no rate exists on or before that day
+     */
+    public BigDecimal rateToReference(CurrencyCode currency, long epochDay) {
+        if (currency == REFERENCE_CURRENCY) {
+            return BigDecimal.ONE;
+        }
+        int[] days = daysByCurrency[currency.ordinal()];
+        int idx = Arrays.binarySearch(days, (int) epochDay);
+        if (idx < 0) {
+            // Insertion point - 1 is the latest rate before the requested day
+            idx = -idx - 2;
+        }
+        if (idx < 0) {
+            throw new IllegalArgumentException("No " + currency + " exchange rate on or before "
+                    + LocalDate.ofEpochDay(epochDay));
+        }
+        return ratesByCurrency[currency.ordinal()][idx];
+    }
+
+    /**
+     * Converts an amount between currencies at the rates in effect on the given date.
+     * The result is rounded to 2 decimal places.
+     */
+    public BigDecimal convert(BigDecimal amount, CurrencyCode from, CurrencyCode to, LocalDate date) {
+        if (from == to) {
+            return amount;
+        }
+        long epochDay = date.toEpochDay();
+        BigDecimal inReference = amount.multiply(rateToReference(from, epochDay));
+        if (to == REFERENCE_CURRENCY) {
+            return inReference.setScale(2, RoundingMode.HALF_UP);
+        }
+        return inReference
+                .divide(rateToReference(to, epochDay), RATE_SCALE, RoundingMode.HALF_UP)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
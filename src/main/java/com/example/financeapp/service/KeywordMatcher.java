@@ -0,0 +1,140 @@
+package com.example.financeapp.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords: finds the best keyword contained in a
+ * text in one pass over the text, however many keywords there are. Matching ignores case.
+ *
+ * The best match is the longest keyword; among equally long ones, the one listed first.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordMatcher {
+
+    public record Keyword(String keyword, Long categoryId) {
+    }
+
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(List.of());
+
+    private final List<Keyword> keywords;
+    private final int[] lengths;
+
+    /**
+     * Per state: outgoing edges, the fallback state on a mismatch, and the best keyword ending
+     * here or at any state on the fallback chain (index into keywords, -1 for none).
+     */
+    private final List<Map<Character, Integer>> edges = new ArrayList<>();
+    private final int[] fail;
+    private final int[] best;
+
+    private KeywordMatcher(List<Keyword> keywords) {
+        this.keywords = List.copyOf(keywords);
+        lengths = new int[this.keywords.size()];
+        edges.add(new HashMap<>());
+        List<Integer> ends = new ArrayList<>();
+        ends.add(-1);
+
+        for (int k = 0; k < this.keywords.size(); k++) {
+            String keyword = normalize(this.keywords.get(k).keyword());
+            lengths[k] = keyword.length();
+            if (keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new HashMap<>());
+                    ends.add(-1);
+                    edges.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (ends.get(state) == -1) {
+                ends.set(state, k);
+            }
+        }
+
+        fail = new int[edges.size()];
+        best = new int[edges.size()];
+        best[0] = -1;
+        // Breadth-first, so the fallback of a state is final before its children need it
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : edges.get(0).values()) {
+            fail[child] = 0;
+            best[child] = ends.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : edges.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = fail[state];
+                while (fallback != 0 && !edges.get(fallback).containsKey(edge.getKey())) {
+                    fallback = fail[fallback];
+                }
+                Integer target = edges.get(fallback).get(edge.getKey());
+                fail[child] = target != null && target != child ? target : 0;
+                best[child] = better(ends.get(child), best[fail[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    public static KeywordMatcher of(List<Keyword> keywords) {
+        return keywords.isEmpty() ? EMPTY : new KeywordMatcher(keywords);
+    }
+
+    public boolean isEmpty() {
+        return keywords.isEmpty();
+    }
+
+    /**
+     * The best keyword contained in the text, if any.
+     */
+    public Optional<Keyword> match(String text) {
+        if (text == null || keywords.isEmpty()) {
+            return Optional.empty();
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int state = 0;
+        int found = -1;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            Integer next = edges.get(state).get(c);
+            while (next == null && state != 0) {
+                state = fail[state];
+                next = edges.get(state).get(c);
+            }
+            state = next != null ? next : 0;
+            found = better(found, best[state]);
+        }
+        return found >= 0 ? Optional.of(keywords.get(found)) : Optional.empty();
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (lengths[a] != lengths[b]) {
+            return lengths[a] > lengths[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.MonthBalance;
+import com.example.financeapp.entity.MonthlyOverview;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.MonthBalanceRepository;
+import com.example.financeapp.repository.MonthlyOverviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Derives starting totals for months without a manually entered one.
+ *
+ * A month's starting total is the previous month's closing total (starting total + net),
+ * walking back to the nearest month with a manual starting total (the anchor). Closing
+ * totals are memoized in month_balances, so in steady state a lookup reads one row.
+ * Balances are tracked in RSD, the currency MonthlyOverview starting totals are entered in.
+ *
+ * Invalidation runs after the invalidating transaction commits and bumps a generation before
+ * deleting. A reader that memoized a chain while the generation moved may have computed it from
+ * pre-commit nets, so it deletes its rows again once it has committed: either that delete or
+ * the invalidation's own (which then sees the reader's committed rows) removes them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonthBalanceService {
+
+    public static final CurrencyCode BALANCE_CURRENCY = CurrencyCode.RSD;
+
+    private final MonthBalanceRepository monthBalanceRepository;
+    private final MonthlyOverviewRepository monthlyOverviewRepository;
+    private final EntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the derived starting total for a month (previous month's closing total),
+     * or empty if no manual anchor exists before it.
+     */
+    @Transactional
+    public Optional<BigDecimal> getDerivedStartingTotal(Long userId, YearMonth month) {
+        long readAt = generation.get();
+        YearMonth previous = month.minusMonths(1);
+
+        // Steady state: previous month already memoized
+        Optional<MonthBalance> memo = monthBalanceRepository.findByUserIdAndYearMonth(userId, previous.toString());
+        if (memo.isPresent()) {
+            return Optional.of(memo.get().getClosingTotal());
+        }
+
+        Optional<MonthlyOverview> anchor = monthlyOverviewRepository
+                .findFirstByUserIdAndYearMonthLessThanAndStartingTotalIsNotNullOrderByYearMonthDesc(userId, month.toString());
+        Optional<MonthBalance> latestMemo = monthBalanceRepository
+                .findFirstByUserIdAndYearMonthLessThanOrderByYearMonthDesc(userId, month.toString());
+
+        // Resume from whichever is closer: the last memoized month or the anchor itself
+        YearMonth start;
+        BigDecimal startingTotal;
+        if (latestMemo.isPresent()
+                && (anchor.isEmpty() || latestMemo.get().getYearMonth().compareTo(anchor.get().getYearMonth()) >= 0)) {
+            start = YearMonth.parse(latestMemo.get().getYearMonth()).plusMonths(1);
+            startingTotal = latestMemo.get().getClosingTotal();
+        } else if (anchor.isPresent()) {
+            start = YearMonth.parse(anchor.get().getYearMonth());
+            startingTotal = anchor.get().getStartingTotal();
+        } else {
+            return Optional.empty();
+        }
+
+        return Optional.of(extendChain(userId, start, previous, startingTotal, readAt));
+    }
+
+    /**
+     * Derived starting totals for several months at once, e.g. a year of overviews.
+     * Reads the memoized previous-month balances for the whole span in one query and only
+     * computes chains for months whose predecessor is not memoized yet.
+     *
+     * @return derived starting total per month; months without an anchor before them are absent
+     */
+    @Transactional
+    public Map<YearMonth, BigDecimal> getDerivedStartingTotals(Long userId, List<YearMonth> months) {
+        Map<YearMonth, BigDecimal> result = new HashMap<>();
+        if (months.isEmpty()) {
+            return result;
+        }
+        YearMonth first = months.stream().min(YearMonth::compareTo).orElseThrow();
+        YearMonth last = months.stream().max(YearMonth::compareTo).orElseThrow();
+
+        Map<YearMonth, BigDecimal> closingByMonth = new HashMap<>();
+        for (MonthBalance memo : monthBalanceRepository.findByUserIdAndYearMonthBetween(
+                userId, first.minusMonths(1).toString(), last.minusMonths(1).toString())) {
+            closingByMonth.put(YearMonth.parse(memo.getYearMonth()), memo.getClosingTotal());
+        }
+
+        for (YearMonth month : months) {
+            BigDecimal closing = closingByMonth.get(month.minusMonths(1));
+            if (closing != null) {
+                result.put(month, closing);
+            } else {
+                getDerivedStartingTotal(userId, month).ifPresent(total -> result.put(month, total));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes and memoizes closing totals for every month in [from, to], starting from the given
+     * starting total of {@code from}. Nets for the whole range come from one grouped query.
+     * No manual anchor lies strictly inside the range (the caller starts at the nearest one).
+     * {@code readAt} is the generation seen before the caller's first read.
+     *
+     * @return the closing total of {@code to}
+     */
+    private BigDecimal extendChain(Long userId, YearMonth from, YearMonth to, BigDecimal startingTotal,
+                                   long readAt) {
+        Map<YearMonth, BigDecimal> netByMonth = new HashMap<>();
+        List<Object[]> rows = entryRepository.sumNetByMonth(userId, BALANCE_CURRENCY, from.atDay(1), to.atEndOfMonth());
+        for (Object[] row : rows) {
+            netByMonth.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), (BigDecimal) row[2]);
+        }
+
+        BigDecimal closing = startingTotal;
+        int memoized = 0;
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            BigDecimal starting = closing;
+            BigDecimal net = netByMonth.getOrDefault(m, BigDecimal.ZERO);
+            closing = starting.add(net);
+            monthBalanceRepository.upsert(userId, m.toString(), starting, net, closing);
+            memoized++;
+        }
+
+        AfterCommit.run(() -> {
+            if (generation.get() != readAt) {
+                deleteFromMonth(userId, from);
+            }
+        });
+
+        log.debug("Memoized {} month balances for user {} ({} to {})", memoized, userId, from, to);
+        return closing;
+    }
+
+    /**
+     * Drops memoized balances from the given month onwards once the current transaction commits,
+     * e.g. after its manual starting total changed.
+     */
+    public void invalidateFromAfterCommit(Long userId, YearMonth month) {
+        AfterCommit.run(() -> invalidateFrom(userId, month));
+    }
+
+    /**
+     * An entry write changes the net of its month(s), and with it every later closing total.
+     * Ordered with the other cache invalidations, before {@link DataVersionService} bumps.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(0)
+    public void onEntryChanged(EntryChangedEvent event) {
+        if ((event.before() == null || event.before().currency() != BALANCE_CURRENCY)
+                && (event.after() == null || event.after().currency() != BALANCE_CURRENCY)) {
+            return;
+        }
+        YearMonth earliest = event.affectedMonths().stream().min(YearMonth::compareTo).orElseThrow();
+        invalidateFrom(event.userId(), earliest);
+    }
+
+    private void invalidateFrom(Long userId, YearMonth month) {
+        generation.incrementAndGet();
+        deleteFromMonth(userId, month);
+    }
+
+    /**
+     * Deletes in a transaction of its own: callers run after another transaction has committed.
+     */
+    private void deleteFromMonth(Long userId, YearMonth month) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.executeWithoutResult(status -> monthBalanceRepository.deleteFromMonth(userId, month.toString()));
+    }
+}
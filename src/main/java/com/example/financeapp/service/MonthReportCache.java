@@ -0,0 +1,111 @@
+package com.example.financeapp.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache for month-scoped reports (summary, spending by category, daily series, ...).
+ *
+ * Every cached value records the months it was computed from. An entry write drops exactly
+ * the reports that depend on the months it touched, after the write has committed. Every
+ * invalidation also bumps a generation; a report computed while it moved may have read
+ * pre-commit data and is returned without being cached.
+ */
+@Component
+public class MonthReportCache {
+
+    private static final int MAX_ENTRIES = 2000;
+
+    private record Key(Long userId, String report, List<YearMonth> months, List<Object> params) {
+    }
+
+    private final Map<Key, Object> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /**
+     * Bumped on every invalidation, under the cache lock.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the cached report or computes and caches it.
+     *
+     * @param userId owner of the data
+     * @param report report name, e.g. "summary"
+     * @param months months the report reads; a write to any of them invalidates it
+     * @param params remaining parameters that distinguish report variants (nulls allowed)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String report, List<YearMonth> months, List<Object> params, Supplier<T> loader) {
+        Key key = new Key(userId, report, List.copyOf(months), Collections.unmodifiableList(params));
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long computedAt = generation.get();
+        T value = loader.get();
+        synchronized (cache) {
+            if (generation.get() == computedAt) {
+                cache.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(Long userId, YearMonth month) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.keySet().removeIf(k -> k.userId().equals(userId) && k.months().contains(month));
+        }
+    }
+
+    public void invalidateUser(Long userId) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.keySet().removeIf(k -> k.userId().equals(userId));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    /**
+     * Drops all of a user's reports once the current transaction commits
+     * (immediately when there is none). Used for changes that affect every month,
+     * such as renaming a category.
+     */
+    public void invalidateUserAfterCommit(Long userId) {
+        AfterCommit.run(() -> invalidateUser(userId));
+    }
+
+    /**
+     * Ordered after {@link EntryColumnsCache} patches the columns reports are computed from,
+     * and before {@link DataVersionService} hands out the new version.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(0)
+    public void onEntryChanged(EntryChangedEvent event) {
+        for (YearMonth month : event.affectedMonths()) {
+            invalidate(event.userId(), month);
+        }
+    }
+}
@@ -3,52 +3,138 @@ package com.example.financeapp.service;
 import com.example.financeapp.dto.MonthlyOverviewResponseDto;
 import com.example.financeapp.dto.UpsertMonthlyOverviewRequestDto;
 import com.example.financeapp.entity.MonthlyOverview;
-import com.example.financeapp.entity.User;
-import com.example.financeapp.exception.ResourceNotFoundException;
 import com.example.financeapp.repository.MonthlyOverviewRepository;
-import com.example.financeapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class MonthlyOverviewService {
 
     private final MonthlyOverviewRepository monthlyOverviewRepository;
-    private final UserRepository userRepository;
+    private final MonthBalanceService monthBalanceService;
+    private final BalanceService balanceService;
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+
+    private static final int MAX_RANGE_MONTHS = 120;
 
     private Long getCurrentUserId() {
         return 1L;
     }
 
+    /**
+     * Returns the overview for a month. If no starting total was entered for the month, it is
+     * derived from the previous month's closing total (see MonthBalanceService).
+     */
     public MonthlyOverviewResponseDto getOverview(String yearMonth) {
         Long userId = getCurrentUserId();
-        return monthlyOverviewRepository.findByUserIdAndYearMonth(userId, yearMonth)
+        YearMonth ym = YearMonth.parse(yearMonth);
+        MonthlyOverviewResponseDto dto = monthlyOverviewRepository.findByUserIdAndYearMonth(userId, yearMonth)
                 .map(this::mapToDto)
                 .orElse(MonthlyOverviewResponseDto.builder()
                         .yearMonth(yearMonth)
                         .startingTotal(null)
                         .note(null)
+                        .startingTotalDerived(false)
                         .build());
+
+        if (dto.getStartingTotal() == null) {
+            monthBalanceService.getDerivedStartingTotal(userId, ym).ifPresent(derived -> {
+                dto.setStartingTotal(derived);
+                dto.setStartingTotalDerived(true);
+            });
+        }
+        return dto;
+    }
+
+    /**
+     * Returns one overview per month in the inclusive range [from, to], loading all stored
+     * overviews with a single query. Months without a stored starting total get a derived one.
+     */
+    public List<MonthlyOverviewResponseDto> getOverviews(String from, String to) {
+        Long userId = getCurrentUserId();
+        YearMonth fromMonth = YearMonth.parse(from);
+        YearMonth toMonth = YearMonth.parse(to);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (fromMonth.plusMonths(MAX_RANGE_MONTHS).isBefore(toMonth)) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_MONTHS + " months");
+        }
+
+        Map<String, MonthlyOverview> stored = monthlyOverviewRepository
+                .findByUserIdAndYearMonthBetweenOrderByYearMonthAsc(userId, fromMonth.toString(), toMonth.toString())
+                .stream()
+                .collect(Collectors.toMap(MonthlyOverview::getYearMonth, Function.identity()));
+
+        List<MonthlyOverviewResponseDto> result = new ArrayList<>();
+        List<YearMonth> needDerived = new ArrayList<>();
+        for (YearMonth m = fromMonth; !m.isAfter(toMonth); m = m.plusMonths(1)) {
+            MonthlyOverview overview = stored.get(m.toString());
+            MonthlyOverviewResponseDto dto = overview != null
+                    ? mapToDto(overview)
+                    : MonthlyOverviewResponseDto.builder().yearMonth(m.toString()).startingTotalDerived(false).build();
+            if (dto.getStartingTotal() == null) {
+                needDerived.add(m);
+            }
+            result.add(dto);
+        }
+
+        Map<YearMonth, BigDecimal> derived = monthBalanceService.getDerivedStartingTotals(userId, needDerived);
+        for (MonthlyOverviewResponseDto dto : result) {
+            BigDecimal total = derived.get(YearMonth.parse(dto.getYearMonth()));
+            if (dto.getStartingTotal() == null && total != null) {
+                dto.setStartingTotal(total);
+                dto.setStartingTotalDerived(true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stored overviews of the given YYYY-MM months as entered (nothing is derived);
+     * months without a stored overview are skipped.
+     */
+    public List<MonthlyOverviewResponseDto> getStoredOverviews(Collection<String> yearMonths) {
+        Long userId = getCurrentUserId();
+        return monthlyOverviewRepository.findByUserIdAndYearMonthIn(userId, yearMonths).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * Creates or updates the overview for a month with a single INSERT ... ON CONFLICT statement,
+     * so concurrent PUTs for the same month cannot create duplicate rows.
+     */
     @Transactional
     public MonthlyOverviewResponseDto upsertOverview(String yearMonth, UpsertMonthlyOverviewRequestDto dto) {
         Long userId = getCurrentUserId();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        MonthlyOverview overview = monthlyOverviewRepository.findByUserIdAndYearMonth(userId, yearMonth)
-                .orElse(new MonthlyOverview());
+        YearMonth ym = YearMonth.parse(yearMonth);
 
-        overview.setUser(user);
-        overview.setYearMonth(yearMonth);
-        overview.setStartingTotal(dto.getStartingTotal());
-        overview.setNote(dto.getNote());
+        monthlyOverviewRepository.upsert(userId, ym.toString(), dto.getStartingTotal(), dto.getNote());
+        changeLogService.recordOverview(userId, ym);
+        // The anchor may have changed: later derived starting totals must be recomputed
+        monthBalanceService.invalidateFromAfterCommit(userId, ym);
+        balanceService.evictAnchorsAfterCommit(userId);
+        dataVersionService.bumpMonthAfterCommit(userId, ym);
 
-        MonthlyOverview saved = monthlyOverviewRepository.save(overview);
-        return mapToDto(saved);
+        return MonthlyOverviewResponseDto.builder()
+                .yearMonth(ym.toString())
+                .startingTotal(dto.getStartingTotal())
+                .note(dto.getNote())
+                .startingTotalDerived(false)
+                .build();
     }
 
     private MonthlyOverviewResponseDto mapToDto(MonthlyOverview overview) {
@@ -56,6 +142,7 @@ public class MonthlyOverviewService {
                 .yearMonth(overview.getYearMonth())
                 .startingTotal(overview.getStartingTotal())
                 .note(overview.getNote())
+                .startingTotalDerived(false)
                 .build();
     }
 }
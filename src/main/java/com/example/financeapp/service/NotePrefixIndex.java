@@ -0,0 +1,180 @@
+package com.example.financeapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distinct notes of one user with how often each was used, for autocomplete.
+ *
+ * Notes are kept as a sorted array of normalized keys (trimmed, lower case), so the notes with a
+ * given prefix are one contiguous range found by binary search. Writes go to a small delta map
+ * on top of the arrays, which is merged into new arrays once it grows past a fraction of them.
+ */
+public final class NotePrefixIndex {
+
+    public record Suggestion(String note, long count) {
+    }
+
+    private static final int MIN_COMPACT_THRESHOLD = 256;
+
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .comparingLong(Suggestion::count).reversed()
+            .thenComparing(Suggestion::note);
+
+    private String[] keys;
+    private String[] notes;
+    private long[] counts;
+
+    /**
+     * Count changes per key since the arrays were built, and display forms of keys not in the arrays.
+     */
+    private final Map<String, Long> deltaCounts = new HashMap<>();
+    private final Map<String, String> deltaNotes = new HashMap<>();
+
+    private NotePrefixIndex(String[] keys, String[] notes, long[] counts) {
+        this.keys = keys;
+        this.notes = notes;
+        this.counts = counts;
+    }
+
+    /**
+     * Builds the index from note usage counts. Notes differing only in case or surrounding
+     * whitespace are merged and shown in their most used form.
+     */
+    public static NotePrefixIndex of(Map<String, Long> countsByNote) {
+        Map<String, Long> totals = new HashMap<>();
+        Map<String, String> display = new HashMap<>();
+        Map<String, Long> displayCount = new HashMap<>();
+        countsByNote.forEach((note, count) -> {
+            String key = normalize(note);
+            if (key.isEmpty()) {
+                return;
+            }
+            totals.merge(key, count, Long::sum);
+            if (count > displayCount.getOrDefault(key, -1L)) {
+                display.put(key, note.trim());
+                displayCount.put(key, count);
+            }
+        });
+        String[] keys = totals.keySet().toArray(String[]::new);
+        Arrays.sort(keys);
+        String[] notes = new String[keys.length];
+        long[] counts = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            notes[i] = display.get(keys[i]);
+            counts[i] = totals.get(keys[i]);
+        }
+        return new NotePrefixIndex(keys, notes, counts);
+    }
+
+    public synchronized int size() {
+        int size = keys.length;
+        for (String key : deltaNotes.keySet()) {
+            if (deltaCounts.getOrDefault(key, 0L) > 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Records {@code delta} more (or, if negative, fewer) uses of a note.
+     */
+    public synchronized void add(String note, long delta) {
+        String key = normalize(note);
+        if (key.isEmpty() || delta == 0) {
+            return;
+        }
+        deltaCounts.merge(key, delta, Long::sum);
+        if (Arrays.binarySearch(keys, key) < 0) {
+            deltaNotes.putIfAbsent(key, note.trim());
+        }
+        if (deltaCounts.size() > Math.max(MIN_COMPACT_THRESHOLD, keys.length / 8)) {
+            compact();
+        }
+    }
+
+    /**
+     * The most used notes starting with {@code prefix} (ignoring case), most used first.
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+        int from = lowerBound(key);
+        for (int i = from; i < keys.length && keys[i].startsWith(key); i++) {
+            offer(top, limit, notes[i], counts[i] + deltaCounts.getOrDefault(keys[i], 0L));
+        }
+        deltaNotes.forEach((deltaKey, note) -> {
+            if (deltaKey.startsWith(key)) {
+                offer(top, limit, note, deltaCounts.getOrDefault(deltaKey, 0L));
+            }
+        });
+
+        List<Suggestion> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private static void offer(PriorityQueue<Suggestion> top, int limit, String note, long count) {
+        if (count <= 0) {
+            return;
+        }
+        top.offer(new Suggestion(note, count));
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges the delta into new arrays, dropping notes no longer used.
+     */
+    private void compact() {
+        Map<String, Long> merged = new HashMap<>();
+        Map<String, String> display = new HashMap<>(deltaNotes);
+        for (int i = 0; i < keys.length; i++) {
+            merged.put(keys[i], counts[i]);
+            display.put(keys[i], notes[i]);
+        }
+        deltaCounts.forEach((key, delta) -> merged.merge(key, delta, Long::sum));
+        merged.values().removeIf(count -> count <= 0);
+
+        String[] newKeys = merged.keySet().toArray(String[]::new);
+        Arrays.sort(newKeys);
+        String[] newNotes = new String[newKeys.length];
+        long[] newCounts = new long[newKeys.length];
+        for (int i = 0; i < newKeys.length; i++) {
+            newNotes[i] = display.get(newKeys[i]);
+            newCounts[i] = merged.get(newKeys[i]);
+        }
+        keys = newKeys;
+        notes = newNotes;
+        counts = newCounts;
+        deltaCounts.clear();
+        deltaNotes.clear();
+    }
+
+    private static String normalize(String note) {
+        return note == null ? "" : note.trim().toLowerCase(Locale.ROOT);
+    }
+}
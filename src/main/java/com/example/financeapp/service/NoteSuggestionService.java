@@ -0,0 +1,115 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.NoteSuggestionDto;
+import com.example.financeapp.repository.EntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Note autocomplete from previously used notes, ranked by how often they were used.
+ *
+ * Each user's notes live in a {@link NotePrefixIndex} built lazily from one aggregate query and
+ * patched after every committed entry write, so suggestions never hit the database. The indexes
+ * are held by soft references and dropped by the garbage collector under memory pressure; the
+ * next request rebuilds them. Notes of entries generated by recurring rules are not suggested.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NoteSuggestionService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private final EntryRepository entryRepository;
+    private final EntryWriteTracker entryWriteTracker;
+
+    private final Map<Long, SoftReference<NotePrefixIndex>> indexesByUser = new ConcurrentHashMap<>();
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    public List<NoteSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return indexFor(getCurrentUserId()).suggest(prefix, limit).stream()
+                .map(suggestion -> NoteSuggestionDto.builder()
+                        .note(suggestion.note())
+                        .count(suggestion.count())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Moves one use from the old note to the new one. A change that may already be part of the
+     * index (see {@link EntryWriteTracker#isTracked}) drops it instead. Ordered ahead of the
+     * tracker's completion callback, which stops tracking the event.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onEntryChanged(EntryChangedEvent event) {
+        SoftReference<NotePrefixIndex> reference = indexesByUser.get(event.userId());
+        NotePrefixIndex index = reference != null ? reference.get() : null;
+        if (index == null) {
+            return;
+        }
+        if (!entryWriteTracker.isTracked(event)) {
+            indexesByUser.remove(event.userId(), reference);
+            return;
+        }
+        String before = suggestible(event.before());
+        String after = suggestible(event.after());
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            index.add(before, -1);
+        }
+        if (after != null) {
+            index.add(after, 1);
+        }
+    }
+
+    private static String suggestible(EntrySnapshot entry) {
+        return entry != null && entry.recurringRuleId() == null ? entry.note() : null;
+    }
+
+    private NotePrefixIndex indexFor(Long userId) {
+        SoftReference<NotePrefixIndex> reference = indexesByUser.get(userId);
+        NotePrefixIndex cached = reference != null ? reference.get() : null;
+        if (cached != null) {
+            return cached;
+        }
+
+        // An index that may already contain a write whose listener has yet to patch it
+        // serves this request only
+        long token = entryWriteTracker.beforeBuild(userId);
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : entryRepository.countManualNotes(userId)) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        NotePrefixIndex built = NotePrefixIndex.of(counts);
+        log.debug("Built note index for user {} with {} notes", userId, built.size());
+
+        if (entryWriteTracker.mayCache(userId, token)) {
+            indexesByUser.put(userId, new SoftReference<>(built));
+        }
+        return built;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.RecurrenceFrequency;
+import com.example.financeapp.entity.RecurringRule;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Occurrence dates of a recurring rule in closed form, so nothing iterates period by period.
+ *
+ * Occurrences are numbered from 0. Week-based rules occur every 7 or 14 days from the start
+ * date. Month-based rules occur every 1, 3 or 12 months from the start month on the day of
+ * month, clamped to the month's length (e.g. Feb 30 -> Feb 28/29); the first occurrence is in
+ * the start month even if its day is before the start date.
+ *
+ * Every date belongs to one period, the span from one occurrence's slot to the next
+ * (a whole month for monthly rules), so an instance still counts for its period after the
+ * rule's day of month changed.
+ */
+public final class RecurrenceSchedule {
+
+    private final RecurrenceFrequency frequency;
+    private final LocalDate startDate;
+    private final YearMonth startMonth;
+    private final int dayOfMonth;
+
+    private RecurrenceSchedule(RecurrenceFrequency frequency, LocalDate startDate, Integer dayOfMonth) {
+        this.frequency = frequency != null ? frequency : RecurrenceFrequency.MONTHLY;
+        this.startDate = startDate;
+        this.startMonth = YearMonth.from(startDate);
+        this.dayOfMonth = dayOfMonth != null ? dayOfMonth : 1;
+    }
+
+    public static RecurrenceSchedule of(RecurrenceFrequency frequency, LocalDate startDate, Integer dayOfMonth) {
+        return new RecurrenceSchedule(frequency, startDate, dayOfMonth);
+    }
+
+    public static RecurrenceSchedule of(RecurringRule rule) {
+        return of(rule.getFrequency(), rule.getStartDate(), rule.getDayOfMonth());
+    }
+
+    /**
+     * Date of occurrence {@code n} (0-based).
+     */
+    public LocalDate occurrence(long n) {
+        if (frequency.isMonthBased()) {
+            return onDay(startMonth.plusMonths(n * frequency.getStepMonths()));
+        }
+        return startDate.plusDays(n * frequency.getStepDays());
+    }
+
+    /**
+     * Index of the period {@code date} falls in; negative before the first period.
+     */
+    public long periodIndex(LocalDate date) {
+        if (frequency.isMonthBased()) {
+            long months = (long) (date.getYear() - startMonth.getYear()) * 12
+                    + date.getMonthValue() - startMonth.getMonthValue();
+            return Math.floorDiv(months, frequency.getStepMonths());
+        }
+        return Math.floorDiv(date.toEpochDay() - startDate.toEpochDay(), frequency.getStepDays());
+    }
+
+    /**
+     * Number of occurrences on or before {@code date}.
+     */
+    public long countThrough(LocalDate date) {
+        long period = periodIndex(date);
+        if (period < 0) {
+            return 0;
+        }
+        return occurrence(period).isAfter(date) ? period : period + 1;
+    }
+
+    /**
+     * Number of occurrences in [from, to], both inclusive.
+     */
+    public long countBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        return countThrough(to) - countThrough(from.minusDays(1));
+    }
+
+    /**
+     * First occurrence on or after {@code date}.
+     */
+    public LocalDate nextOnOrAfter(LocalDate date) {
+        return occurrence(countThrough(date.minusDays(1)));
+    }
+
+    /**
+     * Where an instance originally scheduled for {@code scheduledFor} belongs under this schedule:
+     * month-based rules move it to the day of month within its month, week-based rules keep it.
+     */
+    public LocalDate reschedule(LocalDate scheduledFor) {
+        return frequency.isMonthBased() ? onDay(YearMonth.from(scheduledFor)) : scheduledFor;
+    }
+
+    private LocalDate onDay(YearMonth month) {
+        return month.atDay(Math.min(dayOfMonth, month.lengthOfMonth()));
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds monthly repeating entries in a user's history, in one pass over entries ordered by date.
+ *
+ * Entries are grouped by normalized note (case, digits and punctuation ignored), category, type
+ * and currency. Within a group, an entry joins the series whose running median amount is within
+ * 10% of it, or starts a new one, so amounts drifting slowly or a cent apart stay together. A
+ * series keeps only primitive arrays of days and amounts, so memory is a few bytes per entry.
+ * Series that are still a single entry when the next one is months away cannot become a pattern
+ * and are dropped as the pass moves on, so one-off notes do not accumulate.
+ *
+ * A series becomes a candidate if it has entries in most months of its span, mostly one per
+ * month, on about the same day of the month (counting across month ends), and has not stopped.
+ */
+public final class RecurringPatternMiner {
+
+    public record GroupKey(String note, Long categoryId, EntryType type, CurrencyCode currency) {
+    }
+
+    /**
+     * @param note          the most recent original note of the series
+     * @param dayOfMonth    median day of month
+     * @param medianCents   median amount
+     * @param amountVaries  whether amounts differ from the median by more than 2%
+     * @param confidence    0..1, how regular the monthly pattern is
+     */
+    public record Candidate(
+            GroupKey key,
+            String note,
+            int occurrences,
+            LocalDate first,
+            LocalDate last,
+            int dayOfMonth,
+            long medianCents,
+            boolean amountVaries,
+            double confidence
+    ) {
+    }
+
+    static final int MIN_OCCURRENCES = 3;
+    static final int DAY_TOLERANCE = 3;
+    static final double MIN_CONFIDENCE = 0.5;
+
+    /**
+     * Months without an entry after which a pattern counts as stopped.
+     */
+    static final int MAX_MONTHS_SINCE_LAST = 2;
+
+    /**
+     * Months after which a series with a single entry is dropped: a monthly pattern would have
+     * repeated by then.
+     */
+    static final int SINGLE_ENTRY_MONTHS = MAX_MONTHS_SINCE_LAST + 1;
+
+    /**
+     * Entries of one amount series, days in date order and amounts sorted (for the median).
+     */
+    private static final class Series {
+        String note;
+        int size = 1;
+        int[] days;
+        long[] sortedCents;
+
+        Series(String rawNote, int epochDay, long amountCents) {
+            note = rawNote;
+            days = new int[]{epochDay};
+            sortedCents = new long[]{amountCents};
+        }
+
+        long medianCents() {
+            return sortedCents[size / 2];
+        }
+
+        /**
+         * Whether the amount is within 10% of the running median.
+         */
+        boolean accepts(long amountCents) {
+            long median = medianCents();
+            return Math.abs(amountCents - median) * 10 <= median;
+        }
+
+        void add(String rawNote, int epochDay, long amountCents) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                sortedCents = Arrays.copyOf(sortedCents, size * 2);
+            }
+            days[size] = epochDay;
+            int at = Arrays.binarySearch(sortedCents, 0, size, amountCents);
+            at = at < 0 ? -at - 1 : at;
+            System.arraycopy(sortedCents, at, sortedCents, at + 1, size - at);
+            sortedCents[at] = amountCents;
+            size++;
+            note = rawNote;
+        }
+    }
+
+    private final Map<GroupKey, List<Series>> groups = new HashMap<>();
+
+    private int lastSweepMonth = Integer.MIN_VALUE;
+
+    /**
+     * Adds one entry; entries must be added in date order.
+     */
+    public void add(String note, Long categoryId, EntryType type, CurrencyCode currency, long amountCents, LocalDate date) {
+        if (amountCents <= 0) {
+            return;
+        }
+        int month = monthIndex(date);
+        if (month != lastSweepMonth) {
+            dropSingleEntrySeries(month);
+            lastSweepMonth = month;
+        }
+
+        String rawNote = note != null ? note.trim() : null;
+        int epochDay = Math.toIntExact(date.toEpochDay());
+        List<Series> series = groups.computeIfAbsent(new GroupKey(normalize(note), categoryId, type, currency),
+                k -> new ArrayList<>(1));
+        Series closest = null;
+        for (Series candidate : series) {
+            if (candidate.accepts(amountCents) && (closest == null
+                    || Math.abs(amountCents - candidate.medianCents()) < Math.abs(amountCents - closest.medianCents()))) {
+                closest = candidate;
+            }
+        }
+        if (closest != null) {
+            closest.add(rawNote, epochDay, amountCents);
+        } else {
+            series.add(new Series(rawNote, epochDay, amountCents));
+        }
+    }
+
+    private void dropSingleEntrySeries(int currentMonth) {
+        groups.values().removeIf(series -> {
+            series.removeIf(s -> s.size == 1
+                    && currentMonth - monthIndex(LocalDate.ofEpochDay(s.days[0])) > SINGLE_ENTRY_MONTHS);
+            return series.isEmpty();
+        });
+    }
+
+    /**
+     * Candidates as of {@code today}, most confident first.
+     */
+    public List<Candidate> candidates(LocalDate today) {
+        int currentMonth = monthIndex(today);
+        List<Candidate> result = new ArrayList<>();
+        groups.forEach((key, series) -> {
+            for (Series s : series) {
+                Candidate candidate = evaluate(key, s, currentMonth);
+                if (candidate != null) {
+                    result.add(candidate);
+                }
+            }
+        });
+        result.sort(Comparator.comparingDouble(Candidate::confidence).reversed()
+                .thenComparing(Candidate::occurrences, Comparator.reverseOrder()));
+        return result;
+    }
+
+    private static Candidate evaluate(GroupKey key, Series series, int currentMonth) {
+        int n = series.size;
+        if (n < MIN_OCCURRENCES) {
+            return null;
+        }
+        LocalDate first = LocalDate.ofEpochDay(series.days[0]);
+        LocalDate last = LocalDate.ofEpochDay(series.days[n - 1]);
+        if (currentMonth - monthIndex(last) > MAX_MONTHS_SINCE_LAST) {
+            return null;
+        }
+
+        int distinctMonths = 0;
+        int previousMonth = Integer.MIN_VALUE;
+        int[] daysOfMonth = new int[n];
+        for (int i = 0; i < n; i++) {
+            LocalDate date = LocalDate.ofEpochDay(series.days[i]);
+            int month = monthIndex(date);
+            if (month != previousMonth) {
+                distinctMonths++;
+                previousMonth = month;
+            }
+            daysOfMonth[i] = date.getDayOfMonth();
+        }
+        // Mostly one entry per month
+        if (n > distinctMonths * 1.25) {
+            return null;
+        }
+
+        int spanMonths = monthIndex(last) - monthIndex(first) + 1;
+        double coverage = (double) distinctMonths / spanMonths;
+
+        int medianDay = median(daysOfMonth);
+        int onDay = 0;
+        for (int i = 0; i < n; i++) {
+            LocalDate date = LocalDate.ofEpochDay(series.days[i]);
+            int expected = Math.min(medianDay, date.lengthOfMonth());
+            // Circular, so the 30th or 31st is a day away from the 1st
+            int distance = Math.abs(date.getDayOfMonth() - expected);
+            if (Math.min(distance, date.lengthOfMonth() - distance) <= DAY_TOLERANCE) {
+                onDay++;
+            }
+        }
+        double dayConsistency = (double) onDay / n;
+        double history = Math.min(1.0, distinctMonths / 6.0);
+
+        double confidence = coverage * dayConsistency * history;
+        if (confidence < MIN_CONFIDENCE) {
+            return null;
+        }
+
+        long medianCents = series.medianCents();
+        // Amounts are sorted, so only the extremes need checking
+        boolean amountVaries = Math.abs(series.sortedCents[0] - medianCents) * 50 > medianCents
+                || Math.abs(series.sortedCents[n - 1] - medianCents) * 50 > medianCents;
+        return new Candidate(key, series.note, n, first, last, medianDay, medianCents, amountVaries,
+                Math.round(confidence * 100) / 100.0);
+    }
+
+    private static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static int median(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Lower case letters and single spaces only, so "Rent 03/2024" and "rent" group together.
+     */
+    static String normalize(String note) {
+        if (note == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(note.length());
+        boolean space = false;
+        for (char c : note.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetter(c)) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
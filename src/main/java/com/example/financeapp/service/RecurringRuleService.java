@@ -6,6 +6,7 @@ import com.example.financeapp.exception.ResourceNotFoundException;
 import com.example.financeapp.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,7 +14,20 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,6 +40,12 @@ public class RecurringRuleService {
     private final EntryRepository entryRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final BudgetService budgetService;
+    private final ReferenceDataCache referenceDataCache;
+    private final DataVersionService dataVersionService;
+    private final ChangeLogService changeLogService;
+    private final RuleRewriteService ruleRewriteService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // No longer generating future transactions - sync only creates transactions for dates <= today
 
@@ -43,6 +63,16 @@ public class RecurringRuleService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Rules of the current user with the given ids, in no particular order; unknown ids are skipped.
+     */
+    public List<RecurringRuleResponseDto> getRulesByIds(Collection<Long> ids) {
+        Long userId = getCurrentUserId();
+        return ruleRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
     public RecurringRuleResponseDto getRule(Long id) {
         Long userId = getCurrentUserId();
         RecurringRule rule = ruleRepository.findByIdAndUserId(id, userId)
@@ -56,17 +86,14 @@ public class RecurringRuleService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        validateRuleDto(dto.getEndType(), dto.getTotalOccurrences(),
+        validateRuleDto(dto.getFrequency(), dto.getEndType(), dto.getTotalOccurrences(),
                 dto.getAmountIsVariable(), dto.getAmountDefault(),
                 dto.getDateIsVariable(), dto.getDayOfMonth());
 
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
         Category category = null;
         if (dto.getCategoryId() != null) {
-            category = categoryRepository.findById(dto.getCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-            if (!category.getUser().getId().equals(userId)) {
-                throw new ResourceNotFoundException("Category not found");
-            }
+            category = categoryRepository.getReferenceById(refs.requireCategory(dto.getCategoryId()).id());
         }
 
         RecurringRule rule = new RecurringRule();
@@ -78,6 +105,7 @@ public class RecurringRuleService {
         rule.setCurrency(dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD);
         rule.setAmountDefault(dto.getAmountDefault());
         rule.setAmountIsVariable(dto.getAmountIsVariable() != null ? dto.getAmountIsVariable() : false);
+        rule.setFrequency(dto.getFrequency() != null ? dto.getFrequency() : RecurrenceFrequency.MONTHLY);
         rule.setDayOfMonth(dto.getDayOfMonth());
         rule.setDateIsVariable(dto.getDateIsVariable() != null ? dto.getDateIsVariable() : false);
         rule.setStartDate(dto.getStartDate());
@@ -87,8 +115,11 @@ public class RecurringRuleService {
         rule.setIsActive(true);
 
         RecurringRule saved = ruleRepository.save(rule);
+        changeLogService.recordUpsert(userId, ChangeEntityType.RULE, saved.getId());
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
         log.info("Created recurring rule: {} (id={})", saved.getName(), saved.getId());
-        return mapToDto(saved);
+        return mapToDto(saved, refs);
     }
 
     @Transactional
@@ -96,18 +127,16 @@ public class RecurringRuleService {
         Long userId = getCurrentUserId();
         RecurringRule rule = ruleRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Recurring rule not found"));
+        ruleRewriteService.checkNotRewriting(rule.getId());
 
-        validateRuleDto(dto.getEndType(), dto.getTotalOccurrences(),
+        validateRuleDto(dto.getFrequency(), dto.getEndType(), dto.getTotalOccurrences(),
                 dto.getAmountIsVariable(), dto.getAmountDefault(),
                 dto.getDateIsVariable(), dto.getDayOfMonth());
 
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
         Category category = null;
         if (dto.getCategoryId() != null) {
-            category = categoryRepository.findById(dto.getCategoryId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
-            if (!category.getUser().getId().equals(userId)) {
-                throw new ResourceNotFoundException("Category not found");
-            }
+            category = categoryRepository.getReferenceById(refs.requireCategory(dto.getCategoryId()).id());
         }
 
         // Update rule fields
@@ -118,6 +147,7 @@ public class RecurringRuleService {
         rule.setCurrency(dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD);
         rule.setAmountDefault(dto.getAmountDefault());
         rule.setAmountIsVariable(dto.getAmountIsVariable() != null ? dto.getAmountIsVariable() : false);
+        rule.setFrequency(dto.getFrequency() != null ? dto.getFrequency() : RecurrenceFrequency.MONTHLY);
         rule.setDayOfMonth(dto.getDayOfMonth());
         rule.setDateIsVariable(dto.getDateIsVariable() != null ? dto.getDateIsVariable() : false);
         rule.setStartDate(dto.getStartDate());
@@ -129,12 +159,17 @@ public class RecurringRuleService {
         }
 
         RecurringRule saved = ruleRepository.save(rule);
+        changeLogService.recordUpsert(userId, ChangeEntityType.RULE, saved.getId());
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
 
-        // Apply changes to generated transactions based on scope
-        applyRuleChangesToInstances(saved, applyScope);
+        // Apply changes to generated transactions based on scope (large rewrites run in the background)
+        Long rewriteJobId = ruleRewriteService.applyRuleChanges(saved, applyScope);
 
         log.info("Updated recurring rule: {} (id={}, scope={})", saved.getName(), saved.getId(), applyScope);
-        return mapToDto(saved);
+        RecurringRuleResponseDto response = mapToDto(saved, refs);
+        response.setRewriteJobId(rewriteJobId);
+        return response;
     }
 
     @Transactional
@@ -152,6 +187,9 @@ public class RecurringRuleService {
         }
 
         RecurringRule saved = ruleRepository.save(rule);
+        changeLogService.recordUpsert(userId, ChangeEntityType.RULE, saved.getId());
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
         log.info("Toggled recurring rule active status: {} (id={}, isActive={})",
                 saved.getName(), saved.getId(), saved.getIsActive());
         return mapToDto(saved);
@@ -171,6 +209,9 @@ public class RecurringRuleService {
         }
 
         ruleRepository.save(rule);
+        changeLogService.recordUpsert(userId, ChangeEntityType.RULE, rule.getId());
+        referenceDataCache.refreshAfterCommit(userId);
+        dataVersionService.bumpReferenceAfterCommit(userId);
         log.info("Soft-deleted recurring rule: {} (id={})", rule.getName(), rule.getId());
     }
 
@@ -234,40 +275,32 @@ public class RecurringRuleService {
                     .build();
         }
 
-        YearMonth startMonth = YearMonth.from(rule.getStartDate());
-        YearMonth todayMonth = YearMonth.from(today);
-        
-        // Get current instance count for FIXED_TERM progress tracking
-        long existingCount = instanceRepository.countByRuleId(rule.getId());
+        RecurrenceSchedule schedule = RecurrenceSchedule.of(rule);
 
-        // Generate for each month from rule start up to today's month
-        YearMonth month = startMonth;
-
-        while (!month.isAfter(todayMonth)) {
-            // Check FIXED_TERM limit
-            if (rule.getEndType() == EndType.FIXED_TERM && rule.getTotalOccurrences() != null) {
-                if (existingCount + created >= rule.getTotalOccurrences()) {
-                    break;
-                }
-            }
+        // Occurrences due so far (scheduledDate <= today), capped for FIXED_TERM rules
+        long due = schedule.countThrough(today);
+        long remaining = Long.MAX_VALUE;
+        List<LocalDate> existing = instanceRepository.findScheduledDatesByRuleId(rule.getId());
+        if (rule.getEndType() == EndType.FIXED_TERM && rule.getTotalOccurrences() != null) {
+            due = Math.min(due, rule.getTotalOccurrences());
+            remaining = rule.getTotalOccurrences() - existing.size();
+        }
 
-            LocalDate scheduledDate = calculateScheduledDate(rule, month);
-
-            // Only create if scheduledDate <= today (not in the future)
-            if (!scheduledDate.isAfter(today)) {
-                // Check if ANY instance exists for this rule in this month (not just exact date).
-                // This prevents creating duplicate transactions when dayOfMonth changes.
-                // E.g., if Nov 8 exists and user changes day to 4, we shouldn't create Nov 4.
-                boolean instanceExistsForMonth = instanceRepository.existsByRuleIdAndYearMonth(
-                        rule.getId(), month.getYear(), month.getMonthValue());
-                
-                if (!instanceExistsForMonth) {
-                    createTransactionFromRule(rule, scheduledDate, (int) (existingCount + created + 1));
-                    created++;
-                }
+        // A period counts as generated if ANY instance falls in it (not just on the exact date).
+        // This prevents creating duplicate transactions when dayOfMonth changes.
+        // E.g., if Nov 8 exists and user changes day to 4, we shouldn't create Nov 4.
+        BitSet generated = new BitSet();
+        for (LocalDate scheduledFor : existing) {
+            long period = schedule.periodIndex(scheduledFor);
+            if (period >= 0 && period < due) {
+                generated.set((int) period);
             }
+        }
 
-            month = month.plusMonths(1);
+        // Only the missing occurrences are visited, never every period since the start
+        for (int n = generated.nextClearBit(0); n < due && created < remaining; n = generated.nextClearBit(n + 1)) {
+            createTransactionFromRule(rule, schedule.occurrence(n), n + 1);
+            created++;
         }
 
         return SyncResultDto.RuleSyncDetail.builder()
@@ -282,6 +315,19 @@ public class RecurringRuleService {
      * Creates a transaction (Entry) from a recurring rule.
      */
     private void createTransactionFromRule(RecurringRule rule, LocalDate scheduledDate, int occurrenceIndex) {
+        // Set amount: use default if available, otherwise 0 for variable amount rules
+        // (the user confirms it from the pending list)
+        BigDecimal amount = rule.getAmountDefault() != null ? rule.getAmountDefault() : BigDecimal.ZERO;
+        createTransactionFromRule(rule, scheduledDate, amount, occurrenceIndex, false);
+    }
+
+    /**
+     * Creates a transaction (Entry) from a recurring rule with the given amount.
+     *
+     * @param manualOverride whether the values were entered by the user (confirmed)
+     */
+    private Entry createTransactionFromRule(RecurringRule rule, LocalDate scheduledDate, BigDecimal amount,
+                                            int occurrenceIndex, boolean manualOverride) {
         // Create the transaction (Entry)
         Entry entry = new Entry();
         entry.setUser(rule.getUser());
@@ -291,14 +337,7 @@ public class RecurringRuleService {
         entry.setDate(scheduledDate);
         entry.setScheduledFor(scheduledDate);
         entry.setRecurringRule(rule);
-
-        // Set amount: use default if available, otherwise 0 for variable amount rules
-        if (rule.getAmountDefault() != null) {
-            entry.setAmount(rule.getAmountDefault());
-        } else {
-            // For variable amount rules without default, set to 0 (user must edit)
-            entry.setAmount(BigDecimal.ZERO);
-        }
+        entry.setAmount(amount);
 
         // Build note with rule reference
         String note = rule.getNote();
@@ -310,13 +349,14 @@ public class RecurringRuleService {
         entry.setNote(note);
 
         Entry savedEntry = entryRepository.save(entry);
+        recordChange(null, EntrySnapshot.of(savedEntry));
 
         // Create the instance link
         RecurringInstance instance = new RecurringInstance();
         instance.setRule(rule);
         instance.setTransaction(savedEntry);
         instance.setScheduledFor(scheduledDate);
-        instance.setIsManualOverride(false);
+        instance.setIsManualOverride(manualOverride);
 
         if (rule.getEndType() == EndType.FIXED_TERM) {
             instance.setOccurrenceIndex(occurrenceIndex);
@@ -325,73 +365,322 @@ public class RecurringRuleService {
         instanceRepository.save(instance);
 
         log.debug("Created transaction from rule '{}' for date {}", rule.getName(), scheduledDate);
+        return savedEntry;
     }
 
+    // ==================== Pending Confirmations ====================
+
     /**
-     * Calculates the scheduled date for a given month based on rule's day_of_month.
-     * Clamps to last day of month if day doesn't exist (e.g., Feb 30 -> Feb 28/29).
+     * Identifies a pending slot; {@code transactionId} tells apart several generated entries of
+     * a week-based rule within one month and is null for months without an entry.
      */
-    private LocalDate calculateScheduledDate(RecurringRule rule, YearMonth month) {
-        int dayOfMonth = rule.getDayOfMonth() != null ? rule.getDayOfMonth() : 1;
-        int maxDay = month.lengthOfMonth();
-        int actualDay = Math.min(dayOfMonth, maxDay);
-        return month.atDay(actualDay);
+    private record PendingKey(Long ruleId, YearMonth month, Long transactionId) {
     }
 
-    // ==================== Apply Rule Changes ====================
+    /**
+     * A month of a variable rule that waits for the user.
+     *
+     * @param transactionId the unconfirmed generated entry, or null if the month has no entry yet
+     * @param instanceCount how many instances the rule has (for occurrence indexes of new entries)
+     */
+    private record PendingSlot(RecurringRule rule, YearMonth month, Long transactionId,
+                               LocalDate date, BigDecimal amount, long instanceCount) {
+    }
 
     /**
-     * Applies rule changes to existing generated transactions.
-     * 
-     * For FUTURE_ONLY: Updates only future transactions (scheduledFor >= today).
-     * For ALL: Updates ALL transactions from startDate to today, including past ones.
-     * 
-     * Updates include: category, type, currency, amount, and DATE (based on new dayOfMonth).
+     * Months that need the user, oldest first: months up to the current one without an entry for
+     * active variable-date rules, and generated entries of active variable-amount rules that
+     * were never confirmed or edited.
      */
-    private void applyRuleChangesToInstances(RecurringRule rule, ApplyScope scope) {
-        List<RecurringInstance> instancesToUpdate;
-        LocalDate today = LocalDate.now();
+    public List<PendingConfirmationDto> getPending() {
+        Long userId = getCurrentUserId();
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        return findPending(userId, LocalDate.now()).values().stream()
+                .map(slot -> mapPendingToDto(slot, refs))
+                .collect(Collectors.toList());
+    }
 
-        if (scope == ApplyScope.ALL) {
-            // Update ALL non-overridden instances (past and future)
-            instancesToUpdate = instanceRepository.findByRuleIdAndIsManualOverrideFalse(rule.getId());
-        } else {
-            // FUTURE_ONLY: update only future non-overridden instances
-            instancesToUpdate = instanceRepository.findFutureNonOverriddenInstances(rule.getId(), today);
+    /**
+     * Confirms pending months in one transaction: creates the entries of variable-date months
+     * and sets the amounts of generated entries, which are then marked as manually overridden.
+     * Every confirmation is validated before anything is written; one invalid confirmation
+     * rejects the whole request.
+     */
+    @Transactional
+    public PendingConfirmationResultDto confirmPending(PendingConfirmationRequestDto dto) {
+        Long userId = getCurrentUserId();
+        // Concurrent confirmations of the same rules wait here and then see each other's entries,
+        // so a variable-date month is never created twice
+        ruleRepository.findByUserIdAndIdInForUpdate(userId, dto.getConfirmations().stream()
+                .map(PendingConfirmationRequestDto.Confirmation::getRuleId)
+                .collect(Collectors.toSet()));
+        Map<PendingKey, PendingSlot> pending = findPending(userId, LocalDate.now());
+
+        Map<PendingKey, PendingConfirmationRequestDto.Confirmation> confirmed = new LinkedHashMap<>();
+        for (PendingConfirmationRequestDto.Confirmation confirmation : dto.getConfirmations()) {
+            YearMonth month = YearMonth.parse(confirmation.getYearMonth());
+            List<PendingSlot> candidates = pending.values().stream()
+                    .filter(slot -> slot.rule().getId().equals(confirmation.getRuleId()) && slot.month().equals(month))
+                    .filter(slot -> confirmation.getTransactionId() == null
+                            || confirmation.getTransactionId().equals(slot.transactionId()))
+                    .toList();
+            if (candidates.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Rule " + confirmation.getRuleId() + " has nothing pending for " + month);
+            }
+            if (candidates.size() > 1) {
+                throw new IllegalArgumentException("Rule " + confirmation.getRuleId() + " has several entries pending for "
+                        + month + "; pass the transactionId of the one to confirm");
+            }
+            PendingSlot slot = candidates.get(0);
+            PendingKey key = new PendingKey(slot.rule().getId(), month, slot.transactionId());
+            if (confirmed.putIfAbsent(key, confirmation) != null) {
+                throw new IllegalArgumentException(
+                        "Month " + month + " of rule " + confirmation.getRuleId() + " is confirmed more than once");
+            }
+            if (confirmation.getDate() != null && !YearMonth.from(confirmation.getDate()).equals(month)) {
+                throw new IllegalArgumentException("Date " + confirmation.getDate() + " is not in " + month);
+            }
+            if (slot.transactionId() == null && confirmation.getDate() == null) {
+                throw new IllegalArgumentException(
+                        "A date is required for " + month + " of rule '" + slot.rule().getName() + "'");
+            }
+            BigDecimal amount = confirmation.getAmount() != null ? confirmation.getAmount() : slot.amount();
+            if (amount == null || amount.signum() <= 0) {
+                throw new IllegalArgumentException(
+                        "An amount is required for " + month + " of rule '" + slot.rule().getName() + "'");
+            }
         }
 
-        for (RecurringInstance instance : instancesToUpdate) {
-            Entry entry = instance.getTransaction();
-            
-            // Update entry fields from rule
-            entry.setCategory(rule.getCategory());
-            entry.setType(rule.getDirection());
-            entry.setCurrency(rule.getCurrency());
-            
-            // Only update amount if not variable or if there's a default
-            if (!Boolean.TRUE.equals(rule.getAmountIsVariable()) && rule.getAmountDefault() != null) {
-                entry.setAmount(rule.getAmountDefault());
+        List<Long> existingIds = confirmed.keySet().stream()
+                .map(key -> pending.get(key).transactionId())
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, Entry> existing = entryRepository.findAllById(existingIds).stream()
+                .collect(Collectors.toMap(Entry::getId, Function.identity()));
+
+        Map<Long, Integer> createdPerRule = new HashMap<>();
+        List<Long> transactionIds = new ArrayList<>();
+        int created = 0;
+        for (Map.Entry<PendingKey, PendingConfirmationRequestDto.Confirmation> item : confirmed.entrySet()) {
+            PendingSlot slot = pending.get(item.getKey());
+            PendingConfirmationRequestDto.Confirmation confirmation = item.getValue();
+            BigDecimal amount = confirmation.getAmount() != null ? confirmation.getAmount() : slot.amount();
+
+            if (slot.transactionId() == null) {
+                RecurringRule rule = slot.rule();
+                int index = createdPerRule.merge(rule.getId(), 1, Integer::sum);
+                Entry entry = createTransactionFromRule(rule, confirmation.getDate(), amount,
+                        (int) slot.instanceCount() + index, Boolean.TRUE.equals(rule.getAmountIsVariable()));
+                transactionIds.add(entry.getId());
+                created++;
+            } else {
+                Entry entry = existing.get(slot.transactionId());
+                EntrySnapshot before = EntrySnapshot.of(entry);
+                entry.setAmount(amount);
+                if (confirmation.getDate() != null) {
+                    entry.setDate(confirmation.getDate());
+                }
+                Entry saved = entryRepository.save(entry);
+                recordChange(before, EntrySnapshot.of(saved));
+                transactionIds.add(saved.getId());
             }
+        }
+        if (!existingIds.isEmpty()) {
+            instanceRepository.markManualOverrideByTransactionIdIn(existingIds);
+        }
+
+        log.info("Confirmed {} pending months ({} entries created, {} updated)",
+                confirmed.size(), created, existingIds.size());
+        return PendingConfirmationResultDto.builder()
+                .created(created)
+                .updated(existingIds.size())
+                .transactionIds(transactionIds)
+                .build();
+    }
 
-            // Update the DATE based on new dayOfMonth (if date is not variable)
-            if (!Boolean.TRUE.equals(rule.getDateIsVariable()) && rule.getDayOfMonth() != null) {
-                // Get the month from the original scheduled date and apply new dayOfMonth
-                YearMonth month = YearMonth.from(instance.getScheduledFor());
-                LocalDate newDate = calculateScheduledDate(rule, month);
-                
-                entry.setDate(newDate);
-                entry.setScheduledFor(newDate);
-                instance.setScheduledFor(newDate);
-                
-                instanceRepository.save(instance);
+    /**
+     * Computes every pending month of the user from one query over the variable rules and
+     * the months their instances occupy.
+     */
+    private Map<PendingKey, PendingSlot> findPending(Long userId, LocalDate today) {
+        YearMonth currentMonth = YearMonth.from(today);
+        List<Object[]> rows = ruleRepository.findVariableRulesWithInstances(userId);
+        List<PendingSlot> slots = new ArrayList<>();
+
+        int i = 0;
+        while (i < rows.size()) {
+            RecurringRule rule = (RecurringRule) rows.get(i)[0];
+            boolean amountIsVariable = Boolean.TRUE.equals(rule.getAmountIsVariable());
+            Set<YearMonth> occupied = new HashSet<>();
+            long instanceCount = 0;
+            List<PendingSlot> unconfirmed = new ArrayList<>();
+            for (; i < rows.size() && ((RecurringRule) rows.get(i)[0]).getId().equals(rule.getId()); i++) {
+                Object[] row = rows.get(i);
+                if (row[1] == null) {
+                    continue;
+                }
+                YearMonth month = YearMonth.from((LocalDate) row[1]);
+                occupied.add(month);
+                instanceCount++;
+                if (amountIsVariable && !Boolean.TRUE.equals(row[2]) && row[3] != null) {
+                    unconfirmed.add(new PendingSlot(rule, month, (Long) row[3], (LocalDate) row[4],
+                            (BigDecimal) row[5], 0));
+                }
+            }
+            slots.addAll(unconfirmed);
+
+            if (Boolean.TRUE.equals(rule.getDateIsVariable()) && rule.getStartDate() != null) {
+                long remaining = rule.getEndType() == EndType.FIXED_TERM && rule.getTotalOccurrences() != null
+                        ? rule.getTotalOccurrences() - instanceCount
+                        : Long.MAX_VALUE;
+                for (YearMonth month = YearMonth.from(rule.getStartDate());
+                     !month.isAfter(currentMonth) && remaining > 0; month = month.plusMonths(1)) {
+                    if (!occupied.contains(month)) {
+                        slots.add(new PendingSlot(rule, month, null, null, rule.getAmountDefault(), instanceCount));
+                        remaining--;
+                    }
+                }
             }
+        }
+
+        Map<PendingKey, PendingSlot> pending = new LinkedHashMap<>();
+        slots.stream()
+                .sorted(Comparator.comparing(PendingSlot::month)
+                        .thenComparing(slot -> slot.rule().getId())
+                        .thenComparing(slot -> slot.date(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(slot -> pending.put(new PendingKey(slot.rule().getId(), slot.month(), slot.transactionId()), slot));
+        return pending;
+    }
+
+    private PendingConfirmationDto mapPendingToDto(PendingSlot slot, ReferenceDataSnapshot refs) {
+        RecurringRule rule = slot.rule();
+        Long categoryId = rule.getCategory() != null ? rule.getCategory().getId() : null;
+        boolean needsAmount = slot.transactionId() != null
+                || Boolean.TRUE.equals(rule.getAmountIsVariable())
+                || rule.getAmountDefault() == null;
+        return PendingConfirmationDto.builder()
+                .ruleId(rule.getId())
+                .ruleName(rule.getName())
+                .direction(rule.getDirection())
+                .categoryId(categoryId)
+                .categoryName(categoryId != null
+                        ? refs.category(categoryId).map(ReferenceDataSnapshot.CategoryRef::name).orElse(null)
+                        : null)
+                .currency(rule.getCurrency())
+                .yearMonth(slot.month().toString())
+                .transactionId(slot.transactionId())
+                .date(slot.date())
+                .amount(slot.amount())
+                .needsDate(slot.transactionId() == null)
+                .needsAmount(needsAmount)
+                .build();
+    }
+
+    // ==================== Update Preview ====================
+
+    /**
+     * Shows what {@link #updateRule} would do to the generated transactions with the same
+     * request and scope, without writing anything. Uses one projection query over the rule's
+     * instances and applies the same rules as {@link RuleRewriteService} in memory.
+     */
+    @Transactional(readOnly = true)
+    public RuleUpdatePreviewDto previewUpdate(Long id, UpdateRecurringRuleRequestDto dto, ApplyScope applyScope) {
+        Long userId = getCurrentUserId();
+        RecurringRule rule = ruleRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring rule not found"));
+
+        validateRuleDto(dto.getFrequency(), dto.getEndType(), dto.getTotalOccurrences(),
+                dto.getAmountIsVariable(), dto.getAmountDefault(),
+                dto.getDateIsVariable(), dto.getDayOfMonth());
+        Long categoryId = dto.getCategoryId() != null
+                ? referenceDataCache.get(userId).requireCategory(dto.getCategoryId()).id()
+                : null;
+        CurrencyCode currency = dto.getCurrency() != null ? dto.getCurrency() : CurrencyCode.RSD;
+        boolean updatesAmount = !Boolean.TRUE.equals(dto.getAmountIsVariable()) && dto.getAmountDefault() != null;
+        boolean updatesDate = !Boolean.TRUE.equals(dto.getDateIsVariable()) && dto.getDayOfMonth() != null;
+        RecurrenceSchedule schedule = RecurrenceSchedule.of(dto.getFrequency(), dto.getStartDate(), dto.getDayOfMonth());
 
-            entryRepository.save(entry);
+        LocalDate today = LocalDate.now();
+        int affected = 0;
+        int unchanged = 0;
+        List<RuleUpdatePreviewDto.DateShift> dateShifts = new ArrayList<>();
+        List<RuleUpdatePreviewDto.SkippedInstance> skipped = new ArrayList<>();
+        Map<YearMonth, Map<CurrencyCode, BigDecimal>> deltas = new TreeMap<>();
+
+        for (Object[] row : instanceRepository.findTransactionStatesByRuleId(rule.getId())) {
+            LocalDate scheduledFor = (LocalDate) row[0];
+            if (applyScope != ApplyScope.ALL && scheduledFor.isBefore(today)) {
+                continue;
+            }
+            Long transactionId = (Long) row[2];
+            LocalDate date = (LocalDate) row[3];
+            BigDecimal amount = (BigDecimal) row[4];
+            if (Boolean.TRUE.equals(row[1])) {
+                skipped.add(RuleUpdatePreviewDto.SkippedInstance.builder()
+                        .transactionId(transactionId)
+                        .scheduledFor(scheduledFor)
+                        .date(date)
+                        .amount(amount)
+                        .build());
+                continue;
+            }
+            EntryType type = (EntryType) row[5];
+            CurrencyCode entryCurrency = (CurrencyCode) row[6];
+
+            BigDecimal newAmount = updatesAmount ? dto.getAmountDefault() : amount;
+            LocalDate newDate = updatesDate ? schedule.reschedule(scheduledFor) : date;
+            boolean changes = !newDate.equals(date)
+                    || newAmount.compareTo(amount) != 0
+                    || type != dto.getDirection()
+                    || entryCurrency != currency
+                    || !Objects.equals(row[7], categoryId);
+            if (!changes) {
+                unchanged++;
+                continue;
+            }
+            affected++;
+
+            if (!newDate.equals(date)) {
+                dateShifts.add(RuleUpdatePreviewDto.DateShift.builder()
+                        .transactionId(transactionId)
+                        .from(date)
+                        .to(newDate)
+                        .build());
+            }
+            addNet(deltas, date, entryCurrency, type == EntryType.EXPENSE ? amount : amount.negate());
+            addNet(deltas, newDate, currency, dto.getDirection() == EntryType.EXPENSE ? newAmount.negate() : newAmount);
         }
 
-        log.info("Applied rule changes to {} instances (scope={})", instancesToUpdate.size(), scope);
+        List<RuleUpdatePreviewDto.MonthlyDelta> monthlyDeltas = new ArrayList<>();
+        deltas.forEach((month, byCurrency) -> byCurrency.forEach((deltaCurrency, delta) -> {
+            if (delta.signum() != 0) {
+                monthlyDeltas.add(RuleUpdatePreviewDto.MonthlyDelta.builder()
+                        .yearMonth(month.toString())
+                        .currency(deltaCurrency)
+                        .netDelta(delta)
+                        .build());
+            }
+        }));
+
+        return RuleUpdatePreviewDto.builder()
+                .applyScope(applyScope)
+                .affectedCount(affected)
+                .unchangedCount(unchanged)
+                .dateShifts(dateShifts)
+                .monthlyDeltas(monthlyDeltas)
+                .skippedOverrides(skipped)
+                .build();
+    }
+
+    private static void addNet(Map<YearMonth, Map<CurrencyCode, BigDecimal>> deltas,
+                               LocalDate date, CurrencyCode currency, BigDecimal net) {
+        deltas.computeIfAbsent(YearMonth.from(date), month -> new EnumMap<>(CurrencyCode.class))
+                .merge(currency, net, BigDecimal::add);
     }
 
+    // ==================== Delete Future Instances ====================
+
     /**
      * Deletes future instances that haven't been manually edited.
      */
@@ -401,6 +690,7 @@ public class RecurringRuleService {
 
         for (RecurringInstance instance : futurInstances) {
             Entry entry = instance.getTransaction();
+            recordChange(EntrySnapshot.of(entry), null);
             instanceRepository.delete(instance);
             entryRepository.delete(entry);
         }
@@ -408,11 +698,21 @@ public class RecurringRuleService {
         log.info("Deleted {} future instances for rule {}", futurInstances.size(), ruleId);
     }
 
+    /**
+     * Keeps derived state in sync for an entry written by this service
+     * (budget counters, report caches, ...), exactly as EntryService does for manual writes.
+     */
+    private void recordChange(EntrySnapshot before, EntrySnapshot after) {
+        budgetService.applyEntryChange(before, after);
+        eventPublisher.publishEvent(new EntryChangedEvent(before, after));
+    }
+
     // ==================== Validation ====================
 
-    private void validateRuleDto(EndType endType, Integer totalOccurrences,
+    private void validateRuleDto(RecurrenceFrequency frequency, EndType endType, Integer totalOccurrences,
                                   Boolean amountIsVariable, BigDecimal amountDefault,
                                   Boolean dateIsVariable, Integer dayOfMonth) {
+        boolean monthBased = frequency == null || frequency.isMonthBased();
 
         // FIXED_TERM requires totalOccurrences
         if (endType == EndType.FIXED_TERM && (totalOccurrences == null || totalOccurrences < 1)) {
@@ -424,15 +724,28 @@ public class RecurringRuleService {
             throw new IllegalArgumentException("Fixed amount rules require amountDefault");
         }
 
-        // If date is not variable, we need a day of month
-        if (!Boolean.TRUE.equals(dateIsVariable) && dayOfMonth == null) {
+        // If date is not variable, month-based rules need a day of month
+        if (monthBased && !Boolean.TRUE.equals(dateIsVariable) && dayOfMonth == null) {
             throw new IllegalArgumentException("Fixed date rules require dayOfMonth");
         }
+
+        // Variable dates are confirmed per month (see pending confirmations)
+        if (Boolean.TRUE.equals(dateIsVariable) && frequency != null && frequency != RecurrenceFrequency.MONTHLY) {
+            throw new IllegalArgumentException("Only monthly rules can have a variable date");
+        }
     }
 
     // ==================== DTO Mapping ====================
 
     private RecurringRuleResponseDto mapToDto(RecurringRule rule) {
+        return mapToDto(rule, null);
+    }
+
+    /**
+     * @param refs reference snapshot to take category names from instead of initializing the
+     *             rule's category (used right after the category was set by reference), or null
+     */
+    private RecurringRuleResponseDto mapToDto(RecurringRule rule, ReferenceDataSnapshot refs) {
         long createdCount = instanceRepository.countByRuleId(rule.getId());
 
         RecurringRuleResponseDto.RecurringRuleResponseDtoBuilder builder = RecurringRuleResponseDto.builder()
@@ -443,6 +756,7 @@ public class RecurringRuleService {
                 .currency(rule.getCurrency())
                 .amountDefault(rule.getAmountDefault())
                 .amountIsVariable(rule.getAmountIsVariable())
+                .frequency(rule.getFrequency())
                 .dayOfMonth(rule.getDayOfMonth())
                 .dateIsVariable(rule.getDateIsVariable())
                 .startDate(rule.getStartDate())
@@ -456,9 +770,13 @@ public class RecurringRuleService {
 
         // Category info
         if (rule.getCategory() != null) {
-            builder.categoryId(rule.getCategory().getId())
-                    .categoryName(rule.getCategory().getName())
-                    .categoryEmoji(rule.getCategory().getEmoji());
+            Long categoryId = rule.getCategory().getId();
+            Optional<ReferenceDataSnapshot.CategoryRef> ref = refs != null ? refs.category(categoryId) : Optional.empty();
+            builder.categoryId(categoryId)
+                    .categoryName(ref.map(ReferenceDataSnapshot.CategoryRef::name)
+                            .orElseGet(() -> rule.getCategory().getName()))
+                    .categoryEmoji(ref.map(ReferenceDataSnapshot.CategoryRef::emoji)
+                            .orElseGet(() -> rule.getCategory().getEmoji()));
         }
 
         // Computed: next scheduled date
@@ -493,25 +811,14 @@ public class RecurringRuleService {
             return null;
         }
 
-        LocalDate today = LocalDate.now();
-        YearMonth startMonth = YearMonth.from(rule.getStartDate());
-        YearMonth currentMonth = YearMonth.from(today);
-
-        // If the rule hasn't started yet, return the first scheduled date
-        if (startMonth.isAfter(currentMonth)) {
-            return calculateScheduledDate(rule, startMonth);
-        }
-
-        // Calculate the scheduled date for the current month
-        LocalDate currentMonthScheduled = calculateScheduledDate(rule, currentMonth);
-
-        // If today is before or on the scheduled day this month, return this month's date
-        // Otherwise, return next month's date
-        if (!today.isAfter(currentMonthScheduled)) {
-            return currentMonthScheduled;
-        } else {
-            return calculateScheduledDate(rule, currentMonth.plusMonths(1));
+        // First occurrence on or after today (the first one if the rule hasn't started yet)
+        RecurrenceSchedule schedule = RecurrenceSchedule.of(rule);
+        long next = schedule.countThrough(LocalDate.now().minusDays(1));
+        if (rule.getEndType() == EndType.FIXED_TERM && rule.getTotalOccurrences() != null
+                && next >= rule.getTotalOccurrences()) {
+            return null;
         }
+        return schedule.occurrence(next);
     }
 
     // ==================== Instance Operations ====================
@@ -0,0 +1,125 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.CreateRecurringRuleRequestDto;
+import com.example.financeapp.dto.RecurringRuleSuggestionDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EndType;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.entity.RecurringKind;
+import com.example.financeapp.entity.RecurringRule;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.RecurringRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Suggests recurring rules for entries the user keeps logging by hand every month
+ * (see {@link RecurringPatternMiner}). Patterns an active rule already covers are left out.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecurringSuggestionService {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final EntryRepository entryRepository;
+    private final RecurringRuleRepository ruleRepository;
+    private final ReferenceDataCache referenceDataCache;
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    /**
+     * Streams the user's manual entries once; no entities are loaded.
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringRuleSuggestionDto> getSuggestions() {
+        Long userId = getCurrentUserId();
+        RecurringPatternMiner miner = new RecurringPatternMiner();
+        int scanned = 0;
+        try (Stream<Object[]> rows = entryRepository.streamManualEntries(userId)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                miner.add((String) row[0], (Long) row[1], (EntryType) row[2], (CurrencyCode) row[3],
+                        toCents((BigDecimal) row[4]), (LocalDate) row[5]);
+                scanned++;
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        List<RecurringRule> activeRules = ruleRepository.findByUserIdAndIsActiveTrue(userId);
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        List<RecurringRuleSuggestionDto> suggestions = miner.candidates(today).stream()
+                .filter(candidate -> activeRules.stream().noneMatch(rule -> covers(rule, candidate)))
+                .limit(MAX_SUGGESTIONS)
+                .map(candidate -> toDto(candidate, refs, today))
+                .toList();
+        log.debug("Mined {} manual entries for user {}: {} suggestions", scanned, userId, suggestions.size());
+        return suggestions;
+    }
+
+    private static boolean covers(RecurringRule rule, RecurringPatternMiner.Candidate candidate) {
+        if (rule.getCategory() == null
+                || !rule.getCategory().getId().equals(candidate.key().categoryId())
+                || rule.getCurrency() != candidate.key().currency()
+                || rule.getDirection() != candidate.key().type()) {
+            return false;
+        }
+        if (rule.getAmountDefault() == null || Boolean.TRUE.equals(rule.getAmountIsVariable())) {
+            return true;
+        }
+        long ruleCents = toCents(rule.getAmountDefault());
+        return Math.abs(ruleCents - candidate.medianCents()) * 4 <= candidate.medianCents();
+    }
+
+    private static RecurringRuleSuggestionDto toDto(RecurringPatternMiner.Candidate candidate,
+                                                    ReferenceDataSnapshot refs, LocalDate today) {
+        String categoryName = refs.category(candidate.key().categoryId())
+                .map(ReferenceDataSnapshot.CategoryRef::name)
+                .orElse(null);
+        String name = candidate.note() != null && !candidate.note().isBlank() ? candidate.note() : categoryName;
+
+        // Start with the first month after the last logged one, so nothing already logged is generated again
+        YearMonth startMonth = YearMonth.from(candidate.last()).plusMonths(1);
+        if (startMonth.isBefore(YearMonth.from(today))) {
+            startMonth = YearMonth.from(today);
+        }
+        LocalDate startDate = startMonth.atDay(Math.min(candidate.dayOfMonth(), startMonth.lengthOfMonth()));
+
+        CreateRecurringRuleRequestDto rule = new CreateRecurringRuleRequestDto();
+        rule.setName(name);
+        rule.setKind(candidate.key().type() == EntryType.INCOME ? RecurringKind.INCOME : RecurringKind.OTHER);
+        rule.setDirection(candidate.key().type());
+        rule.setCategoryId(candidate.key().categoryId());
+        rule.setCurrency(candidate.key().currency());
+        rule.setAmountDefault(BigDecimal.valueOf(candidate.medianCents(), 2));
+        rule.setAmountIsVariable(candidate.amountVaries());
+        rule.setDayOfMonth(candidate.dayOfMonth());
+        rule.setDateIsVariable(false);
+        rule.setStartDate(startDate);
+        rule.setEndType(EndType.OPEN_ENDED);
+
+        return RecurringRuleSuggestionDto.builder()
+                .confidence(candidate.confidence())
+                .occurrences(candidate.occurrences())
+                .firstDate(candidate.first())
+                .lastDate(candidate.last())
+                .categoryName(categoryName)
+                .rule(rule)
+                .build();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.repository.CategoryClosureRepository;
+import com.example.financeapp.repository.CategoryRepository;
+import com.example.financeapp.repository.RecurringRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of {@link ReferenceDataSnapshot}s, one per user.
+ *
+ * Snapshots are never modified: after a category or rule write commits, the user's snapshot
+ * is dropped and the next read installs a freshly loaded one as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCache {
+
+    private static final int MAX_USERS = 1000;
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final RecurringRuleRepository ruleRepository;
+
+    private final Map<Long, ReferenceDataSnapshot> snapshots = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ReferenceDataSnapshot> eldest) {
+                    return size() > MAX_USERS;
+                }
+            });
+
+    /**
+     * Bumped on every eviction; a snapshot loaded while it moved may predate the write
+     * and is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReferenceDataSnapshot get(Long userId) {
+        ReferenceDataSnapshot cached = snapshots.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        ReferenceDataSnapshot loaded = ReferenceDataSnapshot.of(
+                categoryRepository.findByUserId(userId),
+                categoryClosureRepository.findByUserId(userId),
+                ruleRepository.findByUserIdAndIsActiveTrue(userId));
+        synchronized (snapshots) {
+            if (generation.get() == loadedAt) {
+                snapshots.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the user's snapshot once the current transaction commits (immediately when there is none).
+     */
+    public void refreshAfterCommit(Long userId) {
+        AfterCommit.run(() -> evict(userId));
+    }
+
+    private void evict(Long userId) {
+        synchronized (snapshots) {
+            generation.incrementAndGet();
+            snapshots.remove(userId);
+        }
+    }
+}
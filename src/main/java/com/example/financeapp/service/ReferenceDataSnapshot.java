@@ -0,0 +1,111 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.Category;
+import com.example.financeapp.entity.CategoryClosure;
+import com.example.financeapp.entity.RecurringRule;
+import com.example.financeapp.exception.ResourceNotFoundException;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable view of one user's categories (including archived ones), their closure table rows
+ * and active recurring rules. Entry and rule writes validate against it and fill in display
+ * names from it, so they do not have to load the referenced rows.
+ */
+public final class ReferenceDataSnapshot {
+
+    public record CategoryRef(Long id, String name, String emoji, boolean isDefault, boolean archived,
+                              Long parentId, int level) {
+    }
+
+    public record RuleRef(Long id, String name, Long categoryId) {
+    }
+
+    private final Map<Long, CategoryRef> categories;
+    private final Map<Long, RuleRef> activeRules;
+
+    /**
+     * Closure rows by descendant: the ancestor at index d is d levels above the category.
+     */
+    private final Map<Long, Long[]> ancestorsByDepth;
+
+    private ReferenceDataSnapshot(Map<Long, CategoryRef> categories, Map<Long, RuleRef> activeRules,
+                                  Map<Long, Long[]> ancestorsByDepth) {
+        this.categories = categories;
+        this.activeRules = activeRules;
+        this.ancestorsByDepth = ancestorsByDepth;
+    }
+
+    public static ReferenceDataSnapshot of(Collection<Category> categories, Collection<CategoryClosure> closure,
+                                           Collection<RecurringRule> activeRules) {
+        Map<Long, CategoryRef> categoryRefs = new LinkedHashMap<>();
+        categories.stream()
+                .sorted(Comparator.comparing(Category::getId))
+                .forEach(c -> categoryRefs.put(c.getId(),
+                        new CategoryRef(c.getId(), c.getName(), c.getEmoji(), c.isDefault(), c.isArchived(),
+                                c.getParent() != null ? c.getParent().getId() : null, c.getLevel())));
+
+        Map<Long, RuleRef> ruleRefs = new LinkedHashMap<>();
+        for (RecurringRule rule : activeRules) {
+            Long categoryId = rule.getCategory() != null ? rule.getCategory().getId() : null;
+            ruleRefs.put(rule.getId(), new RuleRef(rule.getId(), rule.getName(), categoryId));
+        }
+
+        Map<Long, Long[]> ancestorsByDepth = new HashMap<>();
+        for (CategoryClosure path : closure) {
+            Long[] ancestors = ancestorsByDepth.computeIfAbsent(path.getDescendantId(),
+                    id -> new Long[Category.MAX_LEVEL + 1]);
+            if (path.getDepth() < ancestors.length) {
+                ancestors[path.getDepth()] = path.getAncestorId();
+            }
+        }
+        return new ReferenceDataSnapshot(
+                Collections.unmodifiableMap(categoryRefs), Collections.unmodifiableMap(ruleRefs), ancestorsByDepth);
+    }
+
+    public Optional<CategoryRef> category(Long id) {
+        return Optional.ofNullable(categories.get(id));
+    }
+
+    /**
+     * The category's ancestor at the given level (0 = top level), looked up in the closure rows
+     * by (descendant, depth); categories at or above that level, or without closure rows, are
+     * their own.
+     */
+    public Long ancestorAtLevel(Long categoryId, int level) {
+        CategoryRef ref = categories.get(categoryId);
+        Long[] ancestors = ancestorsByDepth.get(categoryId);
+        if (ref == null || ancestors == null || ref.level() <= level) {
+            return categoryId;
+        }
+        Long ancestor = ancestors[ref.level() - level];
+        return ancestor != null ? ancestor : categoryId;
+    }
+
+    /**
+     * Returns the user's category, or throws the same 404 a failed ownership check would.
+     */
+    public CategoryRef requireCategory(Long id) {
+        return category(id).orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+    }
+
+    /**
+     * Non-archived categories, ordered by id.
+     */
+    public List<CategoryRef> activeCategories() {
+        return categories.values().stream()
+                .filter(c -> !c.archived())
+                .toList();
+    }
+
+    public Optional<RuleRef> activeRule(Long id) {
+        return Optional.ofNullable(activeRules.get(id));
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.financeapp.service;
 
+import com.example.financeapp.dto.CategoryComparisonDto;
 import com.example.financeapp.dto.CategoryTotalDto;
 import com.example.financeapp.dto.CurrencyTotalDto;
+import com.example.financeapp.dto.DailyCurrencyTotalsDto;
+import com.example.financeapp.dto.DailyTotalsResponseDto;
 import com.example.financeapp.dto.EntryResponseDto;
+import com.example.financeapp.dto.MonthComparisonResponseDto;
 import com.example.financeapp.dto.MonthlySummaryResponseDto;
+import com.example.financeapp.entity.Category;
 import com.example.financeapp.entity.CurrencyCode;
-import com.example.financeapp.entity.Entry;
-import com.example.financeapp.entity.EntryType;
-import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.EntrySearchCriteria;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,18 +19,54 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+/**
+ * Month reports, aggregated from the user's in-memory {@link EntryColumns} rather than by
+ * querying entries, and cached per month in {@link MonthReportCache}.
+ */
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
-    private final EntryRepository entryRepository;
+    private static final CurrencyCode[] CURRENCIES = CurrencyCode.values();
+
     private final EntryService entryService;
+    private final ExchangeRateService exchangeRateService;
+    private final MonthReportCache monthReportCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final EntryColumnsCache entryColumnsCache;
+
+    /**
+     * Maps the category indexes of an {@link EntryColumns} to report slots; each slot
+     * reports the category id at the same position.
+     */
+    private record CategorySlots(int[] slotOfIndex, long[] categoryIds) {
+
+        static CategorySlots of(EntryColumns columns) {
+            int count = columns.categoryCount();
+            int[] slotOfIndex = new int[count];
+            long[] categoryIds = new long[count];
+            for (int c = 0; c < count; c++) {
+                slotOfIndex[c] = c;
+                categoryIds[c] = columns.categoryId(c);
+            }
+            return new CategorySlots(slotOfIndex, categoryIds);
+        }
+
+        int slotOf(int categoryIndex) {
+            return slotOfIndex[categoryIndex];
+        }
+
+        int size() {
+            return categoryIds.length;
+        }
+    }
 
     private Long getCurrentUserId() {
         return 1L;
@@ -38,101 +77,321 @@ public class ReportService {
         YearMonth ym = YearMonth.parse(yearMonth);
         LocalDate from = ym.atDay(1);
         LocalDate to = ym.atEndOfMonth();
-        return entryService.getEntries(from, to, Optional.of(categoryId), Optional.ofNullable(currency));
+        return entryService.getEntries(EntrySearchCriteria.builder()
+                .from(from)
+                .to(to)
+                .categoryIds(List.of(categoryId))
+                .currency(currency)
+                .build());
     }
 
-    public List<CategoryTotalDto> getSpendingByCategory(String yearMonth, CurrencyCode currency) {
+    /**
+     * Returns expense totals per category for a single currency, or - when baseCurrency is given -
+     * for all currencies converted into baseCurrency at the rate of each entry's date.
+     * With a depth, subcategory totals are rolled up to their ancestor at that level
+     * (0 = top-level categories); without one, every category is reported on its own.
+     */
+    public List<CategoryTotalDto> getSpendingByCategory(String yearMonth, CurrencyCode currency,
+                                                        Optional<CurrencyCode> baseCurrency, Optional<Integer> depth) {
         Long userId = getCurrentUserId();
-
         YearMonth ym = YearMonth.parse(yearMonth);
-        LocalDate from = ym.atDay(1);
-        LocalDate to = ym.atEndOfMonth();
+        if (depth.isPresent() && (depth.get() < 0 || depth.get() > Category.MAX_LEVEL)) {
+            throw new IllegalArgumentException("depth must be between 0 and " + Category.MAX_LEVEL);
+        }
+        return monthReportCache.get(userId, "spending-by-category", List.of(ym),
+                Arrays.asList(currency, baseCurrency.orElse(null), depth.orElse(null)),
+                () -> computeSpendingByCategory(userId, ym, currency, baseCurrency, depth));
+    }
 
-        List<Entry> entries = entryRepository.findByUserIdAndDateBetweenAndOptionalFilters(
-                userId, from, to, null, currency
-        );
+    private List<CategoryTotalDto> computeSpendingByCategory(Long userId, YearMonth ym, CurrencyCode currency,
+                                                             Optional<CurrencyCode> baseCurrency,
+                                                             Optional<Integer> depth) {
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        ExchangeRateTable rates = baseCurrency.isPresent() ? exchangeRateService.getRateTable() : null;
+        return entryColumnsCache.get(userId).read(columns -> {
+            CategorySlots slots = depth.isPresent()
+                    ? rolledUpSlots(columns, refs, depth.get())
+                    : CategorySlots.of(columns);
+            BigDecimal[] totals = sumExpenses(columns, ym, currency, baseCurrency.orElse(null), rates, slots);
+            return categoryTotals(refs, slots, totals);
+        });
+    }
 
-        return buildSpendingByCategory(entries);
+    /**
+     * Maps every category to its ancestor at the given level (categories at or above that
+     * level map to themselves) through the closure rows in the reference snapshot.
+     */
+    private static CategorySlots rolledUpSlots(EntryColumns columns, ReferenceDataSnapshot refs, int depth) {
+        int count = columns.categoryCount();
+        int[] slotOfIndex = new int[count];
+        Map<Long, Integer> slotByAncestor = new HashMap<>();
+        List<Long> ancestors = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            slotOfIndex[c] = slotByAncestor.computeIfAbsent(refs.ancestorAtLevel(columns.categoryId(c), depth),
+                    ancestor -> {
+                        ancestors.add(ancestor);
+                        return ancestors.size() - 1;
+                    });
+        }
+        return new CategorySlots(slotOfIndex, ancestors.stream().mapToLong(Long::longValue).toArray());
     }
 
-    public MonthlySummaryResponseDto getMonthlySummary(String yearMonth) {
+    /**
+     * Returns income/expense totals per currency and spending by category for a month.
+     * When baseCurrency is given, a consolidated total over all currencies is added and the
+     * category breakdown covers every currency converted into baseCurrency; otherwise the
+     * category breakdown is for RSD only.
+     */
+    public MonthlySummaryResponseDto getMonthlySummary(String yearMonth, Optional<CurrencyCode> baseCurrency) {
         Long userId = getCurrentUserId();
-        
+
         // Parse yearMonth (e.g., "2025-11") to LocalDate range
         YearMonth ym = YearMonth.parse(yearMonth);
+        return monthReportCache.get(userId, "summary", List.of(ym), Arrays.asList(baseCurrency.orElse(null)),
+                () -> computeMonthlySummary(userId, ym, baseCurrency));
+    }
+
+    private MonthlySummaryResponseDto computeMonthlySummary(Long userId, YearMonth ym, Optional<CurrencyCode> baseCurrency) {
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        ExchangeRateTable rates = baseCurrency.isPresent() ? exchangeRateService.getRateTable() : null;
         LocalDate from = ym.atDay(1);
         LocalDate to = ym.atEndOfMonth();
 
-        List<Entry> entries = entryRepository.findByUserIdAndDateBetween(userId, from, to);
+        return entryColumnsCache.get(userId).read(columns -> {
+            // One slot per currency and type: income at 2c, expenses at 2c + 1
+            long[] cents = columns.sum(from, to, CURRENCIES.length * 2,
+                    row -> columns.currencyOrdinal(row) * 2 + (columns.isExpense(row) ? 1 : 0));
 
-        // Group by currency and calculate totals
-        Map<CurrencyCode, List<Entry>> entriesByCurrency = entries.stream()
-                .collect(Collectors.groupingBy(Entry::getCurrency));
+            List<CurrencyTotalDto> currencyTotals = new ArrayList<>();
+            for (CurrencyCode currency : CURRENCIES) {
+                long income = cents[currency.ordinal() * 2];
+                long expenses = cents[currency.ordinal() * 2 + 1];
+                if (income == 0 && expenses == 0) {
+                    continue;
+                }
+                currencyTotals.add(CurrencyTotalDto.builder()
+                        .currency(currency)
+                        .totalIncome(BigDecimal.valueOf(income, 2))
+                        .totalExpenses(BigDecimal.valueOf(expenses, 2))
+                        .net(BigDecimal.valueOf(income - expenses, 2))
+                        .build());
+            }
 
-        List<CurrencyTotalDto> currencyTotals = new ArrayList<>();
-        for (Map.Entry<CurrencyCode, List<Entry>> entry : entriesByCurrency.entrySet()) {
-            CurrencyCode currency = entry.getKey();
-            List<Entry> currencyEntries = entry.getValue();
+            CategorySlots slots = CategorySlots.of(columns);
+            if (baseCurrency.isPresent()) {
+                CurrencyCode base = baseCurrency.get();
 
-            BigDecimal totalIncome = currencyEntries.stream()
-                    .filter(e -> e.getType() == EntryType.INCOME)
-                    .map(Entry::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                // Convert per entry so each amount uses the rate of its own date
+                BigDecimal[] consolidated = {BigDecimal.ZERO, BigDecimal.ZERO};
+                columns.forEach(from, to, row -> {
+                    int type = columns.isExpense(row) ? 1 : 0;
+                    consolidated[type] = consolidated[type].add(convert(columns, row, base, rates));
+                });
 
-            BigDecimal totalExpenses = currencyEntries.stream()
-                    .filter(e -> e.getType() == EntryType.EXPENSE)
-                    .map(Entry::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                return MonthlySummaryResponseDto.builder()
+                        .yearMonth(ym.toString())
+                        .totalsByCurrency(currencyTotals)
+                        .baseCurrency(base)
+                        .consolidatedTotal(CurrencyTotalDto.builder()
+                                .currency(base)
+                                .totalIncome(consolidated[0])
+                                .totalExpenses(consolidated[1])
+                                .net(consolidated[0].subtract(consolidated[1]))
+                                .build())
+                        .categoryTotals(categoryTotals(refs, slots, sumExpenses(columns, ym, null, base, rates, slots)))
+                        .build();
+            }
 
-            BigDecimal net = totalIncome.subtract(totalExpenses);
+            // Spending by category for RSD only (expenses only)
+            return MonthlySummaryResponseDto.builder()
+                    .yearMonth(ym.toString())
+                    .totalsByCurrency(currencyTotals)
+                    .categoryTotals(categoryTotals(refs, slots,
+                            sumExpenses(columns, ym, CurrencyCode.RSD, null, null, slots)))
+                    .build();
+        });
+    }
 
-            currencyTotals.add(CurrencyTotalDto.builder()
-                    .currency(currency)
-                    .totalIncome(totalIncome)
-                    .totalExpenses(totalExpenses)
-                    .net(net)
-                    .build());
-        }
+    /**
+     * Returns per-day income and expense totals for a month, one series per currency,
+     * optionally restricted to one category and/or currency.
+     */
+    public DailyTotalsResponseDto getDailyTotals(String yearMonth, Optional<Long> categoryId, Optional<CurrencyCode> currency) {
+        Long userId = getCurrentUserId();
+        YearMonth ym = YearMonth.parse(yearMonth);
+        return monthReportCache.get(userId, "daily", List.of(ym),
+                Arrays.asList(categoryId.orElse(null), currency.orElse(null)),
+                () -> computeDailyTotals(userId, ym, categoryId, currency));
+    }
 
-        // Spending by category for RSD only (expenses only)
-        List<Entry> rsdEntries = entriesByCurrency.getOrDefault(CurrencyCode.RSD, new ArrayList<>());
-        List<CategoryTotalDto> categoryTotals = buildSpendingByCategory(rsdEntries);
+    private DailyTotalsResponseDto computeDailyTotals(Long userId, YearMonth ym,
+                                                      Optional<Long> categoryId, Optional<CurrencyCode> currency) {
+        LocalDate from = ym.atDay(1);
+        long firstDay = from.toEpochDay();
+        int days = ym.lengthOfMonth();
+
+        return entryColumnsCache.get(userId).read(columns -> {
+            int category = categoryId.map(columns::categoryIndexOf).orElse(-1);
+            int onlyCurrency = currency.map(CurrencyCode::ordinal).orElse(-1);
+
+            // One run of days per currency and type: income at 2c, expenses at 2c + 1
+            long[] cents = columns.sum(from, ym.atEndOfMonth(), CURRENCIES.length * 2 * days, row -> {
+                if (categoryId.isPresent() && columns.categoryIndex(row) != category) {
+                    return -1;
+                }
+                int c = columns.currencyOrdinal(row);
+                if (onlyCurrency >= 0 && c != onlyCurrency) {
+                    return -1;
+                }
+                return (c * 2 + (columns.isExpense(row) ? 1 : 0)) * days + (int) (columns.day(row) - firstDay);
+            });
+
+            List<DailyCurrencyTotalsDto> series = new ArrayList<>();
+            for (CurrencyCode code : CURRENCIES) {
+                int incomeStart = code.ordinal() * 2 * days;
+                long[] income = Arrays.copyOfRange(cents, incomeStart, incomeStart + days);
+                long[] expense = Arrays.copyOfRange(cents, incomeStart + days, incomeStart + 2 * days);
+                if (Arrays.stream(income).anyMatch(v -> v != 0) || Arrays.stream(expense).anyMatch(v -> v != 0)) {
+                    series.add(DailyCurrencyTotalsDto.builder()
+                            .currency(code)
+                            .incomeCents(income)
+                            .expenseCents(expense)
+                            .build());
+                }
+            }
 
-        return MonthlySummaryResponseDto.builder()
-                .yearMonth(yearMonth)
-                .totalsByCurrency(currencyTotals)
-                .categoryTotals(categoryTotals)
-                .build();
+            return DailyTotalsResponseDto.builder()
+                    .yearMonth(ym.toString())
+                    .daysInMonth(days)
+                    .currencies(series)
+                    .build();
+        });
     }
 
-    private List<CategoryTotalDto> buildSpendingByCategory(List<Entry> entries) {
-        // Only expenses
-        List<Entry> expenseEntries = entries.stream()
-                .filter(e -> e.getType() == EntryType.EXPENSE)
-                .toList();
+    /**
+     * Compares spending per category between two months for one currency.
+     * Each month is one slice of the report columns; deltas are then computed in one
+     * pass over the categories.
+     */
+    public MonthComparisonResponseDto compareMonths(String yearMonth, String compareWith, CurrencyCode currency) {
+        Long userId = getCurrentUserId();
+        YearMonth ym = YearMonth.parse(yearMonth);
+        YearMonth other = YearMonth.parse(compareWith);
+        return monthReportCache.get(userId, "compare", List.of(ym, other), Arrays.asList(currency),
+                () -> computeComparison(userId, ym, other, currency));
+    }
 
-        Map<Long, List<Entry>> entriesByCategory = expenseEntries.stream()
-                .collect(Collectors.groupingBy(e -> e.getCategory().getId()));
+    private MonthComparisonResponseDto computeComparison(Long userId, YearMonth ym, YearMonth other, CurrencyCode currency) {
+        ReferenceDataSnapshot refs = referenceDataCache.get(userId);
+        return entryColumnsCache.get(userId).read(columns -> {
+            CategorySlots slots = CategorySlots.of(columns);
+            BigDecimal[] amounts = sumExpenses(columns, ym, currency, null, null, slots);
+            BigDecimal[] compareAmounts = sumExpenses(columns, other, currency, null, null, slots);
 
-        // Precompute per-category totals (positive spending amounts)
-        List<CategoryTotalDto> totals = new ArrayList<>();
-        for (Map.Entry<Long, List<Entry>> entry : entriesByCategory.entrySet()) {
-            Long categoryId = entry.getKey();
-            List<Entry> categoryEntries = entry.getValue();
+            BigDecimal total = BigDecimal.ZERO;
+            BigDecimal compareTotal = BigDecimal.ZERO;
+            List<CategoryComparisonDto> categories = new ArrayList<>();
+            for (int s = 0; s < slots.size(); s++) {
+                if (amounts[s] == null && compareAmounts[s] == null) {
+                    continue;
+                }
+                BigDecimal amount = amounts[s] != null ? amounts[s] : BigDecimal.ZERO;
+                BigDecimal compareAmount = compareAmounts[s] != null ? compareAmounts[s] : BigDecimal.ZERO;
+                total = total.add(amount);
+                compareTotal = compareTotal.add(compareAmount);
+                Optional<ReferenceDataSnapshot.CategoryRef> ref = refs.category(slots.categoryIds()[s]);
+                categories.add(CategoryComparisonDto.builder()
+                        .categoryId(slots.categoryIds()[s])
+                        .categoryName(ref.map(ReferenceDataSnapshot.CategoryRef::name).orElse(null))
+                        .categoryEmoji(ref.map(ReferenceDataSnapshot.CategoryRef::emoji).orElse(null))
+                        .amount(amount)
+                        .compareAmount(compareAmount)
+                        .delta(amount.subtract(compareAmount))
+                        .deltaPercent(percentChange(amount, compareAmount))
+                        .build());
+            }
+            categories.sort(Comparator.comparing((CategoryComparisonDto c) -> c.getDelta().abs()).reversed());
 
-            String categoryName = categoryEntries.get(0).getCategory().getName();
-            BigDecimal totalAmount = categoryEntries.stream()
-                    .map(Entry::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            return MonthComparisonResponseDto.builder()
+                    .yearMonth(ym.toString())
+                    .compareWith(other.toString())
+                    .currency(currency)
+                    .total(total)
+                    .compareTotal(compareTotal)
+                    .delta(total.subtract(compareTotal))
+                    .deltaPercent(percentChange(total, compareTotal))
+                    .categories(categories)
+                    .build();
+        });
+    }
 
+    private static BigDecimal percentChange(BigDecimal value, BigDecimal base) {
+        if (base.signum() == 0) {
+            return null;
+        }
+        return value.subtract(base)
+                .multiply(BigDecimal.valueOf(100))
+                .divide(base, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Expense totals per category slot for one month. Without a base currency only entries in
+     * the given currency are summed, in cents; with one, every entry is converted at the rate
+     * of its own date. Slots without entries are null.
+     */
+    private static BigDecimal[] sumExpenses(EntryColumns columns, YearMonth ym, CurrencyCode currency,
+                                            CurrencyCode baseCurrency, ExchangeRateTable rates, CategorySlots slots) {
+        LocalDate from = ym.atDay(1);
+        LocalDate to = ym.atEndOfMonth();
+        BigDecimal[] totals = new BigDecimal[slots.size()];
+        if (baseCurrency == null) {
+            int c = currency.ordinal();
+            long[] cents = columns.sum(from, to, slots.size(), row ->
+                    columns.isExpense(row) && columns.currencyOrdinal(row) == c
+                            ? slots.slotOf(columns.categoryIndex(row))
+                            : -1);
+            for (int s = 0; s < totals.length; s++) {
+                if (cents[s] != 0) {
+                    totals[s] = BigDecimal.valueOf(cents[s], 2);
+                }
+            }
+            return totals;
+        }
+        columns.forEach(from, to, row -> {
+            if (columns.isExpense(row)) {
+                int s = slots.slotOf(columns.categoryIndex(row));
+                BigDecimal amount = convert(columns, row, baseCurrency, rates);
+                totals[s] = totals[s] != null ? totals[s].add(amount) : amount;
+            }
+        });
+        return totals;
+    }
+
+    private static BigDecimal convert(EntryColumns columns, int row, CurrencyCode baseCurrency, ExchangeRateTable rates) {
+        return rates.convert(BigDecimal.valueOf(columns.cents(row), 2), CURRENCIES[columns.currencyOrdinal(row)],
+                baseCurrency, LocalDate.ofEpochDay(columns.day(row)));
+    }
+
+    private static List<CategoryTotalDto> categoryTotals(ReferenceDataSnapshot refs, CategorySlots slots,
+                                                         BigDecimal[] totalsBySlot) {
+        List<CategoryTotalDto> totals = new ArrayList<>();
+        for (int s = 0; s < totalsBySlot.length; s++) {
+            if (totalsBySlot[s] == null) {
+                continue;
+            }
             totals.add(CategoryTotalDto.builder()
-                    .categoryId(categoryId)
-                    .categoryName(categoryName)
-                    .totalAmount(totalAmount)
+                    .categoryId(slots.categoryIds()[s])
+                    .categoryName(refs.category(slots.categoryIds()[s])
+                            .map(ReferenceDataSnapshot.CategoryRef::name)
+                            .orElse(null))
+                    .totalAmount(totalsBySlot[s])
                     .percentage(BigDecimal.ZERO) // filled in below
                     .build());
         }
+        return withPercentagesSorted(totals);
+    }
 
+    private static List<CategoryTotalDto> withPercentagesSorted(List<CategoryTotalDto> totals) {
         BigDecimal totalSpending = totals.stream()
                 .map(CategoryTotalDto::getTotalAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
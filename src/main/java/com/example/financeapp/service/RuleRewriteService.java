@@ -0,0 +1,231 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.RuleRewriteJobDto;
+import com.example.financeapp.entity.ApplyScope;
+import com.example.financeapp.entity.Entry;
+import com.example.financeapp.entity.RecurringInstance;
+import com.example.financeapp.entity.RecurringRule;
+import com.example.financeapp.entity.RuleRewriteJob;
+import com.example.financeapp.entity.RuleRewriteStatus;
+import com.example.financeapp.exception.ResourceNotFoundException;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.RecurringInstanceRepository;
+import com.example.financeapp.repository.RuleRewriteJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies an updated recurring rule to its generated transactions.
+ *
+ * Small rewrites run in the caller's transaction. Rewrites of more instances than the
+ * configured threshold become a {@link RuleRewriteJob} that a scheduled worker processes in
+ * chunks, each in its own transaction together with the job's cursor, so row locks are held
+ * only for one chunk at a time and a restarted node resumes unfinished jobs on its next poll.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RuleRewriteService {
+
+    private static final Set<RuleRewriteStatus> UNFINISHED = EnumSet.of(RuleRewriteStatus.PENDING, RuleRewriteStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RuleRewriteJobRepository jobRepository;
+    private final RecurringInstanceRepository instanceRepository;
+    private final EntryRepository entryRepository;
+    private final BudgetService budgetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.rule-rewrite.background-threshold:100}")
+    private int backgroundThreshold;
+
+    @Value("${app.rule-rewrite.chunk-size:50}")
+    private int chunkSize;
+
+    private Long getCurrentUserId() {
+        return 1L;
+    }
+
+    /**
+     * Applies the rule's current values to its generated transactions in scope, skipping
+     * manually edited ones. Must run in the transaction that saved the rule.
+     *
+     * For FUTURE_ONLY: Updates only future transactions (scheduledFor >= today).
+     * For ALL: Updates ALL transactions from startDate to today, including past ones.
+     *
+     * @return the id of the background job, or null if the rewrite was done right away
+     */
+    public Long applyRuleChanges(RecurringRule rule, ApplyScope scope) {
+        LocalDate fromDate = scope == ApplyScope.ALL ? null : LocalDate.now();
+        long inScope = fromDate == null
+                ? instanceRepository.countRewritable(rule.getId())
+                : instanceRepository.countRewritableFrom(rule.getId(), fromDate);
+
+        if (inScope <= backgroundThreshold) {
+            List<RecurringInstance> instances = scope == ApplyScope.ALL
+                    ? instanceRepository.findByRuleIdAndIsManualOverrideFalse(rule.getId())
+                    : instanceRepository.findFutureNonOverriddenInstances(rule.getId(), fromDate);
+            instances.forEach(instance -> applyToInstance(rule, instance));
+            log.info("Applied rule changes to {} instances (scope={})", instances.size(), scope);
+            return null;
+        }
+
+        RuleRewriteJob job = new RuleRewriteJob();
+        job.setUser(rule.getUser());
+        job.setRule(rule);
+        job.setApplyScope(scope);
+        job.setFromDate(fromDate);
+        job.setStatus(RuleRewriteStatus.PENDING);
+        job.setTotalCount(Math.toIntExact(inScope));
+        job.setProcessedCount(0);
+        job.setLastInstanceId(0L);
+        RuleRewriteJob saved = jobRepository.save(job);
+        log.info("Queued rewrite job {} for rule {} ({} instances, scope={})", saved.getId(), rule.getId(), inScope, scope);
+        return saved.getId();
+    }
+
+    /**
+     * Rejects another update of a rule while a rewrite of its transactions is unfinished, so
+     * the job never applies values the user did not ask it to.
+     */
+    public void checkNotRewriting(Long ruleId) {
+        jobRepository.findFirstByRuleIdAndStatusIn(ruleId, UNFINISHED).ifPresent(job -> {
+            throw new IllegalArgumentException("The previous update of this rule is still being applied to its "
+                    + "transactions (job " + job.getId() + "); try again once it has finished");
+        });
+    }
+
+    public RuleRewriteJobDto getJob(Long jobId) {
+        Long userId = getCurrentUserId();
+        RuleRewriteJob job = jobRepository.findByIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rewrite job not found"));
+        return mapToDto(job);
+    }
+
+    /**
+     * Processes queued jobs and resumes jobs a previous run of the application left unfinished.
+     */
+    @Scheduled(fixedDelayString = "${app.rule-rewrite.poll-interval-ms:1000}")
+    public void runPendingJobs() {
+        for (Long jobId : jobRepository.findIdsByStatusIn(UNFINISHED)) {
+            run(jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> processChunk(jobId)))) {
+                // Next chunk in a new transaction
+            }
+        } catch (RuntimeException e) {
+            log.error("Rewrite job {} failed", jobId, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(RuleRewriteStatus.FAILED);
+                job.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                job.setFinishedAt(OffsetDateTime.now());
+                jobRepository.save(job);
+            }));
+        }
+    }
+
+    /**
+     * Rewrites the next chunk of a job and moves its cursor, in the caller's transaction.
+     *
+     * @return whether more chunks may follow
+     */
+    private boolean processChunk(Long jobId) {
+        RuleRewriteJob job = jobRepository.findByIdForUpdate(jobId).orElse(null);
+        if (job == null || !UNFINISHED.contains(job.getStatus())) {
+            return false;
+        }
+        RecurringRule rule = job.getRule();
+        // Instances edited by the user since the job was queued are skipped, as in the request itself
+        PageRequest page = PageRequest.of(0, chunkSize);
+        List<RecurringInstance> chunk = job.getFromDate() == null
+                ? instanceRepository.findRewriteChunk(rule.getId(), job.getLastInstanceId(), page)
+                : instanceRepository.findRewriteChunkFrom(rule.getId(), job.getLastInstanceId(), job.getFromDate(), page);
+        chunk.forEach(instance -> applyToInstance(rule, instance));
+
+        job.setProcessedCount(job.getProcessedCount() + chunk.size());
+        if (!chunk.isEmpty()) {
+            job.setLastInstanceId(chunk.get(chunk.size() - 1).getId());
+        }
+        boolean finished = chunk.size() < chunkSize;
+        if (finished) {
+            job.setStatus(RuleRewriteStatus.COMPLETED);
+            job.setFinishedAt(OffsetDateTime.now());
+            log.info("Rewrite job {} completed: {} instances of rule {}", jobId, job.getProcessedCount(), rule.getId());
+        } else {
+            job.setStatus(RuleRewriteStatus.RUNNING);
+        }
+        jobRepository.save(job);
+        return !finished;
+    }
+
+    /**
+     * Updates one generated transaction from the rule: category, type, currency, amount and
+     * DATE (based on the rule's dayOfMonth).
+     */
+    private void applyToInstance(RecurringRule rule, RecurringInstance instance) {
+        Entry entry = instance.getTransaction();
+        EntrySnapshot before = EntrySnapshot.of(entry);
+
+        // Update entry fields from rule
+        entry.setCategory(rule.getCategory());
+        entry.setType(rule.getDirection());
+        entry.setCurrency(rule.getCurrency());
+
+        // Only update amount if not variable or if there's a default
+        if (!Boolean.TRUE.equals(rule.getAmountIsVariable()) && rule.getAmountDefault() != null) {
+            entry.setAmount(rule.getAmountDefault());
+        }
+
+        // Update the DATE based on new dayOfMonth (if date is not variable)
+        if (!Boolean.TRUE.equals(rule.getDateIsVariable()) && rule.getDayOfMonth() != null) {
+            // Keep the original period and apply new dayOfMonth (week-based rules keep their date)
+            LocalDate newDate = RecurrenceSchedule.of(rule).reschedule(instance.getScheduledFor());
+
+            entry.setDate(newDate);
+            entry.setScheduledFor(newDate);
+            instance.setScheduledFor(newDate);
+
+            instanceRepository.save(instance);
+        }
+
+        Entry saved = entryRepository.save(entry);
+        EntrySnapshot after = EntrySnapshot.of(saved);
+        budgetService.applyEntryChange(before, after);
+        eventPublisher.publishEvent(new EntryChangedEvent(before, after));
+    }
+
+    private RuleRewriteJobDto mapToDto(RuleRewriteJob job) {
+        int total = job.getTotalCount();
+        int percent = total == 0 ? 100 : (int) Math.min(100L, job.getProcessedCount() * 100L / total);
+        return RuleRewriteJobDto.builder()
+                .id(job.getId())
+                .ruleId(job.getRule().getId())
+                .applyScope(job.getApplyScope())
+                .status(job.getStatus())
+                .totalCount(total)
+                .processedCount(job.getProcessedCount())
+                .progressPercent(job.getStatus() == RuleRewriteStatus.COMPLETED ? 100 : percent)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+-- Seeds category usage from existing entries for categories that have never been used since
+-- the usage columns were introduced. Idempotent; runs on every start. Categories with usage
+-- are maintained by the usage tracker and left alone.
+
+UPDATE categories c
+SET usage_count = used.uses,
+    last_used_at = used.last_used_at
+FROM (
+    SELECT category_id, COUNT(*) AS uses, MAX(created_at) AS last_used_at
+    FROM entries
+    GROUP BY category_id
+) used
+WHERE used.category_id = c.id
+  AND c.usage_count = 0
+  AND c.last_used_at IS NULL;
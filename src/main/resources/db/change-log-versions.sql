@@ -0,0 +1,15 @@
+-- Numbers change log rows written before per-user versions existed and seeds each user's
+-- version counter past them. Idempotent; runs on every start.
+
+-- Clients synced against the old ids, which stay valid as versions
+UPDATE change_log SET version = id WHERE version = 0;
+
+-- Counters only ever grow once they exist, so only users without one need seeding
+INSERT INTO change_log_versions (user_id, version)
+SELECT user_id, MAX(version) FROM (
+    SELECT user_id, version FROM change_log
+    UNION ALL
+    SELECT user_id, min_since FROM change_log_horizon
+) known
+GROUP BY user_id
+ON CONFLICT (user_id) DO NOTHING;
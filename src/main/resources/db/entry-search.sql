@@ -0,0 +1,14 @@
+-- Search support for entry notes (GET /api/entries/search). Idempotent; runs on every start
+-- after Hibernate has created or validated the tables (spring.jpa.defer-datasource-initialization).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Word search: maintained by Postgres on every insert and update. The 'simple' configuration
+-- does no stemming, so it works the same for notes in any language.
+ALTER TABLE entries ADD COLUMN IF NOT EXISTS note_tsv tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(note, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_entries_note_tsv ON entries USING gin (note_tsv);
+
+-- Substring (LIKE '%vet%') and typo-tolerant (<%) matches
+CREATE INDEX IF NOT EXISTS idx_entries_note_trgm ON entries USING gin (lower(note) gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- One overview per user and month, which the upsert's ON CONFLICT (user_id, year_month) relies on.
+-- Idempotent; runs on every start. Tables created before the constraint may hold duplicate
+-- rows, which would keep both Hibernate (ddl-auto: update) and this index from being created,
+-- and prod (ddl-auto: validate) never creates constraints at all.
+
+-- Keep the most recently updated row of each month (the highest id on a tie)
+DELETE FROM monthly_overviews m
+USING monthly_overviews keep
+WHERE keep.user_id = m.user_id
+  AND keep.year_month = m.year_month
+  AND (keep.updated_at, keep.id) > (m.updated_at, m.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_monthly_overviews_user_month ON monthly_overviews (user_id, year_month);
@@ -0,0 +1,141 @@
+package com.example.financeapp.repository;
+
+import com.example.financeapp.entity.CurrencyCode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Checks that the SQL generated for common entry filter combinations, and the note search, can
+ * be served by the matching idx_entries_* indexes. Needs a scratch PostgreSQL 16+ database (for EXPLAIN GENERIC_PLAN);
+ * the schema is created there with ddl-auto=update:
+ *
+ * <pre>PLAN_TEST_DATABASE_URL=jdbc:postgresql://localhost:5432/plan_test PLAN_TEST_DATABASE_USERNAME=... PLAN_TEST_DATABASE_PASSWORD=... mvn test</pre>
+ *
+ * Sequential scans are disabled for the check, since on an empty table they are always cheapest.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${PLAN_TEST_DATABASE_URL}",
+        "spring.datasource.username=${PLAN_TEST_DATABASE_USERNAME:postgres}",
+        "spring.datasource.password=${PLAN_TEST_DATABASE_PASSWORD:}",
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.financeapp.repository.EntrySearchQueryPlanTest$SqlRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "PLAN_TEST_DATABASE_URL", matches = ".+")
+class EntrySearchQueryPlanTest {
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private EntryRepository entryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Date range only should use the user/date index")
+    void dateRangeUsesDateIndex() {
+        assertThat(planFor(EntrySearchCriteria.builder().from(FROM).to(TO).build()))
+                .contains("idx_entries_user_date");
+    }
+
+    @Test
+    @DisplayName("Category filters should use the user/category/date index")
+    void categoryFilterUsesCategoryIndex() {
+        assertThat(planFor(EntrySearchCriteria.builder().from(FROM).to(TO).categoryIds(List.of(1L)).build()))
+                .contains("idx_entries_user_category_date");
+        assertThat(planFor(EntrySearchCriteria.builder().from(FROM).to(TO).categoryIds(List.of(1L, 2L, 3L)).build()))
+                .contains("idx_entries_user_category_date");
+    }
+
+    @Test
+    @DisplayName("Currency filter should use the user/currency/date index")
+    void currencyFilterUsesCurrencyIndex() {
+        assertThat(planFor(EntrySearchCriteria.builder().from(FROM).to(TO).currency(CurrencyCode.EUR).build()))
+                .contains("idx_entries_user_currency_date");
+    }
+
+    @Test
+    @DisplayName("Manual-only filter should use the user/rule/date index")
+    void manualFilterUsesRuleIndex() {
+        assertThat(planFor(EntrySearchCriteria.builder().from(FROM).to(TO).generated(false).build()))
+                .contains("idx_entries_user_rule_date");
+    }
+
+    @Test
+    @DisplayName("Note search should use the note indexes and reach rule matches through the user/rule/date index")
+    void noteSearchUsesNoteAndRuleIndexes() {
+        String plan = planFor(() -> entryRepository.searchNotes(1L, "vet", "%vet%", 20));
+
+        assertThat(plan).contains("idx_entries_note_tsv", "idx_entries_note_trgm", "idx_entries_user_rule_date");
+    }
+
+    private String planFor(EntrySearchCriteria criteria) {
+        return planFor(() -> entryRepository.findAll(
+                EntrySpecifications.matching(1L, criteria), Sort.by(Sort.Direction.DESC, "date", "id")));
+    }
+
+    private String planFor(Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        String sql = SqlRecorder.STATEMENTS.stream()
+                .filter(s -> s.contains("entries"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        @SuppressWarnings("unchecked")
+        List<String> plan = entityManager
+                .createNativeQuery("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql))
+                .getResultList();
+        return plan.stream().collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * JDBC '?' placeholders to the $n form EXPLAIN GENERIC_PLAN expects.
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++n);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
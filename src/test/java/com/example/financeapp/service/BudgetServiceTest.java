@@ -0,0 +1,233 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.*;
+import com.example.financeapp.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long FOOD = 3L;
+    private static final Long RENT = 4L;
+    private static final LocalDate MAY = LocalDate.of(2024, 5, 10);
+    private static final LocalDate JUNE = LocalDate.of(2024, 6, 2);
+
+    @Mock
+    private CategoryBudgetRepository budgetRepository;
+
+    @Mock
+    private BudgetSpendRepository spendRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BudgetService service;
+
+    @Nested
+    @DisplayName("Single Entry Change Tests")
+    class ApplyEntryChangeTests {
+
+        @Test
+        @DisplayName("Should add a created expense and report it over its limit")
+        void shouldAddCreatedExpense() {
+            // Given
+            limit(FOOD, CurrencyCode.RSD, "100.00");
+            when(spendRepository.addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("120.00")))
+                    .thenReturn(new BigDecimal("120.00"));
+
+            // When
+            boolean overBudget = service.applyEntryChange(null, expense(FOOD, "120.00", CurrencyCode.RSD, MAY));
+
+            // Then
+            assertThat(overBudget).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should apply only the difference when the entry stays on its counter")
+        void shouldApplyDifferenceOnSameCounter() {
+            // Given
+            limit(FOOD, CurrencyCode.RSD, "100.00");
+            when(spendRepository.addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("7.50")))
+                    .thenReturn(new BigDecimal("50.00"));
+
+            // When
+            boolean overBudget = service.applyEntryChange(
+                    expense(FOOD, "12.50", CurrencyCode.RSD, MAY),
+                    expense(FOOD, "20.00", CurrencyCode.RSD, MAY.plusDays(3)));
+
+            // Then
+            assertThat(overBudget).isFalse();
+            verify(spendRepository, times(1)).addToSpent(any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should move the amount when category, month or currency changes")
+        void shouldMoveAcrossCounters() {
+            // Given
+            when(budgetRepository.findByUserId(USER_ID)).thenReturn(List.of());
+            when(spendRepository.addToSpent(anyLong(), anyLong(), anyString(), anyString(), any()))
+                    .thenReturn(BigDecimal.ZERO);
+
+            // When
+            service.applyEntryChange(expense(FOOD, "12.50", CurrencyCode.RSD, MAY),
+                    expense(RENT, "12.50", CurrencyCode.RSD, MAY));
+            service.applyEntryChange(expense(FOOD, "12.50", CurrencyCode.RSD, MAY),
+                    expense(FOOD, "12.50", CurrencyCode.RSD, JUNE));
+            service.applyEntryChange(expense(FOOD, "12.50", CurrencyCode.RSD, MAY),
+                    expense(FOOD, "3.00", CurrencyCode.EUR, MAY));
+
+            // Then
+            verify(spendRepository, times(3)).addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("-12.50"));
+            verify(spendRepository).addToSpent(USER_ID, RENT, "2024-05", "RSD", new BigDecimal("12.50"));
+            verify(spendRepository).addToSpent(USER_ID, FOOD, "2024-06", "RSD", new BigDecimal("12.50"));
+            verify(spendRepository).addToSpent(USER_ID, FOOD, "2024-05", "EUR", new BigDecimal("3.00"));
+        }
+
+        @Test
+        @DisplayName("Should subtract a deleted expense")
+        void shouldSubtractDeletedExpense() {
+            // When
+            boolean overBudget = service.applyEntryChange(expense(FOOD, "12.50", CurrencyCode.RSD, MAY), null);
+
+            // Then
+            assertThat(overBudget).isFalse();
+            verify(spendRepository).addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("-12.50"));
+            verifyNoInteractions(budgetRepository);
+        }
+
+        @Test
+        @DisplayName("Should only count the expense side when the type flips")
+        void shouldCountOnlyExpensesAcrossTypeChanges() {
+            // Given
+            when(budgetRepository.findByUserId(USER_ID)).thenReturn(List.of());
+            when(spendRepository.addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("12.50")))
+                    .thenReturn(new BigDecimal("12.50"));
+
+            // When
+            service.applyEntryChange(income(FOOD, "12.50", MAY), expense(FOOD, "12.50", CurrencyCode.RSD, MAY));
+            service.applyEntryChange(expense(FOOD, "12.50", CurrencyCode.RSD, MAY), income(FOOD, "12.50", MAY));
+            boolean overBudget = service.applyEntryChange(null, income(FOOD, "99.00", MAY));
+
+            // Then
+            assertThat(overBudget).isFalse();
+            verify(spendRepository).addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("12.50"));
+            verify(spendRepository).addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("-12.50"));
+            verifyNoMoreInteractions(spendRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch Entry Change Tests")
+    class ApplyEntryChangesTests {
+
+        @Test
+        @DisplayName("Should upsert each counter once with the summed delta")
+        void shouldAggregatePerCounter() {
+            // Given
+            limit(FOOD, CurrencyCode.RSD, "30.00");
+            when(spendRepository.addToSpent(USER_ID, FOOD, "2024-05", "RSD", new BigDecimal("32.50")))
+                    .thenReturn(new BigDecimal("40.00"));
+            when(spendRepository.addToSpent(USER_ID, RENT, "2024-05", "RSD", new BigDecimal("-5.00")))
+                    .thenReturn(new BigDecimal("10.00"));
+            EntrySnapshot first = expense(10L, FOOD, "20.00", MAY);
+            EntrySnapshot second = expense(11L, FOOD, "12.50", MAY);
+            EntrySnapshot moved = expense(12L, FOOD, "5.00", MAY);
+
+            // When
+            Set<Long> overBudget = service.applyEntryChanges(List.of(
+                    new EntryChangedEvent(null, first),
+                    new EntryChangedEvent(null, second),
+                    new EntryChangedEvent(expense(12L, RENT, "5.00", MAY), moved),
+                    new EntryChangedEvent(moved, null)));
+
+            // Then
+            assertThat(overBudget).containsExactlyInAnyOrder(10L, 11L, 12L);
+            verify(spendRepository, times(2)).addToSpent(any(), any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Counter Backfill Tests")
+    class BackfillTests {
+
+        @Test
+        @DisplayName("Should rebuild counters under the table lock when none exist")
+        void shouldRebuildUnderLock() {
+            // Given
+            when(spendRepository.anyCounterExists()).thenReturn(false);
+
+            // When
+            service.backfillCountersIfEmpty();
+
+            // Then
+            InOrder inOrder = inOrder(spendRepository);
+            inOrder.verify(spendRepository).lockAgainstWriters();
+            inOrder.verify(spendRepository).anyCounterExists();
+            inOrder.verify(spendRepository).rebuildAllCounters();
+        }
+
+        @Test
+        @DisplayName("Should keep existing counters")
+        void shouldSkipExistingCounters() {
+            // Given
+            when(spendRepository.anyCounterExists()).thenReturn(true);
+
+            // When
+            service.backfillCountersIfEmpty();
+
+            // Then
+            verify(spendRepository).lockAgainstWriters();
+            verify(spendRepository, never()).rebuildAllCounters();
+        }
+    }
+
+    private void limit(Long categoryId, CurrencyCode currency, String monthlyLimit) {
+        Category category = new Category();
+        category.setId(categoryId);
+        CategoryBudget budget = new CategoryBudget();
+        budget.setCategory(category);
+        budget.setCurrency(currency);
+        budget.setMonthlyLimit(new BigDecimal(monthlyLimit));
+        when(budgetRepository.findByUserId(USER_ID)).thenReturn(List.of(budget));
+    }
+
+    private static EntrySnapshot expense(Long categoryId, String amount, CurrencyCode currency, LocalDate date) {
+        return new EntrySnapshot(10L, USER_ID, categoryId, EntryType.EXPENSE, new BigDecimal(amount),
+                currency, date, null, null);
+    }
+
+    private static EntrySnapshot expense(Long id, Long categoryId, String amount, LocalDate date) {
+        return new EntrySnapshot(id, USER_ID, categoryId, EntryType.EXPENSE, new BigDecimal(amount),
+                CurrencyCode.RSD, date, null, null);
+    }
+
+    private static EntrySnapshot income(Long categoryId, String amount, LocalDate date) {
+        return new EntrySnapshot(10L, USER_ID, categoryId, EntryType.INCOME, new BigDecimal(amount),
+                CurrencyCode.RSD, date, null, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DailyNetIndexTest {
+
+    private static final LocalDate FIRST = LocalDate.of(2024, 1, 1);
+    private static final LocalDate LAST = LocalDate.of(2024, 12, 31);
+
+    @Test
+    @DisplayName("Should answer prefix and range sums from the initial rows")
+    void shouldSumInitialRows() {
+        // Given
+        DailyNetIndex index = DailyNetIndex.of(FIRST, LAST, List.of(
+                new DailyNetIndex.DailyNet(CurrencyCode.RSD, LocalDate.of(2024, 1, 1), 10_000),
+                new DailyNetIndex.DailyNet(CurrencyCode.RSD, LocalDate.of(2024, 3, 15), -2_500),
+                new DailyNetIndex.DailyNet(CurrencyCode.EUR, LocalDate.of(2024, 3, 15), 700),
+                new DailyNetIndex.DailyNet(CurrencyCode.RSD, LocalDate.of(2024, 12, 31), 1)
+        ));
+
+        // Then
+        assertThat(index.sumThrough(CurrencyCode.RSD, LocalDate.of(2023, 12, 31))).isZero();
+        assertThat(index.sumThrough(CurrencyCode.RSD, LocalDate.of(2024, 3, 14))).isEqualTo(10_000);
+        assertThat(index.sumThrough(CurrencyCode.RSD, LocalDate.of(2024, 3, 15))).isEqualTo(7_500);
+        assertThat(index.sumThrough(CurrencyCode.RSD, LocalDate.of(2030, 1, 1))).isEqualTo(7_501);
+        assertThat(index.sumBetween(CurrencyCode.RSD, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 12, 31))).isEqualTo(-2_499);
+        assertThat(index.sumThrough(CurrencyCode.EUR, LAST)).isEqualTo(700);
+        assertThat(index.sumThrough(CurrencyCode.CRYPTO, LAST)).isZero();
+        assertThat(index.currencies()).containsExactlyInAnyOrder(CurrencyCode.RSD, CurrencyCode.EUR);
+    }
+
+    @Test
+    @DisplayName("Should apply incremental changes and reject days outside the window")
+    void shouldApplyIncrementalChanges() {
+        // Given
+        DailyNetIndex index = DailyNetIndex.of(FIRST, LAST, List.of());
+        assertThat(index.estimatedBytes()).isZero();
+
+        // When
+        boolean inside = index.add(CurrencyCode.EUR, LocalDate.of(2024, 6, 1), 300);
+        index.add(CurrencyCode.EUR, LocalDate.of(2024, 6, 1), -100);
+        boolean outside = index.add(CurrencyCode.EUR, LocalDate.of(2025, 1, 1), 50);
+
+        // Then
+        assertThat(inside).isTrue();
+        assertThat(outside).isFalse();
+        assertThat(index.sumThrough(CurrencyCode.EUR, LocalDate.of(2024, 5, 31))).isZero();
+        assertThat(index.sumThrough(CurrencyCode.EUR, LAST)).isEqualTo(200);
+        assertThat(index.estimatedBytes()).isEqualTo(16 + 8 * (366 + 1));
+    }
+}
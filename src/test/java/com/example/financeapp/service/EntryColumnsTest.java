@@ -0,0 +1,81 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EntryColumnsTest {
+
+    @Test
+    @DisplayName("Should keep rows in day order and sum only the requested range per slot")
+    void shouldSumRangesPerSlot() {
+        // Given - rows added out of order, as patches for backdated entries arrive
+        EntryColumns columns = new EntryColumns();
+        columns.add(1, LocalDate.of(2024, 3, 10), 1_000, 10L, CurrencyCode.RSD, true);
+        columns.add(2, LocalDate.of(2024, 3, 31), 250, 20L, CurrencyCode.RSD, true);
+        columns.add(3, LocalDate.of(2024, 2, 29), 9_999, 10L, CurrencyCode.RSD, true);
+        columns.add(4, LocalDate.of(2024, 3, 1), 50_000, 10L, CurrencyCode.RSD, false);
+        columns.add(5, LocalDate.of(2024, 4, 1), 7, 20L, CurrencyCode.EUR, true);
+
+        // When - expenses per category in March
+        long[] totals = columns.sum(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), columns.categoryCount(),
+                row -> columns.isExpense(row) ? columns.categoryIndex(row) : -1);
+
+        // Then
+        assertThat(columns.size()).isEqualTo(5);
+        assertThat(totals[columns.categoryIndexOf(10L)]).isEqualTo(1_000);
+        assertThat(totals[columns.categoryIndexOf(20L)]).isEqualTo(250);
+        assertThat(columns.categoryIndexOf(99L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should move patched rows and report rows it does not hold")
+    void shouldPatchRows() {
+        // Given
+        EntryColumns columns = new EntryColumns();
+        columns.add(1, LocalDate.of(2024, 5, 1), 400, 10L, CurrencyCode.EUR, true);
+        columns.add(2, LocalDate.of(2024, 5, 1), 600, 10L, CurrencyCode.EUR, true);
+
+        // When - entry 1 moves to June
+        boolean removed = columns.remove(1, LocalDate.of(2024, 5, 1));
+        columns.add(1, LocalDate.of(2024, 6, 2), 400, 10L, CurrencyCode.EUR, true);
+        boolean missing = columns.remove(3, LocalDate.of(2024, 5, 1));
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(missing).isFalse();
+        assertThat(columns.sum(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), 1, row -> 0)).containsExactly(600);
+        assertThat(columns.sum(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30), 1, row -> 0)).containsExactly(400);
+    }
+
+    @Test
+    @DisplayName("Should give the same totals when a large range is summed in parallel")
+    void shouldSumLargeRangesInParallel() {
+        // Given - more rows than the parallel threshold, spread over several years
+        EntryColumns columns = new EntryColumns();
+        LocalDate first = LocalDate.of(2020, 1, 1);
+        int rows = EntryColumns.PARALLEL_THRESHOLD * 2;
+        long expected = 0;
+        for (int i = 0; i < rows; i++) {
+            columns.add(i, first.plusDays(i % 1500), i % 100, (long) (i % 7), CurrencyCode.RSD, i % 3 == 0);
+            if (i % 3 == 0) {
+                expected += i % 100;
+            }
+        }
+
+        // When
+        long[] totals = columns.sum(first, first.plusDays(1500), 2, row -> columns.isExpense(row) ? 1 : 0);
+
+        // Then
+        assertThat(totals[1]).isEqualTo(expected);
+        assertThat(totals[0] + totals[1]).isEqualTo((long) rows / 100 * 4950 + sumBelow(rows % 100));
+    }
+
+    private static long sumBelow(int n) {
+        return (long) n * (n - 1) / 2;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EntryWriteTrackerTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final EntryWriteTracker tracker = new EntryWriteTracker();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not cache builds that overlap a write until its transaction has completed")
+    void shouldNotCacheBuildsOverlappingWrite() {
+        // Given
+        long before = tracker.beforeBuild(USER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+        EntryChangedEvent event = new EntryChangedEvent(null, snapshot());
+
+        // When
+        tracker.onEntryChanged(event);
+        long during = tracker.beforeBuild(USER_ID);
+
+        // Then
+        assertThat(tracker.isTracked(event)).isTrue();
+        assertThat(tracker.mayCache(USER_ID, before)).isFalse();
+        assertThat(tracker.mayCache(USER_ID, during)).isFalse();
+        assertThat(tracker.mayCache(2L, tracker.beforeBuild(2L))).isTrue();
+
+        // When the transaction completes
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertThat(tracker.isTracked(event)).isFalse();
+        assertThat(tracker.mayCache(USER_ID, tracker.beforeBuild(USER_ID))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not track events published outside a transaction")
+    void shouldNotTrackEventsWithoutTransaction() {
+        // Given
+        long before = tracker.beforeBuild(USER_ID);
+        EntryChangedEvent event = new EntryChangedEvent(null, snapshot());
+
+        // When
+        tracker.onEntryChanged(event);
+
+        // Then
+        assertThat(tracker.isTracked(event)).isFalse();
+        assertThat(tracker.mayCache(USER_ID, before)).isFalse();
+        assertThat(tracker.mayCache(USER_ID, tracker.beforeBuild(USER_ID))).isTrue();
+    }
+
+    private static EntrySnapshot snapshot() {
+        return new EntrySnapshot(10L, USER_ID, 3L, EntryType.EXPENSE, new BigDecimal("12.50"),
+                CurrencyCode.RSD, LocalDate.of(2024, 5, 1), "Lunch", null);
+    }
+}
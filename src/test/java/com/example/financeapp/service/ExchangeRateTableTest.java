@@ -0,0 +1,75 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.ExchangeRate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExchangeRateTableTest {
+
+    private static ExchangeRate rate(CurrencyCode currency, LocalDate date, String rate) {
+        ExchangeRate r = new ExchangeRate();
+        r.setCurrency(currency);
+        r.setRateDate(date);
+        r.setRate(new BigDecimal(rate));
+        return r;
+    }
+
+    @Test
+    @DisplayName("Should use the latest rate on or before the entry date")
+    void shouldUseLatestRateOnOrBeforeDate() {
+        // Given - deliberately unsorted input
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate(CurrencyCode.EUR, LocalDate.of(2024, 1, 10), "117.50"),
+                rate(CurrencyCode.EUR, LocalDate.of(2024, 1, 1), "117.00"),
+                rate(CurrencyCode.EUR, LocalDate.of(2024, 1, 20), "118.00")
+        ));
+
+        // Then
+        assertThat(table.convert(new BigDecimal("10"), CurrencyCode.EUR, CurrencyCode.RSD, LocalDate.of(2024, 1, 1)))
+                .isEqualByComparingTo("1170.00");
+        assertThat(table.convert(new BigDecimal("10"), CurrencyCode.EUR, CurrencyCode.RSD, LocalDate.of(2024, 1, 15)))
+                .isEqualByComparingTo("1175.00");
+        assertThat(table.convert(new BigDecimal("10"), CurrencyCode.EUR, CurrencyCode.RSD, LocalDate.of(2025, 6, 1)))
+                .isEqualByComparingTo("1180.00");
+    }
+
+    @Test
+    @DisplayName("Should convert between two non-reference currencies via RSD")
+    void shouldConvertBetweenNonReferenceCurrencies() {
+        // Given
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate(CurrencyCode.EUR, day, "117.00"),
+                rate(CurrencyCode.CRYPTO, day, "234.00")
+        ));
+
+        // Then
+        assertThat(table.convert(new BigDecimal("4"), CurrencyCode.EUR, CurrencyCode.CRYPTO, day))
+                .isEqualByComparingTo("2.00");
+        assertThat(table.convert(new BigDecimal("1170"), CurrencyCode.RSD, CurrencyCode.EUR, day))
+                .isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    @DisplayName("Should fail when no rate exists on or before the date")
+    void shouldFailWithoutRate() {
+        // Given
+        ExchangeRateTable table = ExchangeRateTable.of(List.of(
+                rate(CurrencyCode.EUR, LocalDate.of(2024, 1, 10), "117.50")
+        ));
+
+        // When/Then
+        assertThatThrownBy(() -> table.convert(BigDecimal.ONE, CurrencyCode.EUR, CurrencyCode.RSD, LocalDate.of(2024, 1, 9)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No EUR exchange rate on or before 2024-01-09");
+        assertThatThrownBy(() -> ExchangeRateTable.empty().rateToReference(CurrencyCode.CRYPTO, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.financeapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeywordMatcherTest {
+
+    @Test
+    @DisplayName("Should find the longest keyword contained in the text, ignoring case")
+    void shouldFindLongestKeyword() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.of(List.of(
+                new KeywordMatcher.Keyword("he", 1L),
+                new KeywordMatcher.Keyword("she", 2L),
+                new KeywordMatcher.Keyword("hers", 3L),
+                new KeywordMatcher.Keyword("Netflix", 4L),
+                new KeywordMatcher.Keyword("vet", 5L)
+        ));
+
+        // Then
+        assertThat(matcher.match("ushers")).map(KeywordMatcher.Keyword::categoryId).contains(3L);
+        assertThat(matcher.match("Ushe")).map(KeywordMatcher.Keyword::categoryId).contains(2L);
+        assertThat(matcher.match("the")).map(KeywordMatcher.Keyword::categoryId).contains(1L);
+        assertThat(matcher.match("NETFLIX subscription")).map(KeywordMatcher.Keyword::categoryId).contains(4L);
+        assertThat(matcher.match("Dog to the VET")).map(KeywordMatcher.Keyword::categoryId).contains(5L);
+        assertThat(matcher.match("groceries")).isEmpty();
+        assertThat(matcher.match(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should prefer the first listed keyword among equally long matches")
+    void shouldBreakTiesByOrder() {
+        // Given
+        KeywordMatcher matcher = KeywordMatcher.of(List.of(
+                new KeywordMatcher.Keyword("bar", 1L),
+                new KeywordMatcher.Keyword("foo", 2L),
+                new KeywordMatcher.Keyword("abab", 3L)
+        ));
+
+        // Then
+        assertThat(matcher.match("foo bar")).map(KeywordMatcher.Keyword::categoryId).contains(1L);
+        assertThat(matcher.match("xabababx")).map(KeywordMatcher.Keyword::categoryId).contains(3L);
+        assertThat(KeywordMatcher.of(List.of()).match("anything")).isEmpty();
+    }
+}
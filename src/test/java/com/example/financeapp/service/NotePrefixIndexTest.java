@@ -0,0 +1,62 @@
+package com.example.financeapp.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NotePrefixIndexTest {
+
+    @Test
+    @DisplayName("Should suggest notes by prefix, most used first, ignoring case")
+    void shouldSuggestByPrefix() {
+        // Given
+        NotePrefixIndex index = NotePrefixIndex.of(Map.of(
+                "Netflix", 12L,
+                "netflix ", 3L,
+                "Nespresso", 20L,
+                "Vet", 2L,
+                "Groceries", 7L
+        ));
+
+        // Then
+        assertThat(index.suggest("ne", 10)).containsExactly(
+                new NotePrefixIndex.Suggestion("Nespresso", 20),
+                new NotePrefixIndex.Suggestion("Netflix", 15));
+        assertThat(index.suggest("NET", 10)).containsExactly(new NotePrefixIndex.Suggestion("Netflix", 15));
+        assertThat(index.suggest("n", 1)).containsExactly(new NotePrefixIndex.Suggestion("Nespresso", 20));
+        assertThat(index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply writes, including across compactions")
+    void shouldApplyWrites() {
+        // Given
+        NotePrefixIndex index = NotePrefixIndex.of(Map.of("Vet", 2L, "Rent", 1L));
+
+        // When
+        index.add("Vegetables", 3);
+        index.add("Vet", -2);
+        index.add("rent", 1);
+
+        // Then
+        assertThat(index.suggest("ve", 10)).containsExactly(new NotePrefixIndex.Suggestion("Vegetables", 3));
+        assertThat(index.suggest("re", 10)).containsExactly(new NotePrefixIndex.Suggestion("Rent", 2));
+
+        // When: enough distinct writes to force the delta to be merged into the arrays
+        for (int i = 0; i < 1000; i++) {
+            index.add("note " + i, 1);
+        }
+
+        // Then
+        assertThat(index.size()).isEqualTo(1002);
+        assertThat(index.suggest("note 99", 20)).extracting(NotePrefixIndex.Suggestion::note)
+                .containsExactlyInAnyOrder("note 99", "note 990", "note 991", "note 992", "note 993",
+                        "note 994", "note 995", "note 996", "note 997", "note 998", "note 999");
+        assertThat(index.suggest("ve", 10)).containsExactly(new NotePrefixIndex.Suggestion("Vegetables", 3));
+        assertThat(index.suggest("vet", 10)).isEqualTo(List.of());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.dto.NoteSuggestionDto;
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import com.example.financeapp.repository.EntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Publishes entry events from committed transactions through the real listener infrastructure,
+ * with the tracker registered first as component scanning does.
+ */
+class NoteSuggestionServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private AnnotationConfigApplicationContext context;
+    private EntryRepository entryRepository;
+    private NoteSuggestionService service;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository = mock(EntryRepository.class);
+        when(entryRepository.countManualNotes(USER_ID))
+                .thenReturn(List.<Object[]>of(new Object[]{"Lunch", 2L}));
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(EntryRepository.class, () -> entryRepository);
+        context.register(TransactionConfig.class, EntryWriteTracker.class, NoteSuggestionService.class);
+        context.refresh();
+
+        service = context.getBean(NoteSuggestionService.class);
+        eventPublisher = context;
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should patch the cached index after a committed write instead of rebuilding it")
+    void shouldPatchIndexAfterCommit() {
+        // Given
+        assertThat(service.suggest("lu", 5)).extracting(NoteSuggestionDto::getCount).containsExactly(2L);
+
+        // When
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new EntryChangedEvent(null, snapshot(11L, "Lunch"))));
+
+        // Then
+        assertThat(service.suggest("lu", 5)).extracting(NoteSuggestionDto::getCount).containsExactly(3L);
+        verify(entryRepository, times(1)).countManualNotes(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should not apply a write whose transaction rolled back")
+    void shouldIgnoreRolledBackWrite() {
+        // Given
+        service.suggest("lu", 5);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new EntryChangedEvent(null, snapshot(11L, "Lunch")));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(service.suggest("lu", 5)).extracting(NoteSuggestionDto::getCount).containsExactly(2L);
+        verify(entryRepository, times(1)).countManualNotes(USER_ID);
+    }
+
+    private static EntrySnapshot snapshot(Long id, String note) {
+        return new EntrySnapshot(id, USER_ID, 3L, EntryType.EXPENSE, new BigDecimal("12.50"),
+                CurrencyCode.RSD, LocalDate.of(2024, 5, 1), note, null);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+
+        /**
+         * Begins and commits nothing; only drives transaction synchronization.
+         */
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+}
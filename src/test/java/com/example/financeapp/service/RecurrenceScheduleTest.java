@@ -0,0 +1,54 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.RecurrenceFrequency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RecurrenceScheduleTest {
+
+    @Test
+    @DisplayName("Should match period-by-period iteration for every frequency")
+    void shouldMatchIteration() {
+        LocalDate start = LocalDate.of(2023, 1, 20);
+        for (RecurrenceFrequency frequency : RecurrenceFrequency.values()) {
+            RecurrenceSchedule schedule = RecurrenceSchedule.of(frequency, start, 31);
+
+            // Reference: walk the occurrences one by one
+            long count = 0;
+            LocalDate next = schedule.occurrence(0);
+            for (LocalDate day = start.minusMonths(2); day.isBefore(LocalDate.of(2026, 3, 1)); day = day.plusDays(1)) {
+                while (!next.isAfter(day)) {
+                    count++;
+                    next = schedule.occurrence(count);
+                }
+                assertThat(schedule.countThrough(day)).as("%s count through %s", frequency, day).isEqualTo(count);
+                assertThat(schedule.nextOnOrAfter(day.plusDays(1))).as("%s next after %s", frequency, day).isEqualTo(next);
+                if (count > 0) {
+                    assertThat(schedule.periodIndex(schedule.occurrence(count - 1))).isEqualTo(count - 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should clamp month-based occurrences to the end of short months")
+    void shouldClampDayOfMonth() {
+        RecurrenceSchedule monthly = RecurrenceSchedule.of(RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 1), 31);
+        RecurrenceSchedule quarterly = RecurrenceSchedule.of(RecurrenceFrequency.QUARTERLY, LocalDate.of(2023, 11, 5), 30);
+        RecurrenceSchedule biweekly = RecurrenceSchedule.of(RecurrenceFrequency.BIWEEKLY, LocalDate.of(2024, 1, 3), null);
+
+        assertThat(monthly.occurrence(1)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(monthly.occurrence(3)).isEqualTo(LocalDate.of(2024, 4, 30));
+        assertThat(quarterly.occurrence(1)).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(quarterly.countBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).isEqualTo(4);
+        assertThat(biweekly.occurrence(520)).isEqualTo(LocalDate.of(2024, 1, 3).plusWeeks(1040));
+        assertThat(biweekly.countBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))).isEqualTo(3);
+        // Instances keep their period when the day of month changes
+        assertThat(monthly.reschedule(LocalDate.of(2024, 2, 8))).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(biweekly.reschedule(LocalDate.of(2024, 2, 8))).isEqualTo(LocalDate.of(2024, 2, 8));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.CurrencyCode;
+import com.example.financeapp.entity.EntryType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RecurringPatternMinerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 7, 10);
+
+    @Test
+    @DisplayName("Should find a monthly pattern with a stable day despite note and amount noise")
+    void shouldFindMonthlyPattern() {
+        // Given
+        RecurringPatternMiner miner = new RecurringPatternMiner();
+        miner.add("Rent 01/2024", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_000_000, LocalDate.of(2024, 1, 1));
+        miner.add("rent 02/2024", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_000_000, LocalDate.of(2024, 2, 2));
+        miner.add("Groceries", 4L, EntryType.EXPENSE, CurrencyCode.RSD, 350_000, LocalDate.of(2024, 2, 14));
+        miner.add("RENT", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_100_000, LocalDate.of(2024, 3, 1));
+        miner.add("Rent", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_000_000, LocalDate.of(2024, 4, 30));
+        miner.add("Rent!", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_000_000, LocalDate.of(2024, 5, 1));
+        miner.add("Rent", 3L, EntryType.EXPENSE, CurrencyCode.RSD, 5_000_000, LocalDate.of(2024, 6, 1));
+
+        // When
+        List<RecurringPatternMiner.Candidate> candidates = miner.candidates(TODAY);
+
+        // Then
+        assertThat(candidates).hasSize(1);
+        RecurringPatternMiner.Candidate rent = candidates.get(0);
+        assertThat(rent.key().note()).isEqualTo("rent");
+        assertThat(rent.occurrences()).isEqualTo(6);
+        assertThat(rent.dayOfMonth()).isEqualTo(1);
+        assertThat(rent.medianCents()).isEqualTo(5_000_000);
+        assertThat(rent.amountVaries()).isFalse();
+        assertThat(rent.first()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(rent.last()).isEqualTo(LocalDate.of(2024, 6, 1));
+        // April 30 is a day before May 1, so every date is on the usual day
+        assertThat(rent.confidence()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep amounts a percent apart in one series and split clearly different amounts")
+    void shouldGroupAmountsAroundMedian() {
+        // Given
+        RecurringPatternMiner miner = new RecurringPatternMiner();
+        for (int month = 1; month <= 6; month++) {
+            long cents = month % 2 == 0 ? 11_700 : 11_800;
+            miner.add("Streaming", 8L, EntryType.EXPENSE, CurrencyCode.RSD, cents, LocalDate.of(2024, month, 12));
+            miner.add("Streaming", 8L, EntryType.EXPENSE, CurrencyCode.RSD, 50_000, LocalDate.of(2024, month, 20));
+        }
+
+        // When
+        List<RecurringPatternMiner.Candidate> candidates = miner.candidates(TODAY);
+
+        // Then
+        assertThat(candidates).extracting(RecurringPatternMiner.Candidate::medianCents)
+                .containsExactlyInAnyOrder(11_800L, 50_000L);
+        assertThat(candidates).allSatisfy(candidate -> assertThat(candidate.occurrences()).isEqualTo(6));
+    }
+
+    @Test
+    @DisplayName("Should drop a one-off entry that is not repeated within a few months")
+    void shouldDropOneOffEntries() {
+        // Given
+        RecurringPatternMiner miner = new RecurringPatternMiner();
+        miner.add("Insurance", 9L, EntryType.EXPENSE, CurrencyCode.RSD, 900_000, LocalDate.of(2023, 6, 15));
+        for (int month = 1; month <= 6; month++) {
+            miner.add("Insurance", 9L, EntryType.EXPENSE, CurrencyCode.RSD, 900_000, LocalDate.of(2024, month, 15));
+        }
+
+        // When
+        List<RecurringPatternMiner.Candidate> candidates = miner.candidates(TODAY);
+
+        // Then
+        assertThat(candidates).singleElement().satisfies(candidate -> {
+            assertThat(candidate.first()).isEqualTo(LocalDate.of(2024, 1, 15));
+            assertThat(candidate.occurrences()).isEqualTo(6);
+        });
+    }
+
+    @Test
+    @DisplayName("Should not suggest irregular, too frequent or stopped patterns")
+    void shouldRejectIrregularPatterns() {
+        // Given
+        RecurringPatternMiner miner = new RecurringPatternMiner();
+        // Weekly coffee: several entries per month
+        for (LocalDate day = LocalDate.of(2024, 3, 4); day.isBefore(TODAY); day = day.plusWeeks(1)) {
+            miner.add("Coffee", 5L, EntryType.EXPENSE, CurrencyCode.RSD, 30_000, day);
+        }
+        // Gym paid monthly until last year
+        for (int month = 1; month <= 8; month++) {
+            miner.add("Gym", 6L, EntryType.EXPENSE, CurrencyCode.RSD, 400_000, LocalDate.of(2023, month, 5));
+        }
+        // Haircut on random days every couple of months
+        miner.add("Haircut", 7L, EntryType.EXPENSE, CurrencyCode.RSD, 150_000, LocalDate.of(2024, 1, 3));
+        miner.add("Haircut", 7L, EntryType.EXPENSE, CurrencyCode.RSD, 150_000, LocalDate.of(2024, 3, 20));
+        miner.add("Haircut", 7L, EntryType.EXPENSE, CurrencyCode.RSD, 150_000, LocalDate.of(2024, 6, 11));
+
+        // Then
+        assertThat(miner.candidates(TODAY)).isEmpty();
+    }
+}
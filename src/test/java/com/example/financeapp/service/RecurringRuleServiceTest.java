@@ -13,11 +13,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,6 +45,24 @@ class RecurringRuleServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private ChangeLogService changeLogService;
+
+    @Mock
+    private RuleRewriteService ruleRewriteService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RecurringRuleService service;
 
@@ -103,7 +123,8 @@ class RecurringRuleServiceTest {
             dto.setEndType(EndType.OPEN_ENDED);
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-            when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+            when(referenceDataCache.get(1L)).thenReturn(ReferenceDataSnapshot.of(List.of(testCategory), List.of(), List.of()));
+            when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
             when(ruleRepository.save(any(RecurringRule.class))).thenReturn(testRule);
             when(instanceRepository.countByRuleId(anyLong())).thenReturn(0L);
 
@@ -156,7 +177,8 @@ class RecurringRuleServiceTest {
             savedRule.setUpdatedAt(OffsetDateTime.now());
 
             when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-            when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+            when(referenceDataCache.get(1L)).thenReturn(ReferenceDataSnapshot.of(List.of(testCategory), List.of(), List.of()));
+            when(categoryRepository.getReferenceById(1L)).thenReturn(testCategory);
             when(ruleRepository.save(any(RecurringRule.class))).thenReturn(savedRule);
             when(instanceRepository.countByRuleId(anyLong())).thenReturn(0L);
 
@@ -294,10 +316,9 @@ class RecurringRuleServiceTest {
 
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(testRule));
-            // Already exists for this month (using year-month check)
-            when(instanceRepository.existsByRuleIdAndYearMonth(eq(1L), anyInt(), anyInt()))
-                    .thenReturn(true);
-            when(instanceRepository.countByRuleId(1L)).thenReturn(1L);
+            // Already exists for both months
+            when(instanceRepository.findScheduledDatesByRuleId(1L)).thenReturn(List.of(
+                    testRule.getStartDate(), testRule.getStartDate().plusMonths(1)));
 
             // When
             SyncResultDto result = service.syncTransactions();
@@ -317,9 +338,7 @@ class RecurringRuleServiceTest {
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(testRule));
             // No instance exists for any month
-            when(instanceRepository.existsByRuleIdAndYearMonth(anyLong(), anyInt(), anyInt()))
-                    .thenReturn(false);
-            when(instanceRepository.countByRuleId(1L)).thenReturn(0L);
+            when(instanceRepository.findScheduledDatesByRuleId(1L)).thenReturn(List.of());
             when(entryRepository.save(any(Entry.class))).thenAnswer(inv -> {
                 Entry entry = inv.getArgument(0);
                 entry.setId(100L);
@@ -346,10 +365,9 @@ class RecurringRuleServiceTest {
 
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(testRule));
-            // Instance already exists for this month (on a different day - the old day 8)
-            when(instanceRepository.existsByRuleIdAndYearMonth(eq(1L), anyInt(), anyInt()))
-                    .thenReturn(true);
-            when(instanceRepository.countByRuleId(1L)).thenReturn(1L);
+            // Instances already exist for both months (on a different day - the old day 8)
+            when(instanceRepository.findScheduledDatesByRuleId(1L)).thenReturn(List.of(
+                    testRule.getStartDate().withDayOfMonth(8), testRule.getStartDate().plusMonths(1).withDayOfMonth(8)));
 
             // When
             SyncResultDto result = service.syncTransactions();
@@ -369,7 +387,6 @@ class RecurringRuleServiceTest {
 
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(testRule));
-            when(instanceRepository.countByRuleId(1L)).thenReturn(0L);
 
             // When
             SyncResultDto result = service.syncTransactions();
@@ -405,7 +422,9 @@ class RecurringRuleServiceTest {
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(fixedTermRule));
             // Already created 3 instances (reached limit)
-            when(instanceRepository.countByRuleId(4L)).thenReturn(3L);
+            LocalDate start = fixedTermRule.getStartDate();
+            when(instanceRepository.findScheduledDatesByRuleId(4L)).thenReturn(List.of(
+                    start, start.plusMonths(1), start.plusMonths(2)));
 
             // When
             SyncResultDto result = service.syncTransactions();
@@ -414,6 +433,39 @@ class RecurringRuleServiceTest {
             assertThat(result.getTransactionsCreated()).isEqualTo(0);
             verify(entryRepository, never()).save(any(Entry.class));
         }
+
+        @Test
+        @DisplayName("Should create only the missing occurrences of a long-running weekly rule")
+        void shouldFillMissingWeeklyOccurrences() {
+            // Given - weekly since ten years ago, every occurrence generated except two
+            LocalDate start = LocalDate.now().minusYears(10);
+            testRule.setFrequency(RecurrenceFrequency.WEEKLY);
+            testRule.setStartDate(start);
+            RecurrenceSchedule schedule = RecurrenceSchedule.of(testRule);
+            long due = schedule.countThrough(LocalDate.now());
+            List<LocalDate> existing = new ArrayList<>();
+            for (long n = 0; n < due; n++) {
+                if (n != 100 && n != due - 1) {
+                    existing.add(schedule.occurrence(n));
+                }
+            }
+
+            when(ruleRepository.findActiveRulesForGeneration(1L)).thenReturn(List.of(testRule));
+            when(instanceRepository.findScheduledDatesByRuleId(1L)).thenReturn(existing);
+            when(entryRepository.save(any(Entry.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(instanceRepository.save(any(RecurringInstance.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            // When
+            SyncResultDto result = service.syncTransactions();
+
+            // Then
+            assertThat(result.getTransactionsCreated()).isEqualTo(2);
+            ArgumentCaptor<Entry> entryCaptor = ArgumentCaptor.forClass(Entry.class);
+            verify(entryRepository, times(2)).save(entryCaptor.capture());
+            assertThat(entryCaptor.getAllValues()).extracting(Entry::getDate)
+                    .containsExactly(start.plusWeeks(100), start.plusWeeks(due - 1));
+            verify(instanceRepository, times(1)).findScheduledDatesByRuleId(1L);
+        }
     }
 
     @Nested
@@ -452,6 +504,12 @@ class RecurringRuleServiceTest {
             futureInstance.setIsManualOverride(false);
             Entry futureEntry = new Entry();
             futureEntry.setId(100L);
+            futureEntry.setUser(testUser);
+            futureEntry.setCategory(testCategory);
+            futureEntry.setType(EntryType.EXPENSE);
+            futureEntry.setAmount(new BigDecimal("12.99"));
+            futureEntry.setCurrency(CurrencyCode.EUR);
+            futureEntry.setDate(futureInstance.getScheduledFor());
             futureInstance.setTransaction(futureEntry);
 
             when(ruleRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testRule));
@@ -473,6 +531,201 @@ class RecurringRuleServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Pending Confirmation Tests")
+    class PendingTests {
+
+        private RecurringRule variableDateRule;
+        private YearMonth currentMonth;
+
+        @BeforeEach
+        void setUpVariableRules() {
+            currentMonth = YearMonth.now();
+
+            variableDateRule = new RecurringRule();
+            variableDateRule.setId(3L);
+            variableDateRule.setUser(testUser);
+            variableDateRule.setName("Electricity");
+            variableDateRule.setKind(RecurringKind.BILL);
+            variableDateRule.setDirection(EntryType.EXPENSE);
+            variableDateRule.setCategory(testCategory);
+            variableDateRule.setCurrency(CurrencyCode.RSD);
+            variableDateRule.setAmountDefault(new BigDecimal("50.00"));
+            variableDateRule.setAmountIsVariable(false);
+            variableDateRule.setDateIsVariable(true);
+            variableDateRule.setStartDate(currentMonth.minusMonths(2).atDay(1));
+            variableDateRule.setEndType(EndType.OPEN_ENDED);
+            variableDateRule.setIsActive(true);
+
+            // Netflix becomes a variable-amount rule without a default
+            testRule.setAmountIsVariable(true);
+            testRule.setAmountDefault(null);
+            testRule.setDayOfMonth(1);
+        }
+
+        private List<Object[]> rows() {
+            return List.of(
+                    new Object[]{testRule, currentMonth.minusMonths(1).atDay(1), true, 99L,
+                            currentMonth.minusMonths(1).atDay(1), new BigDecimal("13.49")},
+                    new Object[]{testRule, currentMonth.atDay(1), false, 100L,
+                            currentMonth.atDay(1), BigDecimal.ZERO},
+                    new Object[]{variableDateRule, currentMonth.minusMonths(2).atDay(9), false, 200L,
+                            currentMonth.minusMonths(2).atDay(9), new BigDecimal("50.00")}
+            );
+        }
+
+        @Test
+        @DisplayName("Should list missing variable-date months and unconfirmed variable amounts")
+        void shouldListPendingMonths() {
+            // Given
+            when(ruleRepository.findVariableRulesWithInstances(1L)).thenReturn(rows());
+            when(referenceDataCache.get(1L)).thenReturn(ReferenceDataSnapshot.of(List.of(testCategory), List.of(), List.of()));
+
+            // When
+            List<PendingConfirmationDto> pending = service.getPending();
+
+            // Then - oldest month first; the overridden Netflix entry is already confirmed
+            assertThat(pending).extracting(PendingConfirmationDto::getRuleId, PendingConfirmationDto::getYearMonth)
+                    .containsExactly(
+                            tuple(3L, currentMonth.minusMonths(1).toString()),
+                            tuple(1L, currentMonth.toString()),
+                            tuple(3L, currentMonth.toString()));
+            PendingConfirmationDto netflix = pending.get(1);
+            assertThat(netflix.getTransactionId()).isEqualTo(100L);
+            assertThat(netflix.getNeedsAmount()).isTrue();
+            assertThat(netflix.getNeedsDate()).isFalse();
+            PendingConfirmationDto electricity = pending.get(0);
+            assertThat(electricity.getTransactionId()).isNull();
+            assertThat(electricity.getAmount()).isEqualByComparingTo("50.00");
+            assertThat(electricity.getNeedsDate()).isTrue();
+            assertThat(electricity.getNeedsAmount()).isFalse();
+            assertThat(electricity.getCategoryName()).isEqualTo("Subscriptions");
+        }
+
+        @Test
+        @DisplayName("Should create variable-date entries and confirm generated amounts together")
+        void shouldConfirmPendingMonths() {
+            // Given
+            Entry generated = new Entry();
+            generated.setId(100L);
+            generated.setUser(testUser);
+            generated.setCategory(testCategory);
+            generated.setType(EntryType.EXPENSE);
+            generated.setCurrency(CurrencyCode.EUR);
+            generated.setAmount(BigDecimal.ZERO);
+            generated.setDate(currentMonth.atDay(1));
+
+            when(ruleRepository.findVariableRulesWithInstances(1L)).thenReturn(rows());
+            when(entryRepository.findAllById(List.of(100L))).thenReturn(List.of(generated));
+            when(entryRepository.save(any(Entry.class))).thenAnswer(inv -> {
+                Entry entry = inv.getArgument(0);
+                if (entry.getId() == null) {
+                    entry.setId(300L);
+                }
+                return entry;
+            });
+            when(instanceRepository.save(any(RecurringInstance.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            PendingConfirmationRequestDto dto = new PendingConfirmationRequestDto(List.of(
+                    new PendingConfirmationRequestDto.Confirmation(3L, currentMonth.minusMonths(1).toString(),
+                            null, currentMonth.minusMonths(1).atDay(12), null),
+                    new PendingConfirmationRequestDto.Confirmation(1L, currentMonth.toString(),
+                            null, null, new BigDecimal("14.99"))));
+
+            // When
+            PendingConfirmationResultDto result = service.confirmPending(dto);
+
+            // Then
+            assertThat(result.getCreated()).isEqualTo(1);
+            assertThat(result.getUpdated()).isEqualTo(1);
+            assertThat(result.getTransactionIds()).containsExactly(300L, 100L);
+            assertThat(generated.getAmount()).isEqualByComparingTo("14.99");
+            verify(instanceRepository).markManualOverrideByTransactionIdIn(List.of(100L));
+
+            ArgumentCaptor<RecurringInstance> instanceCaptor = ArgumentCaptor.forClass(RecurringInstance.class);
+            verify(instanceRepository).save(instanceCaptor.capture());
+            RecurringInstance created = instanceCaptor.getValue();
+            assertThat(created.getRule()).isSameAs(variableDateRule);
+            assertThat(created.getScheduledFor()).isEqualTo(currentMonth.minusMonths(1).atDay(12));
+            assertThat(created.getTransaction().getAmount()).isEqualByComparingTo("50.00");
+        }
+
+        @Test
+        @DisplayName("Should reject the whole batch if a month is not pending")
+        void shouldRejectMonthThatIsNotPending() {
+            // Given - Netflix's previous month was already confirmed
+            when(ruleRepository.findVariableRulesWithInstances(1L)).thenReturn(rows());
+
+            PendingConfirmationRequestDto dto = new PendingConfirmationRequestDto(List.of(
+                    new PendingConfirmationRequestDto.Confirmation(3L, currentMonth.toString(),
+                            null, currentMonth.atDay(1), null),
+                    new PendingConfirmationRequestDto.Confirmation(1L, currentMonth.minusMonths(1).toString(),
+                            null, null, new BigDecimal("14.99"))));
+
+            // When / Then
+            assertThatThrownBy(() -> service.confirmPending(dto))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("nothing pending");
+            verify(entryRepository, never()).save(any(Entry.class));
+            verify(instanceRepository, never()).markManualOverrideByTransactionIdIn(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Preview Tests")
+    class UpdatePreviewTests {
+
+        @Test
+        @DisplayName("Should preview date shifts, monthly deltas and skipped overrides without writing")
+        void shouldPreviewUpdateForAllInstances() {
+            // Given - Netflix on the 15th for 12.99, moving to the 31st for 15.99
+            YearMonth month = YearMonth.now();
+            when(ruleRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(testRule));
+            when(referenceDataCache.get(1L)).thenReturn(ReferenceDataSnapshot.of(List.of(testCategory), List.of(), List.of()));
+            when(instanceRepository.findTransactionStatesByRuleId(1L)).thenReturn(List.of(
+                    new Object[]{month.minusMonths(2).atDay(15), false, 100L, month.minusMonths(2).atDay(15),
+                            new BigDecimal("12.99"), EntryType.EXPENSE, CurrencyCode.EUR, 1L},
+                    new Object[]{month.minusMonths(1).atDay(15), true, 101L, month.minusMonths(1).atDay(20),
+                            new BigDecimal("20.00"), EntryType.EXPENSE, CurrencyCode.EUR, 1L},
+                    new Object[]{month.atDay(15), false, 102L, month.atDay(15),
+                            new BigDecimal("12.99"), EntryType.EXPENSE, CurrencyCode.EUR, 1L}
+            ));
+
+            UpdateRecurringRuleRequestDto dto = new UpdateRecurringRuleRequestDto();
+            dto.setName("Netflix");
+            dto.setKind(RecurringKind.SUBSCRIPTION);
+            dto.setDirection(EntryType.EXPENSE);
+            dto.setCategoryId(1L);
+            dto.setCurrency(CurrencyCode.EUR);
+            dto.setAmountDefault(new BigDecimal("15.99"));
+            dto.setDayOfMonth(31);
+            dto.setStartDate(LocalDate.of(2024, 1, 1));
+            dto.setEndType(EndType.OPEN_ENDED);
+
+            // When
+            RuleUpdatePreviewDto preview = service.previewUpdate(1L, dto, ApplyScope.ALL);
+
+            // Then
+            assertThat(preview.getAffectedCount()).isEqualTo(2);
+            assertThat(preview.getUnchangedCount()).isZero();
+            assertThat(preview.getDateShifts()).extracting(RuleUpdatePreviewDto.DateShift::getTransactionId,
+                            RuleUpdatePreviewDto.DateShift::getTo)
+                    .containsExactly(
+                            tuple(100L, month.minusMonths(2).atEndOfMonth()),
+                            tuple(102L, month.atEndOfMonth()));
+            assertThat(preview.getMonthlyDeltas()).extracting(RuleUpdatePreviewDto.MonthlyDelta::getYearMonth)
+                    .containsExactly(month.minusMonths(2).toString(), month.toString());
+            assertThat(preview.getMonthlyDeltas()).allSatisfy(delta -> {
+                assertThat(delta.getCurrency()).isEqualTo(CurrencyCode.EUR);
+                assertThat(delta.getNetDelta()).isEqualByComparingTo("-3.00");
+            });
+            assertThat(preview.getSkippedOverrides()).extracting(RuleUpdatePreviewDto.SkippedInstance::getTransactionId)
+                    .containsExactly(101L);
+            verify(ruleRepository, never()).save(any(RecurringRule.class));
+            verify(entryRepository, never()).save(any(Entry.class));
+        }
+    }
+
     @Nested
     @DisplayName("Date Calculation Tests")
     class DateCalculationTests {
@@ -486,9 +739,7 @@ class RecurringRuleServiceTest {
 
             when(ruleRepository.findActiveRulesForGeneration(1L))
                     .thenReturn(List.of(testRule));
-            when(instanceRepository.existsByRuleIdAndYearMonth(anyLong(), anyInt(), anyInt()))
-                    .thenReturn(false);
-            when(instanceRepository.countByRuleId(1L)).thenReturn(0L);
+            when(instanceRepository.findScheduledDatesByRuleId(1L)).thenReturn(List.of());
             when(entryRepository.save(any(Entry.class))).thenAnswer(inv -> {
                 Entry entry = inv.getArgument(0);
                 entry.setId(100L);
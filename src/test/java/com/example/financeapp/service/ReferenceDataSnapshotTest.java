@@ -0,0 +1,49 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.Category;
+import com.example.financeapp.entity.CategoryClosure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReferenceDataSnapshotTest {
+
+    @Test
+    @DisplayName("Should roll categories up to the requested level through the closure rows")
+    void shouldRollUpThroughClosureRows() {
+        // Given: 1 > 2 > 3, and 4 without closure rows
+        Category root = category(1L, null);
+        Category child = category(2L, root);
+        Category grandchild = category(3L, child);
+        Category orphan = category(4L, null);
+        ReferenceDataSnapshot refs = ReferenceDataSnapshot.of(List.of(root, child, grandchild, orphan), List.of(
+                new CategoryClosure(1L, 1L, 0),
+                new CategoryClosure(2L, 2L, 0),
+                new CategoryClosure(1L, 2L, 1),
+                new CategoryClosure(3L, 3L, 0),
+                new CategoryClosure(2L, 3L, 1),
+                new CategoryClosure(1L, 3L, 2)
+        ), List.of());
+
+        // Then
+        assertThat(refs.ancestorAtLevel(3L, 0)).isEqualTo(1L);
+        assertThat(refs.ancestorAtLevel(3L, 1)).isEqualTo(2L);
+        assertThat(refs.ancestorAtLevel(3L, 2)).isEqualTo(3L);
+        assertThat(refs.ancestorAtLevel(2L, 0)).isEqualTo(1L);
+        assertThat(refs.ancestorAtLevel(1L, 1)).isEqualTo(1L);
+        assertThat(refs.ancestorAtLevel(4L, 0)).isEqualTo(4L);
+        assertThat(refs.ancestorAtLevel(99L, 0)).isEqualTo(99L);
+    }
+
+    private static Category category(Long id, Category parent) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setParent(parent);
+        category.setLevel(parent != null ? parent.getLevel() + 1 : 0);
+        return category;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.financeapp.service;
+
+import com.example.financeapp.entity.*;
+import com.example.financeapp.repository.EntryRepository;
+import com.example.financeapp.repository.RecurringInstanceRepository;
+import com.example.financeapp.repository.RuleRewriteJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RuleRewriteServiceTest {
+
+    @Mock
+    private RuleRewriteJobRepository jobRepository;
+
+    @Mock
+    private RecurringInstanceRepository instanceRepository;
+
+    @Mock
+    private EntryRepository entryRepository;
+
+    @Mock
+    private BudgetService budgetService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RuleRewriteService service;
+    private RecurringRule rule;
+
+    @BeforeEach
+    void setUp() {
+        service = new RuleRewriteService(jobRepository, instanceRepository, entryRepository, budgetService,
+                eventPublisher, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "backgroundThreshold", 2);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+
+        User user = new User();
+        user.setId(1L);
+        Category category = new Category();
+        category.setId(2L);
+        rule = new RecurringRule();
+        rule.setId(1L);
+        rule.setUser(user);
+        rule.setName("Salary");
+        rule.setDirection(EntryType.INCOME);
+        rule.setCategory(category);
+        rule.setCurrency(CurrencyCode.RSD);
+        rule.setAmountDefault(new BigDecimal("1000.00"));
+        rule.setAmountIsVariable(false);
+        rule.setDayOfMonth(10);
+        rule.setStartDate(LocalDate.of(2024, 1, 10));
+        rule.setDateIsVariable(false);
+    }
+
+    private RecurringInstance instance(long id, LocalDate scheduledFor) {
+        Entry entry = new Entry();
+        entry.setId(100 + id);
+        entry.setUser(rule.getUser());
+        entry.setCategory(rule.getCategory());
+        entry.setType(EntryType.INCOME);
+        entry.setCurrency(CurrencyCode.RSD);
+        entry.setAmount(new BigDecimal("900.00"));
+        entry.setDate(scheduledFor);
+        RecurringInstance instance = new RecurringInstance();
+        instance.setId(id);
+        instance.setRule(rule);
+        instance.setTransaction(entry);
+        instance.setScheduledFor(scheduledFor);
+        instance.setIsManualOverride(false);
+        return instance;
+    }
+
+    @Test
+    @DisplayName("Should queue a job instead of rewriting above the threshold")
+    void shouldQueueLargeRewrite() {
+        // Given
+        when(instanceRepository.countRewritable(1L)).thenReturn(3L);
+        when(jobRepository.save(any(RuleRewriteJob.class))).thenAnswer(inv -> {
+            RuleRewriteJob job = inv.getArgument(0);
+            job.setId(7L);
+            return job;
+        });
+
+        // When
+        Long jobId = service.applyRuleChanges(rule, ApplyScope.ALL);
+
+        // Then
+        assertThat(jobId).isEqualTo(7L);
+        verify(jobRepository).save(argThat(job -> job.getStatus() == RuleRewriteStatus.PENDING
+                && job.getTotalCount() == 3 && job.getFromDate() == null && job.getLastInstanceId() == 0L));
+        verify(entryRepository, never()).save(any(Entry.class));
+    }
+
+    @Test
+    @DisplayName("Should resume an unfinished job after its cursor and commit chunk by chunk")
+    void shouldResumeFromCursor() {
+        // Given - a job interrupted after instance 2 of 5
+        RuleRewriteJob job = new RuleRewriteJob();
+        job.setId(7L);
+        job.setRule(rule);
+        job.setApplyScope(ApplyScope.ALL);
+        job.setStatus(RuleRewriteStatus.RUNNING);
+        job.setTotalCount(5);
+        job.setProcessedCount(2);
+        job.setLastInstanceId(2L);
+
+        when(jobRepository.findIdsByStatusIn(anyCollection())).thenReturn(List.of(7L));
+        when(jobRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(job));
+        when(instanceRepository.findRewriteChunk(eq(1L), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(instance(3, LocalDate.of(2024, 3, 5)), instance(4, LocalDate.of(2024, 4, 5))));
+        when(instanceRepository.findRewriteChunk(eq(1L), eq(4L), any(Pageable.class)))
+                .thenReturn(List.of(instance(5, LocalDate.of(2024, 5, 5))));
+        when(entryRepository.save(any(Entry.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        service.runPendingJobs();
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(RuleRewriteStatus.COMPLETED);
+        assertThat(job.getProcessedCount()).isEqualTo(5);
+        assertThat(job.getLastInstanceId()).isEqualTo(5L);
+        verify(entryRepository, times(3)).save(argThat(entry -> entry.getDate().getDayOfMonth() == 10
+                && entry.getAmount().compareTo(new BigDecimal("1000.00")) == 0));
+        verify(instanceRepository, never()).findRewriteChunk(eq(1L), eq(0L), any(Pageable.class));
+        verify(instanceRepository, never()).findRewriteChunkFrom(any(), any(), any(), any(Pageable.class));
+        // One transaction per chunk
+        verify(transactionManager, times(2)).commit(any());
+    }
+}